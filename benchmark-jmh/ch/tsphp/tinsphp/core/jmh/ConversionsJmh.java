@@ -0,0 +1,85 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.jmh;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.IConversionMethod;
+import ch.tsphp.tinsphp.common.core.IConversionsProvider;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.common.utils.Pair;
+import ch.tsphp.tinsphp.core.ConversionsProvider;
+import ch.tsphp.tinsphp.core.PrimitiveTypesProvider;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures implicit and explicit conversion lookups of {@link ConversionsProvider}, once for a pair of types which has
+ * a conversion (hit) and once for a pair which has none (miss).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionsJmh
+{
+    private IConversionsProvider conversionsProvider;
+
+    @Setup
+    public void setUp() {
+        HardCodedSymbolsInitialiser symbolsInitialiser = new HardCodedSymbolsInitialiser();
+        Map<String, ITypeSymbol> primitiveTypes = new PrimitiveTypesProvider(symbolsInitialiser.getSymbolFactory())
+                .getTypes();
+        symbolsInitialiser.getSymbolFactory().setMixedTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.MIXED));
+        conversionsProvider = new ConversionsProvider(primitiveTypes);
+        conversionsProvider.getImplicitConversions();
+        conversionsProvider.getExplicitConversions();
+    }
+
+    @Benchmark
+    public Pair<ITypeSymbol, IConversionMethod> implicitHit() {
+        return lookUp(conversionsProvider.getImplicitConversions(), PrimitiveTypeNames.INT, PrimitiveTypeNames.FLOAT);
+    }
+
+    @Benchmark
+    public Pair<ITypeSymbol, IConversionMethod> implicitMiss() {
+        return lookUp(conversionsProvider.getImplicitConversions(), PrimitiveTypeNames.STRING, PrimitiveTypeNames.INT);
+    }
+
+    @Benchmark
+    public Pair<ITypeSymbol, IConversionMethod> explicitHit() {
+        return lookUp(conversionsProvider.getExplicitConversions(), PrimitiveTypeNames.STRING, PrimitiveTypeNames.INT);
+    }
+
+    @Benchmark
+    public Pair<ITypeSymbol, IConversionMethod> explicitMiss() {
+        return lookUp(conversionsProvider.getExplicitConversions(), PrimitiveTypeNames.INT, PrimitiveTypeNames.MIXED);
+    }
+
+    private Pair<ITypeSymbol, IConversionMethod> lookUp(
+            Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> conversions, String from, String to) {
+        Pair<ITypeSymbol, IConversionMethod> conversion = null;
+        Map<String, Pair<ITypeSymbol, IConversionMethod>> conversionsFrom = conversions.get(from);
+        if (conversionsFrom != null) {
+            conversion = conversionsFrom.get(to);
+        }
+        return conversion;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.jmh;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.tinsphp.common.ICore;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of the whole core via {@link HardCodedCoreInitialiser}.
+ * <p/>
+ * Operators and built-in functions are defined on first access, hence the construction alone and the construction
+ * including the definition of all operators are measured separately.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoreInitialiserJmh
+{
+    @Benchmark
+    public ICore hardCodedCoreInitialiser() {
+        return new HardCodedCoreInitialiser(new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser())
+                .getCore();
+    }
+
+    @Benchmark
+    public void hardCodedCoreInitialiserAllOperatorsDefined(Blackhole blackhole) {
+        ICore core = new HardCodedCoreInitialiser(
+                new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser()).getCore();
+        for (Map.Entry<Integer, IMinimalMethodSymbol> entry : core.getOperators().entrySet()) {
+            blackhole.consume(entry.getValue());
+        }
+    }
+}
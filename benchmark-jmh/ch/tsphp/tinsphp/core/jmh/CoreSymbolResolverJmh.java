@@ -0,0 +1,152 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.jmh;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.IAstHelper;
+import ch.tsphp.common.ITSPHPAst;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.tinsphp.common.config.ISymbolsInitialiser;
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
+import ch.tsphp.tinsphp.common.scopes.INamespaceScope;
+import ch.tsphp.tinsphp.common.scopes.IScopeFactory;
+import ch.tsphp.tinsphp.core.CoreSymbolResolver;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each resolve method of {@link CoreSymbolResolver}, once for an identifier which is a built-in symbol (hit)
+ * and once for an identifier which is not (miss).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoreSymbolResolverJmh
+{
+    private ISymbolResolver resolver;
+
+    private ITSPHPAst classInScope;
+    private ITSPHPAst missingClassInScope;
+    private ITSPHPAst classInScopeWrongCase;
+    private ITSPHPAst missingClassInScopeWrongCase;
+    private ITSPHPAst function;
+    private ITSPHPAst missingFunction;
+    private ITSPHPAst absoluteClass;
+    private ITSPHPAst missingAbsoluteClass;
+    private ITSPHPAst superGlobal;
+    private ITSPHPAst missingSuperGlobal;
+
+    @Setup
+    public void setUp() {
+        IAstHelper astHelper = new AstHelper(new TSPHPAstAdaptor());
+        ISymbolsInitialiser symbolsInitialiser = new HardCodedSymbolsInitialiser();
+        resolver = new HardCodedCoreInitialiser(astHelper, symbolsInitialiser).getCoreSymbolResolver();
+
+        IScopeFactory scopeFactory = symbolsInitialiser.getScopeFactory();
+        INamespaceScope namespaceScope = scopeFactory.createNamespaceScope(
+                "\\", scopeFactory.createGlobalNamespaceScope("\\"));
+
+        classInScope = createAst(astHelper, TokenTypes.Identifier, "Exception", namespaceScope);
+        missingClassInScope = createAst(astHelper, TokenTypes.Identifier, "NonExisting", namespaceScope);
+        classInScopeWrongCase = createAst(astHelper, TokenTypes.Identifier, "exCEPtion", namespaceScope);
+        missingClassInScopeWrongCase = createAst(astHelper, TokenTypes.Identifier, "nonEXISTing", namespaceScope);
+        function = createAst(astHelper, TokenTypes.Identifier, "strlen()", namespaceScope);
+        missingFunction = createAst(astHelper, TokenTypes.Identifier, "nonExisting()", namespaceScope);
+        absoluteClass = createAst(astHelper, TokenTypes.Identifier, "\\ErrorException", namespaceScope);
+        missingAbsoluteClass = createAst(astHelper, TokenTypes.Identifier, "\\NonExisting", namespaceScope);
+        superGlobal = createAst(astHelper, TokenTypes.VariableId, "$_GET", namespaceScope);
+        missingSuperGlobal = createAst(astHelper, TokenTypes.VariableId, "$_NON_EXISTING", namespaceScope);
+
+        //define the built-in symbols up front, we are interested in the look up only
+        resolver.resolveIdentifierFromItsScope(classInScope);
+        resolver.resolveIdentifierFromFallback(function);
+        resolver.resolveAbsoluteIdentifier(absoluteClass);
+    }
+
+    private ITSPHPAst createAst(IAstHelper astHelper, int tokenType, String text, INamespaceScope scope) {
+        ITSPHPAst ast = astHelper.createAst(tokenType, text);
+        ast.setScope(scope);
+        return ast;
+    }
+
+    @Benchmark
+    public ISymbol resolveIdentifierFromItsScopeHit() {
+        return resolver.resolveIdentifierFromItsScope(classInScope);
+    }
+
+    @Benchmark
+    public ISymbol resolveIdentifierFromItsScopeMiss() {
+        return resolver.resolveIdentifierFromItsScope(missingClassInScope);
+    }
+
+    @Benchmark
+    public ISymbol resolveIdentifierFromItsScopeCaseInsensitiveHit() {
+        return resolver.resolveIdentifierFromItsScopeCaseInsensitive(classInScopeWrongCase);
+    }
+
+    @Benchmark
+    public ISymbol resolveIdentifierFromItsScopeCaseInsensitiveMiss() {
+        return resolver.resolveIdentifierFromItsScopeCaseInsensitive(missingClassInScopeWrongCase);
+    }
+
+    @Benchmark
+    public ISymbol resolveIdentifierFromFallbackHit() {
+        return resolver.resolveIdentifierFromFallback(function);
+    }
+
+    @Benchmark
+    public ISymbol resolveIdentifierFromFallbackMiss() {
+        return resolver.resolveIdentifierFromFallback(missingFunction);
+    }
+
+    @Benchmark
+    public ISymbol resolveAbsoluteIdentifierHit() {
+        return resolver.resolveAbsoluteIdentifier(absoluteClass);
+    }
+
+    @Benchmark
+    public ISymbol resolveAbsoluteIdentifierMiss() {
+        return resolver.resolveAbsoluteIdentifier(missingAbsoluteClass);
+    }
+
+    @Benchmark
+    public ISymbol resolveIdentifierFromItsNamespaceScopeHit() {
+        return resolver.resolveIdentifierFromItsNamespaceScope(classInScope);
+    }
+
+    @Benchmark
+    public ISymbol resolveIdentifierFromItsNamespaceScopeMiss() {
+        return resolver.resolveIdentifierFromItsNamespaceScope(missingClassInScope);
+    }
+
+    @Benchmark
+    public ISymbol resolveIdentifierFromSuperGlobalScopeHit() {
+        return resolver.resolveIdentifierFromSuperGlobalScope(superGlobal);
+    }
+
+    @Benchmark
+    public ISymbol resolveIdentifierFromSuperGlobalScopeMiss() {
+        return resolver.resolveIdentifierFromSuperGlobalScope(missingSuperGlobal);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.jmh;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code Core.getOperators().get(tokenType)} and {@code Core.getOperator(tokenType)} for operators which
+ * are already defined (hit) and for token types which are not an operator (miss).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorsJmh
+{
+    @Param({"Plus", "Assign", "LogicAnd", "Foreach"})
+    public String operator;
+
+    private Core core;
+    private int operatorType;
+    private int missingType;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        core = (Core) new HardCodedCoreInitialiser(
+                new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser()).getCore();
+        operatorType = TokenTypes.class.getField(operator).getInt(null);
+        missingType = TokenTypes.Identifier;
+        //define the operator up front, we are interested in the lookup only
+        core.getOperators().get(operatorType);
+        core.getOperator(operatorType);
+    }
+
+    @Benchmark
+    public IMinimalMethodSymbol getOperatorHit() {
+        return core.getOperators().get(operatorType);
+    }
+
+    @Benchmark
+    public IMinimalMethodSymbol getOperatorMiss() {
+        return core.getOperators().get(missingType);
+    }
+
+    @Benchmark
+    public IMinimalMethodSymbol getOperatorFromTableHit() {
+        return core.getOperator(operatorType);
+    }
+
+    @Benchmark
+    public IMinimalMethodSymbol getOperatorFromTableMiss() {
+        return core.getOperator(missingType);
+    }
+}
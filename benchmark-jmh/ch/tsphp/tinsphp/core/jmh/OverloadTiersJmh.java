@@ -0,0 +1,199 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.jmh;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.config.ISymbolsInitialiser;
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.common.utils.ERelation;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.OverloadTiers;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves a corpus of binary expressions against the overloads of their operator, once trying all overloads (flat)
+ * and once trying the exact tier of {@link Core#getOverloadTiers(int)} first and the convertible tier only if no
+ * exact overload matched without conversions (tiered).
+ * <p/>
+ * The corpus is a mix of expressions as they typically occur in PHP code, weighted by how often they occur
+ * (arithmetic on ints, string concatenation, comparisons, logic with bools and a few mixed-type expressions which need
+ * conversions). Besides the throughput (one operation = the whole corpus), the auxiliary counters report the tried
+ * overloads (attempts) and the resolved expressions, attempts / expressions is the number of overloads tried per
+ * expression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OverloadTiersJmh
+{
+    private Core core;
+    private ITypeHelper typeHelper;
+    private List<Expression> corpus;
+
+    @Setup
+    public void setUp() {
+        ISymbolsInitialiser symbolsInitialiser = new HardCodedSymbolsInitialiser();
+        core = (Core) new HardCodedCoreInitialiser(new AstHelper(new TSPHPAstAdaptor()), symbolsInitialiser)
+                .getCore();
+        typeHelper = symbolsInitialiser.getTypeHelper();
+        corpus = createCorpus(core.getPrimitiveTypes());
+        //define the operators up front, we are interested in the resolution only
+        for (Expression expression : corpus) {
+            core.getOverloadTiers(expression.operatorType);
+        }
+    }
+
+    @Benchmark
+    public int flat(Counters counters) {
+        int matches = 0;
+        for (Expression expression : corpus) {
+            ++counters.expressions;
+            for (IFunctionType overload : core.getOperator(expression.operatorType).getOverloads()) {
+                ++counters.attempts;
+                if (getRelation(overload, expression.argumentTypes) != ERelation.HAS_NO_RELATION) {
+                    ++matches;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int tiered(Counters counters) {
+        int matches = 0;
+        for (Expression expression : corpus) {
+            ++counters.expressions;
+            OverloadTiers tiers = core.getOverloadTiers(expression.operatorType);
+            boolean hasExactMatch = false;
+            for (IFunctionType overload : tiers.getExactOverloads()) {
+                ++counters.attempts;
+                ERelation relation = getRelation(overload, expression.argumentTypes);
+                if (relation != ERelation.HAS_NO_RELATION) {
+                    ++matches;
+                    hasExactMatch |= relation == ERelation.HAS_RELATION;
+                }
+            }
+            if (!hasExactMatch) {
+                for (IFunctionType overload : tiers.getConvertibleOverloads()) {
+                    ++counters.attempts;
+                    if (getRelation(overload, expression.argumentTypes) != ERelation.HAS_NO_RELATION) {
+                        ++matches;
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private ERelation getRelation(IFunctionType overload, ITypeSymbol[] argumentTypes) {
+        if (overload.getParameters().size() != argumentTypes.length) {
+            return ERelation.HAS_NO_RELATION;
+        }
+        IBindingCollection bindingCollection = overload.getBindingCollection();
+        ERelation result = ERelation.HAS_RELATION;
+        for (int i = 0; i < argumentTypes.length; ++i) {
+            String typeVariable = bindingCollection.getTypeVariable(
+                    overload.getParameters().get(i).getAbsoluteName());
+            if (bindingCollection.hasUpperTypeBounds(typeVariable)) {
+                ERelation relation = typeHelper.isFirstSameOrSubTypeOfSecond(
+                        argumentTypes[i], bindingCollection.getUpperTypeBounds(typeVariable)).relation;
+                if (relation == ERelation.HAS_NO_RELATION) {
+                    return relation;
+                } else if (relation == ERelation.HAS_COERCIVE_RELATION) {
+                    result = relation;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<Expression> createCorpus(Map<String, ITypeSymbol> primitiveTypes) {
+        ITypeSymbol bool = primitiveTypes.get(PrimitiveTypeNames.BOOL);
+        ITypeSymbol int_ = primitiveTypes.get(PrimitiveTypeNames.INT);
+        ITypeSymbol float_ = primitiveTypes.get(PrimitiveTypeNames.FLOAT);
+        ITypeSymbol string = primitiveTypes.get(PrimitiveTypeNames.STRING);
+        ITypeSymbol array = primitiveTypes.get(PrimitiveTypeNames.ARRAY);
+
+        List<Expression> corpus = new ArrayList<>();
+        add(corpus, 20, TokenTypes.Plus, int_, int_);
+        add(corpus, 8, TokenTypes.Minus, int_, int_);
+        add(corpus, 5, TokenTypes.Multiply, int_, int_);
+        add(corpus, 4, TokenTypes.Multiply, float_, float_);
+        add(corpus, 3, TokenTypes.Divide, float_, float_);
+        add(corpus, 15, TokenTypes.Dot, string, string);
+        add(corpus, 10, TokenTypes.LessThan, int_, int_);
+        add(corpus, 8, TokenTypes.Identical, string, string);
+        add(corpus, 6, TokenTypes.Equal, int_, int_);
+        add(corpus, 8, TokenTypes.LogicAnd, bool, bool);
+        add(corpus, 4, TokenTypes.LogicOr, bool, bool);
+        add(corpus, 3, TokenTypes.Plus, array, array);
+        //expressions which need conversions
+        add(corpus, 2, TokenTypes.Plus, int_, float_);
+        add(corpus, 2, TokenTypes.Plus, string, int_);
+        add(corpus, 1, TokenTypes.Divide, int_, string);
+        add(corpus, 1, TokenTypes.Dot, string, int_);
+        return corpus;
+    }
+
+    private static void add(List<Expression> corpus, int weight, int operatorType, ITypeSymbol... argumentTypes) {
+        for (int i = 0; i < weight; ++i) {
+            corpus.add(new Expression(operatorType, argumentTypes));
+        }
+    }
+
+    @AuxCounters
+    @State(Scope.Thread)
+    public static class Counters
+    {
+        public long attempts;
+        public long expressions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            attempts = 0;
+            expressions = 0;
+        }
+    }
+
+    private static final class Expression
+    {
+        private final int operatorType;
+        private final ITypeSymbol[] argumentTypes;
+
+        Expression(int theOperatorType, ITypeSymbol[] theArgumentTypes) {
+            operatorType = theOperatorType;
+            argumentTypes = theArgumentTypes;
+        }
+    }
+}
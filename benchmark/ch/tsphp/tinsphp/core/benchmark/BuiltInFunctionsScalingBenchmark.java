@@ -0,0 +1,158 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.benchmark;
+
+import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.config.ISymbolsInitialiser;
+import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.symbols.IConvertibleTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.core.AProvider;
+import ch.tsphp.tinsphp.core.ConversionsProvider;
+import ch.tsphp.tinsphp.core.ILazyInitialiser;
+import ch.tsphp.tinsphp.core.LazyMap;
+import ch.tsphp.tinsphp.core.PrimitiveTypesProvider;
+import ch.tsphp.tinsphp.core.StandardConstraintAndVariables;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static ch.tsphp.tinsphp.common.TinsPHPConstants.RETURN_VARIABLE_NAME;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_EXPR;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_RETURN;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.VAR_EXPR;
+
+/**
+ * Shows how the start up time of the built-in symbols scales with the number of declared functions, once when all
+ * functions are defined eagerly and once when they are only defined on first resolution (as BuiltInSymbolsProvider
+ * does).
+ * <p/>
+ * Each synthetic function has the same overloads as abs (three fixed ones and a convertible one). The lazy variant
+ * resolves a few functions after start up, as a typical file would do.
+ * <p/>
+ * Usage: BuiltInFunctionsScalingBenchmark [max number of functions] [iterations] [resolved functions]
+ */
+public final class BuiltInFunctionsScalingBenchmark
+{
+    private BuiltInFunctionsScalingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int maxNumberOfFunctions = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int resolvedFunctions = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        ISymbolsInitialiser symbolsInitialiser = new HardCodedSymbolsInitialiser();
+        ISymbolFactory symbolFactory = symbolsInitialiser.getSymbolFactory();
+        Map<String, ITypeSymbol> primitiveTypes = new PrimitiveTypesProvider(symbolFactory).getTypes();
+        symbolFactory.setMixedTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.MIXED));
+        symbolsInitialiser.getTypeHelper().setConversionsProvider(new ConversionsProvider(primitiveTypes));
+        StandardConstraintAndVariables std = new StandardConstraintAndVariables(symbolFactory, primitiveTypes);
+        SyntheticFunctionsProvider provider = new SyntheticFunctionsProvider(symbolsInitialiser, std);
+
+        System.out.println(String.format("%10s %16s %16s", "functions", "eager [ms]", "lazy [ms]"));
+        for (int numberOfFunctions = 10; numberOfFunctions <= maxNumberOfFunctions; numberOfFunctions *= 10) {
+            long[] eager = new long[iterations];
+            long[] lazy = new long[iterations];
+            for (int i = 0; i < iterations; ++i) {
+                eager[i] = measure(provider, numberOfFunctions, false, resolvedFunctions);
+                lazy[i] = measure(provider, numberOfFunctions, true, resolvedFunctions);
+            }
+            System.out.println(String.format("%10d %16.3f %16.3f",
+                    numberOfFunctions, median(eager) / 1e6, median(lazy) / 1e6));
+        }
+    }
+
+    private static long measure(
+            SyntheticFunctionsProvider provider, int numberOfFunctions, boolean isLazy, int resolvedFunctions) {
+        long start = System.nanoTime();
+        Map<String, ISymbol> symbols = provider.createSymbols(numberOfFunctions, isLazy);
+        for (int i = 0; i < resolvedFunctions; ++i) {
+            String key = "\\f" + (i * 7 % numberOfFunctions) + "()";
+            if (((IMinimalMethodSymbol) symbols.get(key)).getOverloads().isEmpty()) {
+                throw new IllegalStateException(key + " has no overloads");
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long median(long[] times) {
+        long[] sorted = Arrays.copyOf(times, times.length);
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static class SyntheticFunctionsProvider extends AProvider
+    {
+        SyntheticFunctionsProvider(ISymbolsInitialiser symbolsInitialiser, StandardConstraintAndVariables std) {
+            super(symbolsInitialiser.getSymbolFactory(), symbolsInitialiser.getTypeHelper(), std);
+        }
+
+        Map<String, ISymbol> createSymbols(int numberOfFunctions, boolean isLazy) {
+            Map<String, ISymbol> symbols = new HashMap<>();
+            for (int i = 0; i < numberOfFunctions; ++i) {
+                IMinimalMethodSymbol methodSymbol = symbolFactory.createMinimalMethodSymbol("f" + i);
+                if (!isLazy) {
+                    defineFunction(methodSymbol);
+                }
+                symbols.put("\\f" + i + "()", methodSymbol);
+            }
+
+            if (isLazy) {
+                symbols = new LazyMap<>(symbols, new ILazyInitialiser<String, ISymbol>()
+                {
+                    @Override
+                    public void initialise(String key, ISymbol placeholder) {
+                        defineFunction((IMinimalMethodSymbol) placeholder);
+                    }
+                });
+            }
+            return symbols;
+        }
+
+        private void defineFunction(IMinimalMethodSymbol methodSymbol) {
+            String name = methodSymbol.getName();
+            Collection<IFunctionType> overloads = methodSymbol.getOverloads();
+            overloads.add(createFixUnaryFunction(name, std.intTypeSymbol, std.intTypeSymbol));
+            overloads.add(createFixUnaryFunction(name, std.floatTypeSymbol, std.floatTypeSymbol));
+            overloads.add(createFixUnaryFunction(name, std.arrayTypeSymbol, std.falseTypeSymbol));
+
+            //{as T} -> T \ T <: num
+            IBindingCollection collection = symbolFactory.createBindingCollection();
+            collection.addVariable(VAR_EXPR, fixReference(T_EXPR));
+            collection.addVariable(RETURN_VARIABLE_NAME, reference(T_RETURN));
+            collection.addUpperTypeBound(T_RETURN, std.numTypeSymbol);
+            IConvertibleTypeSymbol asTreturn = symbolFactory.createConvertibleTypeSymbol();
+            collection.bind(asTreturn, Arrays.asList(T_RETURN));
+            collection.addUpperTypeBound(T_EXPR, asTreturn);
+            IFunctionType function = symbolFactory.createFunctionType(name, collection, std.unaryParameterId);
+            Set<String> nonFixedTypeParameters = new HashSet<>(1);
+            nonFixedTypeParameters.add(T_RETURN);
+            function.manuallySimplified(nonFixedTypeParameters, 0, true);
+            overloads.add(function);
+        }
+
+        private IFunctionType createFixUnaryFunction(String name, ITypeSymbol formal, ITypeSymbol returnType) {
+            IBindingCollection collection = createFixUnaryBindingCollection();
+            collection.addUpperTypeBound(T_EXPR, formal);
+            collection.addLowerTypeBound(T_RETURN, returnType);
+            IFunctionType function = symbolFactory.createFunctionType(name, collection, std.unaryParameterId);
+            function.manuallySimplified(Collections.<String>emptySet(), 0, false);
+            return function;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.benchmark;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.tinsphp.common.config.ICoreInitialiser;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.core.config.SnapshotCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+
+import java.util.Arrays;
+
+/**
+ * Compares the start up time of {@link HardCodedCoreInitialiser} with the one of {@link SnapshotCoreInitialiser}.
+ * <p/>
+ * Usage: CoreInitialiserBenchmark [snapshot|hard-coded|both] [iterations]
+ * <p/>
+ * The first iteration is reported separately since it includes class loading - run it with a single initialiser
+ * (in a fresh JVM) in order to get comparable cold start up times.
+ */
+public final class CoreInitialiserBenchmark
+{
+    private static final String SNAPSHOT = "snapshot";
+    private static final String HARD_CODED = "hard-coded";
+
+    private CoreInitialiserBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : "both";
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        if (!HARD_CODED.equals(mode)) {
+            run(SNAPSHOT, iterations);
+        }
+        if (!SNAPSHOT.equals(mode)) {
+            run(HARD_CODED, iterations);
+        }
+    }
+
+    private static void run(String name, int iterations) {
+        long[] times = new long[iterations];
+        for (int i = 0; i < iterations; ++i) {
+            times[i] = measure(SNAPSHOT.equals(name));
+        }
+
+        long first = times[0];
+        long[] warm = Arrays.copyOfRange(times, 1, times.length);
+        Arrays.sort(warm);
+        System.out.println(String.format("%-12s first: %8.3f ms, warm median: %8.3f ms, warm min: %8.3f ms",
+                name, first / 1e6, warm[warm.length / 2] / 1e6, warm[0] / 1e6));
+    }
+
+    private static long measure(boolean fromSnapshot) {
+        long start = System.nanoTime();
+        ICoreInitialiser initialiser;
+        if (fromSnapshot) {
+            SnapshotCoreInitialiser snapshotCoreInitialiser = new SnapshotCoreInitialiser(
+                    new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser());
+            if (!snapshotCoreInitialiser.wasLoadedFromSnapshot()) {
+                throw new IllegalStateException("snapshot could not be loaded, run ant snapshot first.");
+            }
+            initialiser = snapshotCoreInitialiser;
+        } else {
+            initialiser = new HardCodedCoreInitialiser(
+                    new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser());
+        }
+        long time = System.nanoTime() - start;
+        if (initialiser.getCore().getOperators().isEmpty()) {
+            throw new IllegalStateException("no operators defined");
+        }
+        return time;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.benchmark;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.tinsphp.core.config.ParallelCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports the median wall-clock time per phase of {@link ParallelCoreInitialiser} for different degrees of
+ * parallelism. Parallelism 1 does the same work sequentially and serves as baseline.
+ * <p/>
+ * Usage: ParallelCoreInitialiserBenchmark [iterations] [parallelism...]
+ */
+public final class ParallelCoreInitialiserBenchmark
+{
+    private ParallelCoreInitialiserBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        List<Integer> parallelisms = new ArrayList<>();
+        for (int i = 1; i < args.length; ++i) {
+            parallelisms.add(Integer.parseInt(args[i]));
+        }
+        if (parallelisms.isEmpty()) {
+            parallelisms.add(1);
+            parallelisms.add(Runtime.getRuntime().availableProcessors());
+        }
+
+        for (int parallelism : parallelisms) {
+            run(parallelism, iterations);
+        }
+    }
+
+    private static void run(int parallelism, int iterations) {
+        Map<String, long[]> times = new LinkedHashMap<>();
+        for (int i = 0; i < iterations; ++i) {
+            ParallelCoreInitialiser initialiser = new ParallelCoreInitialiser(
+                    new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser(), parallelism);
+            for (Map.Entry<String, Long> entry : initialiser.getPhaseTimes().entrySet()) {
+                long[] phaseTimes = times.get(entry.getKey());
+                if (phaseTimes == null) {
+                    phaseTimes = new long[iterations];
+                    times.put(entry.getKey(), phaseTimes);
+                }
+                phaseTimes[i] = entry.getValue();
+            }
+        }
+
+        System.out.println("parallelism " + parallelism + " (median of " + iterations + " iterations)");
+        for (Map.Entry<String, long[]> entry : times.entrySet()) {
+            long[] phaseTimes = entry.getValue();
+            Arrays.sort(phaseTimes);
+            System.out.println(String.format("  %-45s %8.3f ms", entry.getKey(), phaseTimes[iterations / 2] / 1e6));
+        }
+    }
+}
@@ -8,11 +8,16 @@ package ch.tsphp.tinsphp.core;
 
 import ch.tsphp.tinsphp.common.inference.constraints.FixedTypeVariableReference;
 import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.inference.constraints.IVariable;
 import ch.tsphp.tinsphp.common.inference.constraints.TypeVariableReference;
 import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
 import ch.tsphp.tinsphp.common.utils.ITypeHelper;
 
+import java.util.List;
+
 import static ch.tsphp.tinsphp.common.TinsPHPConstants.RETURN_VARIABLE_NAME;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T;
 import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_EXPR;
 import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_LHS;
 import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_RETURN;
@@ -38,8 +43,8 @@ public abstract class AProvider
 
     protected IBindingCollection createUnaryTBindingCollection() {
         IBindingCollection bindingCollection = symbolFactory.createBindingCollection();
-        bindingCollection.addVariable(VAR_EXPR, reference("T"));
-        bindingCollection.addVariable(RETURN_VARIABLE_NAME, reference("T"));
+        bindingCollection.addVariable(VAR_EXPR, reference(T));
+        bindingCollection.addVariable(RETURN_VARIABLE_NAME, reference(T));
         return bindingCollection;
     }
 
@@ -67,6 +72,24 @@ public abstract class AProvider
         return bindingCollection;
     }
 
+    /**
+     * Creates a function type whose binding collection is an immutable copy of the given one, see
+     * {@link ImmutableBindingCollection}. The given binding collection must not be used any longer afterwards.
+     */
+    protected IFunctionType createFunctionType(
+            String name, IBindingCollection bindingCollection, List<IVariable> parameters) {
+        return symbolFactory.createFunctionType(
+                name, ImmutableBindingCollection.copyOf(bindingCollection, parameters, std.variableIdPool), parameters);
+    }
+
+    /**
+     * Returns a function type which shares the binding collection of a structurally identical one if such a function
+     * type was already defined, see {@link FunctionTypePool}.
+     */
+    protected IFunctionType intern(IFunctionType function) {
+        return std.functionTypePool.intern(function);
+    }
+
     protected TypeVariableReference reference(String name) {
         return new TypeVariableReference(name);
     }
@@ -0,0 +1,33 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+
+import java.util.List;
+
+/**
+ * The fixed overloads of an operator which can be applied to a tuple of argument types.
+ * <p/>
+ * The overloads which can be applied without conversions come first. returnType is the return type of the first
+ * overload or null if none can be applied. hasNonFixedOverloads indicates that the operator has further overloads
+ * which were not considered and need to be solved.
+ */
+public final class ApplicableOverloadsDto
+{
+    public final List<IFunctionType> overloads;
+    public final ITypeSymbol returnType;
+    public final boolean hasNonFixedOverloads;
+
+    public ApplicableOverloadsDto(
+            List<IFunctionType> theOverloads, ITypeSymbol theReturnType, boolean hasNonFixedOverloadsToo) {
+        overloads = theOverloads;
+        returnType = theReturnType;
+        hasNonFixedOverloads = hasNonFixedOverloadsToo;
+    }
+}
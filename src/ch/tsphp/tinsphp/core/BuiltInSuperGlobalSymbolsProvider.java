@@ -24,7 +24,13 @@ public class BuiltInSuperGlobalSymbolsProvider implements ISymbolProvider
     private final IAstHelper astHelper;
     private final ISymbolFactory symbolFactory;
     private final Map<String, ITypeSymbol> primitiveTypes;
-    private Map<String, ISymbol> builtInSuperGlobals;
+    private final LazyValue<Map<String, ISymbol>> builtInSuperGlobals = new LazyValue<Map<String, ISymbol>>()
+    {
+        @Override
+        protected Map<String, ISymbol> create() {
+            return createSymbols();
+        }
+    };
 
     public BuiltInSuperGlobalSymbolsProvider(
             IAstHelper theAstHelper,
@@ -37,11 +43,7 @@ public class BuiltInSuperGlobalSymbolsProvider implements ISymbolProvider
 
     @Override
     public Map<String, ISymbol> getSymbols() {
-        if (builtInSuperGlobals == null) {
-            builtInSuperGlobals = createSymbols();
-        }
-
-        return builtInSuperGlobals;
+        return builtInSuperGlobals.get();
     }
 
     private Map<String, ISymbol> createSymbols() {
@@ -18,62 +18,198 @@ import java.util.Map;
 
 import static ch.tsphp.tinsphp.common.utils.Pair.pair;
 
+/**
+ * Provides the implicit and explicit conversions between the primitive types.
+ * <p/>
+ * Each type which is involved in a conversion has an ordinal (see {@link #getOrdinal(ITypeSymbol)}) and the
+ * conversions are stored in tables indexed by the ordinals of the source and the target type. These ordinals are
+ * the first ones of the core's {@link TypeOrdinals}, {@link CoreTypeRelations} uses the same ones for these types.
+ * The maps of {@link IConversionsProvider} are derived from the tables. Tables and maps are created on first use,
+ * exactly once even if several threads ask for them concurrently, see {@link LazyValue}.
+ */
 public class ConversionsProvider implements IConversionsProvider
 {
-    private final Map<String, ITypeSymbol> primitiveTypes;
-    private Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> implicitConversions;
-    private Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> explicitConversions;
+    public static final int NOT_CONVERTIBLE_TYPE = TypeOrdinals.NO_ORDINAL;
+
+    private final ITypeSymbol[][] implicitCastings;
+    private final ITypeSymbol[][] explicitCastings;
+    private final TypeOrdinals ordinals = new TypeOrdinals();
+    private final LazyValue<Pair<ITypeSymbol, IConversionMethod>[][]> implicitTable
+            = new LazyValue<Pair<ITypeSymbol, IConversionMethod>[][]>()
+    {
+        @Override
+        protected Pair<ITypeSymbol, IConversionMethod>[][] create() {
+            return createTable(implicitCastings);
+        }
+    };
+    private final LazyValue<Pair<ITypeSymbol, IConversionMethod>[][]> explicitTable
+            = new LazyValue<Pair<ITypeSymbol, IConversionMethod>[][]>()
+    {
+        @Override
+        protected Pair<ITypeSymbol, IConversionMethod>[][] create() {
+            return createTable(explicitCastings);
+        }
+    };
+    private final LazyValue<Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>>> implicitConversions
+            = new LazyValue<Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>>>()
+    {
+        @Override
+        protected Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> create() {
+            return createConversions(implicitTable.get());
+        }
+    };
+    private final LazyValue<Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>>> explicitConversions
+            = new LazyValue<Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>>>()
+    {
+        @Override
+        protected Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> create() {
+            return createConversions(explicitTable.get());
+        }
+    };
 
 
     public ConversionsProvider(Map<String, ITypeSymbol> thePrimitiveTypes) {
-        primitiveTypes = thePrimitiveTypes;
+        this(thePrimitiveTypes, createImplicitCastings(thePrimitiveTypes), createExplicitCastings(thePrimitiveTypes));
+    }
+
+    /**
+     * Creates a provider which uses the given from/to pairs instead of the hard-coded ones (e.g. loaded from a
+     * snapshot).
+     */
+    public ConversionsProvider(
+            Map<String, ITypeSymbol> thePrimitiveTypes,
+            ITypeSymbol[][] theImplicitCastings,
+            ITypeSymbol[][] theExplicitCastings) {
+        implicitCastings = theImplicitCastings;
+        explicitCastings = theExplicitCastings;
+        for (ITypeSymbol typeSymbol : thePrimitiveTypes.values()) {
+            ordinals.add(typeSymbol);
+        }
+        addTypes(implicitCastings);
+        addTypes(explicitCastings);
+    }
+
+    private void addTypes(ITypeSymbol[][] castings) {
+        for (ITypeSymbol[] fromTo : castings) {
+            ordinals.add(fromTo[0]);
+            ordinals.add(fromTo[1]);
+        }
+    }
+
+    /**
+     * Returns the ordinals of the convertible types, the core types extend them (see {@link CoreTypeRelations}).
+     */
+    public TypeOrdinals getTypeOrdinals() {
+        return ordinals;
+    }
+
+    /**
+     * Returns the ordinal of the given type or {@link #NOT_CONVERTIBLE_TYPE} if the type is neither a primitive type
+     * nor involved in a conversion.
+     * <p/>
+     * Types are identified by identity first and by absolute name second.
+     */
+    public int getOrdinal(ITypeSymbol typeSymbol) {
+        return ordinals.getOrdinal(typeSymbol);
+    }
+
+    public ITypeSymbol getTypeSymbol(int ordinal) {
+        return ordinals.getTypeSymbol(ordinal);
+    }
+
+    public int getNumberOfTypes() {
+        return ordinals.size();
+    }
+
+    /**
+     * Returns the implicit conversion from the first to the second type or null if there is none.
+     */
+    public Pair<ITypeSymbol, IConversionMethod> getImplicitConversion(ITypeSymbol from, ITypeSymbol to) {
+        return getConversion(implicitTable.get(), getOrdinal(from), getOrdinal(to));
+    }
+
+    /**
+     * Returns the implicit conversion from the type of the first to the type of the second ordinal or null if there
+     * is none.
+     */
+    public Pair<ITypeSymbol, IConversionMethod> getImplicitConversion(int fromOrdinal, int toOrdinal) {
+        return getConversion(implicitTable.get(), fromOrdinal, toOrdinal);
+    }
+
+    /**
+     * Returns the explicit conversion from the first to the second type or null if there is none.
+     */
+    public Pair<ITypeSymbol, IConversionMethod> getExplicitConversion(ITypeSymbol from, ITypeSymbol to) {
+        return getConversion(explicitTable.get(), getOrdinal(from), getOrdinal(to));
+    }
+
+    /**
+     * Returns the explicit conversion from the type of the first to the type of the second ordinal or null if there
+     * is none.
+     */
+    public Pair<ITypeSymbol, IConversionMethod> getExplicitConversion(int fromOrdinal, int toOrdinal) {
+        return getConversion(explicitTable.get(), fromOrdinal, toOrdinal);
+    }
+
+    private static Pair<ITypeSymbol, IConversionMethod> getConversion(
+            Pair<ITypeSymbol, IConversionMethod>[][] table, int fromOrdinal, int toOrdinal) {
+        if (fromOrdinal == NOT_CONVERTIBLE_TYPE || toOrdinal == NOT_CONVERTIBLE_TYPE) {
+            return null;
+        }
+        return table[fromOrdinal][toOrdinal];
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Pair<ITypeSymbol, IConversionMethod>[][] createTable(ITypeSymbol[][] castings) {
+        int size = ordinals.size();
+        Pair<ITypeSymbol, IConversionMethod>[][] table = new Pair[size][size];
+        for (ITypeSymbol[] fromTo : castings) {
+            IConversionMethod conversionMethod = new BuiltInConversionMethod(fromTo[1]);
+            table[getOrdinal(fromTo[0])][getOrdinal(fromTo[1])] = pair(fromTo[1], conversionMethod);
+        }
+        return table;
     }
 
     @Override
     public Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> getImplicitConversions() {
-        if (implicitConversions == null) {
-            implicitConversions = createImplicitConversions();
-        }
-        return implicitConversions;
+        return implicitConversions.get();
     }
 
-    private Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> createImplicitConversions() {
+    private static ITypeSymbol[][] createImplicitCastings(Map<String, ITypeSymbol> primitiveTypes) {
         ITypeSymbol intTypeSymbol = primitiveTypes.get(PrimitiveTypeNames.INT);
         ITypeSymbol floatTypeSymbol = primitiveTypes.get(PrimitiveTypeNames.FLOAT);
 
-        ITypeSymbol[][] castings = new ITypeSymbol[][]{
+        return new ITypeSymbol[][]{
                 //int
                 {intTypeSymbol, floatTypeSymbol},
         };
+    }
 
+    private Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> createConversions(
+            Pair<ITypeSymbol, IConversionMethod>[][] table) {
         Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> conversionsMap = new HashMap<>();
-        for (ITypeSymbol[] fromTo : castings) {
-            addToConversions(conversionsMap, fromTo[0], fromTo[1], new BuiltInConversionMethod(fromTo[1]));
+        for (int from = 0; from < table.length; ++from) {
+            Map<String, Pair<ITypeSymbol, IConversionMethod>> conversions = null;
+            for (int to = 0; to < table.length; ++to) {
+                Pair<ITypeSymbol, IConversionMethod> conversion = table[from][to];
+                if (conversion != null) {
+                    if (conversions == null) {
+                        conversions = new HashMap<>();
+                        conversionsMap.put(ordinals.getTypeSymbol(from).getAbsoluteName(), conversions);
+                    }
+                    conversions.put(ordinals.getTypeSymbol(to).getAbsoluteName(), conversion);
+                }
+            }
         }
         return conversionsMap;
     }
 
-    private static void addToConversions(Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> conversionMap,
-            ITypeSymbol from, ITypeSymbol to, IConversionMethod castingMethod) {
-        String absoluteName = from.getAbsoluteName();
-        Map<String, Pair<ITypeSymbol, IConversionMethod>> conversions = conversionMap.get(absoluteName);
-        if (conversions == null) {
-            conversions = new HashMap<>();
-            conversionMap.put(absoluteName, conversions);
-        }
-        conversions.put(to.getAbsoluteName(), pair(to, castingMethod));
-    }
-
     @Override
     public Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> getExplicitConversions() {
-        if (explicitConversions == null) {
-            explicitConversions = createExplicitConversions();
-        }
-        return explicitConversions;
-
+        return explicitConversions.get();
     }
 
-    private Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> createExplicitConversions() {
+    private static ITypeSymbol[][] createExplicitCastings(Map<String, ITypeSymbol> primitiveTypes) {
         ITypeSymbol nullTypeTypeSymbol = primitiveTypes.get(PrimitiveTypeNames.NULL_TYPE);
         ITypeSymbol falseTypeSymbol = primitiveTypes.get(PrimitiveTypeNames.FALSE_TYPE);
         ITypeSymbol trueTypeSymbol = primitiveTypes.get(PrimitiveTypeNames.TRUE_TYPE);
@@ -86,7 +222,7 @@ public class ConversionsProvider implements IConversionsProvider
         ITypeSymbol arrayTypeSymbol = primitiveTypes.get(PrimitiveTypeNames.ARRAY);
         ITypeSymbol mixedTypeSymbol = primitiveTypes.get(PrimitiveTypeNames.MIXED);
 
-        ITypeSymbol[][] castings = new ITypeSymbol[][]{
+        return new ITypeSymbol[][]{
                 {nullTypeTypeSymbol, boolTypeSymbol},
                 {nullTypeTypeSymbol, intTypeSymbol},
                 {nullTypeTypeSymbol, stringTypeSymbol},
@@ -119,12 +255,6 @@ public class ConversionsProvider implements IConversionsProvider
                 {mixedTypeSymbol, boolTypeSymbol},
                 {mixedTypeSymbol, arrayTypeSymbol}
         };
-
-        Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> conversionsMap = new HashMap<>();
-        for (ITypeSymbol[] fromTo : castings) {
-            addToConversions(conversionsMap, fromTo[0], fromTo[1], new BuiltInConversionMethod(fromTo[1]));
-        }
-        return conversionsMap;
     }
 
 }
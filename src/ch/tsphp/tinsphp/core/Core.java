@@ -6,21 +6,82 @@
 
 package ch.tsphp.tinsphp.core;
 
+import ch.tsphp.common.symbols.ISymbol;
 import ch.tsphp.common.symbols.ITypeSymbol;
 import ch.tsphp.tinsphp.common.ICore;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
 import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class Core implements ICore
 {
 
     private final Map<String, ITypeSymbol> primitiveTypes;
     private final Map<Integer, IMinimalMethodSymbol> operators;
+    private final Map<String, ISymbol> builtInSymbols;
+    private final boolean[] isOperator;
+    private final AtomicReferenceArray<IMinimalMethodSymbol> operatorTable;
+    private final AtomicReferenceArray<List<GroundOverload>> groundOverloadTable;
+    private final AtomicReferenceArray<OverloadDispatchIndex> dispatchIndexTable;
+    private final AtomicReferenceArray<OverloadSpecificityOrder> specificityOrderTable;
+    private final AtomicReferenceArray<OverloadTiers> overloadTiersTable;
+    private final Map<String, Integer> functionIndices;
+    private final AtomicReferenceArray<IMinimalMethodSymbol> functionTable;
+    private final AtomicReferenceArray<List<GroundOverload>> functionGroundOverloadTable;
+    private final AtomicReferenceArray<OverloadSpecificityOrder> functionSpecificityOrderTable;
+    private final AtomicReferenceArray<OverloadTiers> functionOverloadTiersTable;
+    private final PrimitiveTypeLattice primitiveTypeLattice;
+    private final CoreTypeRelations typeRelations;
+    private final ITypeHelper typeHelper;
+    private final StandardConstraintAndVariables std;
 
-    public Core(Map<String, ITypeSymbol> thePrimitiveTypes, Map<Integer, IMinimalMethodSymbol> theOperators) {
+    public Core(
+            Map<String, ITypeSymbol> thePrimitiveTypes,
+            Map<Integer, IMinimalMethodSymbol> theOperators,
+            Map<String, ISymbol> theBuiltInSymbols,
+            CoreTypeRelations theTypeRelations,
+            ITypeHelper theTypeHelper,
+            StandardConstraintAndVariables standardConstraintAndVariables) {
         primitiveTypes = thePrimitiveTypes;
         operators = theOperators;
+        builtInSymbols = theBuiltInSymbols;
+        typeRelations = theTypeRelations;
+        typeHelper = theTypeHelper;
+        std = standardConstraintAndVariables;
+
+        int maxTokenType = -1;
+        for (Integer tokenType : theOperators.keySet()) {
+            if (tokenType < 0) {
+                throw new IllegalArgumentException("token types of operators cannot be negative, was " + tokenType);
+            }
+            maxTokenType = Math.max(maxTokenType, tokenType);
+        }
+        isOperator = new boolean[maxTokenType + 1];
+        for (Integer tokenType : theOperators.keySet()) {
+            isOperator[tokenType] = true;
+        }
+        operatorTable = new AtomicReferenceArray<>(maxTokenType + 1);
+        groundOverloadTable = new AtomicReferenceArray<>(maxTokenType + 1);
+        dispatchIndexTable = new AtomicReferenceArray<>(maxTokenType + 1);
+        specificityOrderTable = new AtomicReferenceArray<>(maxTokenType + 1);
+        overloadTiersTable = new AtomicReferenceArray<>(maxTokenType + 1);
+
+        //only the keys are retrieved, the functions are defined the first time they are requested
+        functionIndices = new HashMap<>();
+        for (String key : theBuiltInSymbols.keySet()) {
+            functionIndices.put(key, functionIndices.size());
+        }
+        functionTable = new AtomicReferenceArray<>(functionIndices.size());
+        functionGroundOverloadTable = new AtomicReferenceArray<>(functionIndices.size());
+        functionSpecificityOrderTable = new AtomicReferenceArray<>(functionIndices.size());
+        functionOverloadTiersTable = new AtomicReferenceArray<>(functionIndices.size());
+        primitiveTypeLattice = new PrimitiveTypeLattice(thePrimitiveTypes);
     }
 
     @Override
@@ -28,9 +89,183 @@ public class Core implements ICore
         return operators;
     }
 
+    /**
+     * Returns the operator for the given token type or null if the token type is not an operator.
+     * <p/>
+     * Equivalent to getOperators().get(tokenType) but indexes an array instead of boxing and hashing the token type.
+     * The operator is retrieved from the map the first time (which defines it if the map is lazy) and remembered
+     * in the array afterwards. Hence, the operators map must not be modified after the core was created.
+     * <p/>
+     * The array is an {@link AtomicReferenceArray} so that a thread which finds an operator in the array also sees
+     * its overloads, the map itself completes an operator before it returns it.
+     */
+    public IMinimalMethodSymbol getOperator(int tokenType) {
+        if (tokenType < 0 || tokenType >= isOperator.length) {
+            return null;
+        }
+        IMinimalMethodSymbol operator = operatorTable.get(tokenType);
+        if (operator == null && isOperator[tokenType]) {
+            operator = operators.get(tokenType);
+            if (operator != null) {
+                publishOperator(tokenType, operator);
+            }
+        }
+        return operator;
+    }
+
+    /**
+     * Derives the structures of the given operator from its overloads and publishes them before the operator itself,
+     * a thread which finds the operator in the array hence finds them as well.
+     * <p/>
+     * Threads which define the same operator at the same time derive the structures twice but only the first ones are
+     * kept.
+     */
+    private void publishOperator(int tokenType, IMinimalMethodSymbol operator) {
+        Collection<IFunctionType> overloads = operator.getOverloads();
+        groundOverloadTable.compareAndSet(tokenType, null, GroundOverload.getGroundOverloads(overloads));
+        dispatchIndexTable.compareAndSet(tokenType, null, new OverloadDispatchIndex(overloads, typeHelper, std));
+        specificityOrderTable.compareAndSet(
+                tokenType, null, new OverloadSpecificityOrder(overloads, typeHelper, std.mixedTypeSymbol));
+        overloadTiersTable.compareAndSet(tokenType, null, new OverloadTiers(overloads));
+        //every thread stores the same symbol
+        operatorTable.set(tokenType, operator);
+    }
+
+    /**
+     * Returns the ground overloads of the given operator in their original order or null if the token type is not an
+     * operator, see {@link GroundOverload}.
+     * <p/>
+     * The ground overloads are determined once, when the operator is defined.
+     */
+    public List<GroundOverload> getGroundOverloads(int tokenType) {
+        return getOperator(tokenType) != null ? groundOverloadTable.get(tokenType) : null;
+    }
+
+    /**
+     * Returns the ground overloads of the given built-in function (e.g. \\strlen()) in their original order or null
+     * if it is not a built-in function, see {@link GroundOverload}.
+     * <p/>
+     * The ground overloads are determined once, when the function is defined.
+     */
+    public List<GroundOverload> getGroundOverloads(String functionKey) {
+        Integer index = functionIndices.get(functionKey);
+        return index != null && getFunction(index, functionKey) != null
+                ? functionGroundOverloadTable.get(index)
+                : null;
+    }
+
+    /**
+     * Returns the index from the kind of the first argument to the overloads of the given operator or null if the
+     * token type is not an operator, see {@link OverloadDispatchIndex}.
+     * <p/>
+     * The index is built once, when the operator is defined.
+     */
+    public OverloadDispatchIndex getDispatchIndex(int tokenType) {
+        return getOperator(tokenType) != null ? dispatchIndexTable.get(tokenType) : null;
+    }
+
+    /**
+     * Returns the overloads of the given operator in order of their specificity or null if the token type is not an
+     * operator, see {@link OverloadSpecificityOrder}.
+     * <p/>
+     * The order is computed once, when the operator is defined.
+     */
+    public OverloadSpecificityOrder getSpecificityOrder(int tokenType) {
+        return getOperator(tokenType) != null ? specificityOrderTable.get(tokenType) : null;
+    }
+
+    /**
+     * Returns the overloads of the given built-in function (e.g. \\strlen()) in order of their specificity or null if
+     * it is not a built-in function, see {@link OverloadSpecificityOrder}.
+     * <p/>
+     * The order is computed once, when the function is defined.
+     */
+    public OverloadSpecificityOrder getSpecificityOrder(String functionKey) {
+        Integer index = functionIndices.get(functionKey);
+        return index != null && getFunction(index, functionKey) != null
+                ? functionSpecificityOrderTable.get(index)
+                : null;
+    }
+
+    /**
+     * Returns the overloads of the given operator split into the exact and the convertible tier or null if the token
+     * type is not an operator, see {@link OverloadTiers}.
+     * <p/>
+     * The tiers are built once, when the operator is defined.
+     */
+    public OverloadTiers getOverloadTiers(int tokenType) {
+        return getOperator(tokenType) != null ? overloadTiersTable.get(tokenType) : null;
+    }
+
+    /**
+     * Returns the overloads of the given built-in function (e.g. \\strlen()) split into the exact and the convertible
+     * tier or null if it is not a built-in function, see {@link OverloadTiers}.
+     * <p/>
+     * The tiers are built once, when the function is defined.
+     */
+    public OverloadTiers getOverloadTiers(String functionKey) {
+        Integer index = functionIndices.get(functionKey);
+        return index != null && getFunction(index, functionKey) != null
+                ? functionOverloadTiersTable.get(index)
+                : null;
+    }
+
+    /**
+     * Works like {@link #getOperator(int)} for the built-in function at the given index, symbols which are not
+     * functions are not remembered and null is returned.
+     */
+    private IMinimalMethodSymbol getFunction(int index, String functionKey) {
+        IMinimalMethodSymbol function = functionTable.get(index);
+        if (function == null) {
+            ISymbol symbol = builtInSymbols.get(functionKey);
+            if (symbol instanceof IMinimalMethodSymbol) {
+                function = (IMinimalMethodSymbol) symbol;
+                publishFunction(index, function);
+            }
+        }
+        return function;
+    }
+
+    private void publishFunction(int index, IMinimalMethodSymbol function) {
+        Collection<IFunctionType> overloads = function.getOverloads();
+        functionGroundOverloadTable.compareAndSet(index, null, GroundOverload.getGroundOverloads(overloads));
+        functionSpecificityOrderTable.compareAndSet(
+                index, null, new OverloadSpecificityOrder(overloads, typeHelper, std.mixedTypeSymbol));
+        functionOverloadTiersTable.compareAndSet(index, null, new OverloadTiers(overloads));
+        functionTable.set(index, function);
+    }
+
     @Override
     public Map<String, ITypeSymbol> getPrimitiveTypes() {
         return primitiveTypes;
     }
 
+    /**
+     * Returns the built-in symbols (functions, constants and classes) the core was created with.
+     */
+    public Map<String, ISymbol> getBuiltInSymbols() {
+        return builtInSymbols;
+    }
+
+    /**
+     * Returns the bitmask encoding of the primitive types, see {@link PrimitiveTypeLattice}.
+     */
+    public PrimitiveTypeLattice getPrimitiveTypeLattice() {
+        return primitiveTypeLattice;
+    }
+
+    /**
+     * Returns the subtype and conversion relations between the core types, see {@link CoreTypeRelations}.
+     */
+    public CoreTypeRelations getTypeRelations() {
+        return typeRelations;
+    }
+
+    /**
+     * Returns the standard types, variables and pools the overloads of this core were built with.
+     */
+    public StandardConstraintAndVariables getStandardConstraintAndVariables() {
+        return std;
+    }
+
 }
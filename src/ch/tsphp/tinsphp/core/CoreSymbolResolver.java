@@ -6,28 +6,47 @@
 
 package ch.tsphp.tinsphp.core;
 
-import ch.tsphp.common.ILowerCaseStringMap;
 import ch.tsphp.common.IScope;
 import ch.tsphp.common.ITSPHPAst;
-import ch.tsphp.common.LowerCaseStringMap;
 import ch.tsphp.common.symbols.ISymbol;
 import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
 import ch.tsphp.tinsphp.common.scopes.INamespaceScope;
 
 import java.util.Map;
 
+/**
+ * Resolves identifiers against the predefined symbols of the core.
+ * <p/>
+ * Keys which consist of a scope name and an identifier are looked up in a {@link SymbolKeyIndex} without joining the
+ * two, case-sensitively or case-insensitively. Identifiers which are certainly not predefined are rejected by a
+ * Bloom filter before the index is probed. How many lookups were rejected can be counted on demand, see {@link
+ * #getLookupStatistics()}. The symbol is only retrieved if the key exists (the predefined symbols might be created
+ * lazily on first access).
+ */
 public class CoreSymbolResolver implements ISymbolResolver
 {
+    private static final String GLOBAL_NAMESPACE = "\\";
+
     private final Map<String, ISymbol> symbols;
-    private final ILowerCaseStringMap<ISymbol> symbolsCaseInsensitive;
+    private final SymbolKeyIndex keys;
     private final Map<String, ISymbol> superGlobals;
 
     public CoreSymbolResolver(Map<String, ISymbol> predefinedSymbols, Map<String, ISymbol> predefinedSuperGlobals) {
+        this(predefinedSymbols, predefinedSuperGlobals, false);
+    }
+
+    /**
+     * Creates a resolver which counts its lookups of predefined symbols if countLookups is true, see {@link
+     * #getLookupStatistics()}. Counting is meant for diagnostics, it adds contended writes to every lookup when the
+     * resolver is used by several threads.
+     */
+    public CoreSymbolResolver(
+            Map<String, ISymbol> predefinedSymbols, Map<String, ISymbol> predefinedSuperGlobals, boolean countLookups) {
         symbols = predefinedSymbols;
         superGlobals = predefinedSuperGlobals;
 
-        symbolsCaseInsensitive = new LowerCaseStringMap<>();
-        symbolsCaseInsensitive.putAll(predefinedSymbols);
+        //only the keys are copied, the predefined symbols might be created lazily on first access
+        keys = new SymbolKeyIndex(predefinedSymbols.keySet(), countLookups);
     }
 
     @Override
@@ -36,31 +55,37 @@ public class CoreSymbolResolver implements ISymbolResolver
         IScope scope = identifier.getScope();
         //core supports only symbols which are defined at namespace level such as classes etc.
         if (scope instanceof INamespaceScope) {
-            String typeName = scope.getScopeName() + identifier.getText();
-            symbol = symbols.get(typeName);
+            symbol = resolve(scope.getScopeName(), identifier.getText());
         }
         return symbol;
     }
 
+    private ISymbol resolve(String prefix, String identifier) {
+        String key = keys.get(prefix, identifier);
+        return key != null ? symbols.get(key) : null;
+    }
+
     @Override
     public ISymbol resolveIdentifierFromItsScopeCaseInsensitive(ITSPHPAst identifier) {
         ISymbol symbol = null;
         IScope scope = identifier.getScope();
         if (scope instanceof INamespaceScope) {
-            String typeName = scope.getScopeName() + identifier.getText();
-            symbol = symbolsCaseInsensitive.get(typeName);
+            String key = keys.getCaseInsensitive(scope.getScopeName(), identifier.getText());
+            if (key != null) {
+                symbol = symbols.get(key);
+            }
         }
         return symbol;
     }
 
     @Override
     public ISymbol resolveIdentifierFromFallback(ITSPHPAst identifier) {
-        return symbols.get("\\" + identifier.getText());
+        return resolve(GLOBAL_NAMESPACE, identifier.getText());
     }
 
     @Override
     public ISymbol resolveAbsoluteIdentifier(ITSPHPAst identifier) {
-        return symbols.get(identifier.getText());
+        return resolve("", identifier.getText());
     }
 
     @Override
@@ -68,7 +93,7 @@ public class CoreSymbolResolver implements ISymbolResolver
         ISymbol symbol = null;
         INamespaceScope scope = getEnclosingNamespaceScope(identifier);
         if (scope != null) {
-            symbol = symbols.get(scope.getScopeName() + identifier.getText());
+            symbol = resolve(scope.getScopeName(), identifier.getText());
         }
         return symbol;
     }
@@ -93,4 +118,12 @@ public class CoreSymbolResolver implements ISymbolResolver
         return superGlobals.get(identifier.getText());
     }
 
+    /**
+     * Returns how many lookups of predefined symbols were rejected up front, found a symbol or did not find one
+     * (super globals are not counted) or null if the resolver was not created to count its lookups.
+     */
+    public SymbolLookupStatisticsDto getLookupStatistics() {
+        return keys.getStatistics();
+    }
+
 }
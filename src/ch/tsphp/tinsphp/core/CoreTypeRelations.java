@@ -0,0 +1,224 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IArrayTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.common.utils.ERelation;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The subtype relation as well as the implicit and explicit conversion relation over the closed set of core types,
+ * computed once when the core is initialised.
+ * <p/>
+ * Each core type has an ordinal (see {@link #getOrdinal(ITypeSymbol)}) which indexes the relation matrices. The
+ * ordinals extend the ones of the given {@link ConversionsProvider}, hence a convertible type has the same ordinal in
+ * both (see {@link TypeOrdinals}). The subtype relation is the reflexive-transitive closure of what the type helper
+ * reports without conversions, the conversion relations correspond to the conversions of the conversions provider.
+ * <p/>
+ * Moreover, the cheapest conversion path between each pair of core types is precomputed, where a path consists of
+ * implicit and explicit conversions as well as subtype steps. Subtype steps are free, an implicit conversion costs
+ * {@link #IMPLICIT_CONVERSION_COST} and an explicit one {@link #EXPLICIT_CONVERSION_COST}. Hence, a path with fewer
+ * explicit conversions is always cheaper and among those the one with fewer conversions.
+ * <p/>
+ * Types are identified by identity first and by absolute name second so that structurally equal unions created
+ * elsewhere (e.g. during inference) have the ordinal of the core type as well.
+ */
+public class CoreTypeRelations
+{
+    public static final int NOT_A_CORE_TYPE = TypeOrdinals.NO_ORDINAL;
+    public static final int NO_CONVERSION = -1;
+    public static final int IMPLICIT_CONVERSION_COST = 1;
+    /**
+     * Greater than the cost of any path consisting of implicit conversions only.
+     */
+    public static final int EXPLICIT_CONVERSION_COST = 1 << 10;
+
+    private final ConversionsProvider conversionsProvider;
+    private final TypeOrdinals ordinals;
+    private final boolean[][] subtypes;
+    private final boolean[][] implicitConversions;
+    private final boolean[][] explicitConversions;
+    private final int[][] conversionCosts;
+    private final int[][] conversionSteps;
+
+    public CoreTypeRelations(
+            ITypeHelper typeHelper, ConversionsProvider theConversionsProvider, List<ITypeSymbol> theTypeSymbols) {
+        conversionsProvider = theConversionsProvider;
+        ordinals = new TypeOrdinals(conversionsProvider.getTypeOrdinals());
+        for (ITypeSymbol typeSymbol : theTypeSymbols) {
+            ordinals.add(typeSymbol);
+        }
+        int size = ordinals.size();
+
+        subtypes = new boolean[size][size];
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < size; ++j) {
+                subtypes[i][j] = i == j || typeHelper.isFirstSameOrSubTypeOfSecond(ordinals.getTypeSymbol(i),
+                        ordinals.getTypeSymbol(j), false).relation == ERelation.HAS_RELATION;
+            }
+        }
+        closeTransitively(subtypes);
+
+        implicitConversions = new boolean[size][size];
+        explicitConversions = new boolean[size][size];
+        //the convertible types have the same ordinals in the conversions provider
+        int numberOfConvertibleTypes = conversionsProvider.getNumberOfTypes();
+        for (int i = 0; i < numberOfConvertibleTypes; ++i) {
+            for (int j = 0; j < numberOfConvertibleTypes; ++j) {
+                implicitConversions[i][j] = conversionsProvider.getImplicitConversion(i, j) != null;
+                explicitConversions[i][j] = conversionsProvider.getExplicitConversion(i, j) != null;
+            }
+        }
+
+        conversionCosts = new int[size][size];
+        conversionSteps = new int[size][size];
+        calculateCheapestConversions();
+    }
+
+    private static void closeTransitively(boolean[][] matrix) {
+        int size = matrix.length;
+        for (int k = 0; k < size; ++k) {
+            for (int i = 0; i < size; ++i) {
+                if (matrix[i][k]) {
+                    for (int j = 0; j < size; ++j) {
+                        matrix[i][j] |= matrix[k][j];
+                    }
+                }
+            }
+        }
+    }
+
+    private void calculateCheapestConversions() {
+        int size = ordinals.size();
+        for (int i = 0; i < size; ++i) {
+            for (int j = 0; j < size; ++j) {
+                int cost = NO_CONVERSION;
+                if (subtypes[i][j]) {
+                    cost = 0;
+                } else if (implicitConversions[i][j]) {
+                    cost = IMPLICIT_CONVERSION_COST;
+                } else if (explicitConversions[i][j]) {
+                    cost = EXPLICIT_CONVERSION_COST;
+                }
+                conversionCosts[i][j] = cost;
+                conversionSteps[i][j] = cost != NO_CONVERSION ? j : NOT_A_CORE_TYPE;
+            }
+        }
+
+        //Floyd-Warshall, the first step of each path is kept in order that the path can be reconstructed
+        for (int k = 0; k < size; ++k) {
+            for (int i = 0; i < size; ++i) {
+                int costToK = conversionCosts[i][k];
+                if (costToK == NO_CONVERSION) {
+                    continue;
+                }
+                for (int j = 0; j < size; ++j) {
+                    int costFromK = conversionCosts[k][j];
+                    if (costFromK != NO_CONVERSION) {
+                        int cost = costToK + costFromK;
+                        if (conversionCosts[i][j] == NO_CONVERSION || cost < conversionCosts[i][j]) {
+                            conversionCosts[i][j] = cost;
+                            conversionSteps[i][j] = conversionSteps[i][k];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the core types of the given primitive types, standard types and built-in symbols, that is, all
+     * primitive types, the key type of array, the unions of {@link StandardConstraintAndVariables} which consist of
+     * primitive types only as well as the built-in classes \Exception and \ErrorException.
+     */
+    public static List<ITypeSymbol> getCoreTypes(
+            Map<String, ITypeSymbol> primitiveTypes,
+            StandardConstraintAndVariables std,
+            Map<String, ISymbol> builtInSymbols) {
+        Map<String, ITypeSymbol> types = new HashMap<>();
+        List<ITypeSymbol> result = new ArrayList<>();
+        for (ITypeSymbol typeSymbol : primitiveTypes.values()) {
+            addCoreType(types, result, typeSymbol);
+        }
+        IArrayTypeSymbol arrayTypeSymbol = (IArrayTypeSymbol) primitiveTypes.get(PrimitiveTypeNames.ARRAY);
+        addCoreType(types, result, arrayTypeSymbol.getKeyTypeSymbol());
+        addCoreType(types, result, std.intOrFalse);
+        addCoreType(types, result, std.floatOrFalse);
+        addCoreType(types, result, std.numOrFalse);
+        addCoreType(types, result, (ITypeSymbol) builtInSymbols.get("\\Exception"));
+        addCoreType(types, result, (ITypeSymbol) builtInSymbols.get("\\ErrorException"));
+        return result;
+    }
+
+    private static void addCoreType(Map<String, ITypeSymbol> types, List<ITypeSymbol> result, ITypeSymbol typeSymbol) {
+        if (typeSymbol != null && !types.containsKey(typeSymbol.getAbsoluteName())) {
+            types.put(typeSymbol.getAbsoluteName(), typeSymbol);
+            result.add(typeSymbol);
+        }
+    }
+
+    /**
+     * Returns the ordinal of the given type or {@link #NOT_A_CORE_TYPE} if it is not a core type.
+     */
+    public int getOrdinal(ITypeSymbol typeSymbol) {
+        return ordinals.getOrdinal(typeSymbol);
+    }
+
+    /**
+     * Returns the conversions provider whose ordinals the core types extend.
+     */
+    public ConversionsProvider getConversionsProvider() {
+        return conversionsProvider;
+    }
+
+    public ITypeSymbol getTypeSymbol(int ordinal) {
+        return ordinals.getTypeSymbol(ordinal);
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    public boolean isSameOrSubType(int firstOrdinal, int secondOrdinal) {
+        return subtypes[firstOrdinal][secondOrdinal];
+    }
+
+    public boolean hasImplicitConversion(int fromOrdinal, int toOrdinal) {
+        return implicitConversions[fromOrdinal][toOrdinal];
+    }
+
+    public boolean hasExplicitConversion(int fromOrdinal, int toOrdinal) {
+        return explicitConversions[fromOrdinal][toOrdinal];
+    }
+
+    /**
+     * Returns the cost of the cheapest conversion path from the type of the first to the type of the second ordinal
+     * or {@link #NO_CONVERSION} if there is no such path, 0 if the first type is the same as or a subtype of the
+     * second.
+     */
+    public int getConversionCost(int fromOrdinal, int toOrdinal) {
+        return conversionCosts[fromOrdinal][toOrdinal];
+    }
+
+    /**
+     * Returns the ordinal of the type which is reached by the first step of the cheapest conversion path from the
+     * type of the first to the type of the second ordinal or {@link #NOT_A_CORE_TYPE} if there is no such path.
+     * <p/>
+     * The path can be reconstructed by applying this method repeatedly until the second ordinal is reached.
+     */
+    public int getConversionStep(int fromOrdinal, int toOrdinal) {
+        return conversionSteps[fromOrdinal][toOrdinal];
+    }
+}
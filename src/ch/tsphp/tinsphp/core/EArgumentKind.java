@@ -0,0 +1,24 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+/**
+ * The primitive kind of an argument as used by {@link OverloadDispatchIndex}.
+ * <p/>
+ * MIXED stands for every type which does not belong to exactly one of the other kinds, e.g. mixed, num, convertible
+ * types or class types.
+ */
+public enum EArgumentKind
+{
+    NULL,
+    BOOL,
+    INT,
+    FLOAT,
+    STRING,
+    ARRAY,
+    MIXED
+}
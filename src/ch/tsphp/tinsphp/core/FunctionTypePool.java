@@ -0,0 +1,76 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.inference.constraints.ITypeVariableReference;
+import ch.tsphp.tinsphp.common.inference.constraints.IVariable;
+import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
+
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shares the binding collections of function types which are structurally identical, i.e. which have the same
+ * signature (bounds included), the same parameters, the same type variables and the same convertibility flag.
+ * <p/>
+ * Only the immutable binding collection is shared (see {@link ImmutableBindingCollection}), each operator and function
+ * keeps a function type of its own. Hence, the name of a function type is always the one it was defined with,
+ * regardless of which operator was defined first, and suffixes added to one function type do not leak into others.
+ */
+public class FunctionTypePool
+{
+    private final ISymbolFactory symbolFactory;
+    private final ConcurrentMap<String, IFunctionType> functionTypes = new ConcurrentHashMap<>();
+
+    public FunctionTypePool(ISymbolFactory theSymbolFactory) {
+        symbolFactory = theSymbolFactory;
+    }
+
+    /**
+     * Returns the given function type if it is the first of its kind and otherwise a function type with the name and
+     * parameters of the given one which shares the binding collection of the pooled, structurally identical one.
+     */
+    public IFunctionType intern(IFunctionType functionType) {
+        IFunctionType existing = functionTypes.putIfAbsent(getKey(functionType), functionType);
+        if (existing == null || existing.getBindingCollection() == functionType.getBindingCollection()) {
+            return functionType;
+        }
+        IFunctionType sharingFunctionType = symbolFactory.createFunctionType(
+                functionType.getName(), existing.getBindingCollection(), functionType.getParameters());
+        sharingFunctionType.manuallySimplified(functionType.getNonFixedTypeParameters(),
+                functionType.getNumberOfConvertibleApplications(), functionType.hasConvertibleParameterTypes());
+        return sharingFunctionType;
+    }
+
+    public int size() {
+        return functionTypes.size();
+    }
+
+    private String getKey(IFunctionType functionType) {
+        StringBuilder key = new StringBuilder(functionType.getSignature());
+        key.append(" |");
+        for (IVariable parameter : functionType.getParameters()) {
+            key.append(' ').append(parameter.getAbsoluteName());
+        }
+        key.append(" |");
+        IBindingCollection bindingCollection = functionType.getBindingCollection();
+        for (String variableId : new TreeSet<>(bindingCollection.getVariableIds())) {
+            ITypeVariableReference reference = bindingCollection.getTypeVariableReference(variableId);
+            key.append(' ').append(variableId).append('=').append(reference.getTypeVariable());
+            if (reference.hasFixedType()) {
+                key.append('!');
+            }
+        }
+        key.append(" | ").append(new TreeSet<>(functionType.getNonFixedTypeParameters()))
+                .append(" | ").append(functionType.hasConvertibleParameterTypes())
+                .append(' ').append(functionType.getNumberOfConvertibleApplications());
+        return key.toString();
+    }
+}
@@ -23,12 +23,27 @@ public class GeneratorHelper implements IGeneratorHelper
     private final IAstHelper astHelper;
     private final ISymbolFactory symbolFactory;
     private final Map<String, ITypeSymbol> primitiveTypes;
+    private final UnionTypePool unionTypePool;
 
     public GeneratorHelper(
             IAstHelper theAstHelper, ISymbolFactory theSymbolFactory, Map<String, ITypeSymbol> thePrimitiveTypes) {
+        this(theAstHelper, theSymbolFactory, thePrimitiveTypes,
+                new UnionTypePool(theSymbolFactory, thePrimitiveTypes));
+    }
+
+    /**
+     * Creates a helper which takes its unions from the given pool (usually the one of
+     * {@link StandardConstraintAndVariables}) so that they are shared with the operators.
+     */
+    public GeneratorHelper(
+            IAstHelper theAstHelper,
+            ISymbolFactory theSymbolFactory,
+            Map<String, ITypeSymbol> thePrimitiveTypes,
+            UnionTypePool theUnionTypePool) {
         astHelper = theAstHelper;
         symbolFactory = theSymbolFactory;
         primitiveTypes = thePrimitiveTypes;
+        unionTypePool = theUnionTypePool;
     }
 
     @Override
@@ -62,14 +77,13 @@ public class GeneratorHelper implements IGeneratorHelper
 
     @Override
     public IUnionTypeSymbol createUnionTypeSymbolFromPrimitives(String... types) {
-        IUnionTypeSymbol unionTypeSymbol = symbolFactory.createUnionTypeSymbol();
-        for (String type : types) {
-            if (primitiveTypes.containsKey(type)) {
-                unionTypeSymbol.addTypeSymbol(primitiveTypes.get(type));
-            } else {
-                throw new IllegalArgumentException(type + " was not found in the primitive types.");
+        ITypeSymbol[] typeSymbols = new ITypeSymbol[types.length];
+        for (int i = 0; i < types.length; ++i) {
+            typeSymbols[i] = primitiveTypes.get(types[i]);
+            if (typeSymbols[i] == null) {
+                throw new IllegalArgumentException(types[i] + " was not found in the primitive types.");
             }
         }
-        return unionTypeSymbol;
+        return unionTypePool.getUnion(typeSymbols);
     }
 }
@@ -0,0 +1,73 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An overload without non-fixed type parameters (ground overload) together with its precomputed bounds.
+ * <p/>
+ * Nothing of a ground overload needs to be solved, its parameter types and its return type are known up front.
+ * Hence, it can be applied by checking the arguments against {@link #getParameterUpperBound(int)} and by using
+ * {@link #returnLowerBound} as type of the expression, without copying the overload or its binding collection.
+ */
+public final class GroundOverload
+{
+    public final IFunctionType overload;
+    /**
+     * The lower type bound of the return variable or null if it has none.
+     */
+    public final ITypeSymbol returnLowerBound;
+    private final ITypeSymbol[] parameterUpperBounds;
+
+    public GroundOverload(IFunctionType theOverload) {
+        if (!isGround(theOverload)) {
+            throw new IllegalArgumentException("overload " + theOverload.getSignature() + " is not ground, it has "
+                    + "the non-fixed type parameters " + theOverload.getNonFixedTypeParameters());
+        }
+        overload = theOverload;
+        returnLowerBound = OverloadBounds.getReturnLowerTypeBounds(theOverload);
+        parameterUpperBounds = new ITypeSymbol[theOverload.getParameters().size()];
+        for (int i = 0; i < parameterUpperBounds.length; ++i) {
+            parameterUpperBounds[i] = OverloadBounds.getParameterUpperTypeBounds(theOverload, i);
+        }
+    }
+
+    public static boolean isGround(IFunctionType overload) {
+        return overload.getNonFixedTypeParameters().isEmpty();
+    }
+
+    /**
+     * Returns the ground overloads of the given overloads in their original order.
+     */
+    public static List<GroundOverload> getGroundOverloads(Collection<IFunctionType> overloads) {
+        List<GroundOverload> groundOverloads = new ArrayList<>(overloads.size());
+        for (IFunctionType overload : overloads) {
+            if (isGround(overload)) {
+                groundOverloads.add(new GroundOverload(overload));
+            }
+        }
+        return Collections.unmodifiableList(groundOverloads);
+    }
+
+    public int getNumberOfParameters() {
+        return parameterUpperBounds.length;
+    }
+
+    /**
+     * Returns the upper type bound of the parameter at the given index or null if it has none.
+     */
+    public ITypeSymbol getParameterUpperBound(int parameterIndex) {
+        return parameterUpperBounds[parameterIndex];
+    }
+}
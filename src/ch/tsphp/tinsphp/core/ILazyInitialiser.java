@@ -0,0 +1,15 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+/**
+ * Completes the placeholder of a {@link LazyMap} entry the first time the entry is accessed.
+ */
+public interface ILazyInitialiser<TKey, TValue>
+{
+    void initialise(TKey key, TValue placeholder);
+}
@@ -0,0 +1,527 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.inference.constraints.BoundResultDto;
+import ch.tsphp.tinsphp.common.inference.constraints.EBindingCollectionMode;
+import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IParametricType;
+import ch.tsphp.tinsphp.common.inference.constraints.ITypeVariableReference;
+import ch.tsphp.tinsphp.common.inference.constraints.IVariable;
+import ch.tsphp.tinsphp.common.inference.constraints.OverloadApplicationDto;
+import ch.tsphp.tinsphp.common.symbols.IContainerTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IConvertibleTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IIntersectionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IUnionTypeSymbol;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static ch.tsphp.tinsphp.common.TinsPHPConstants.RETURN_VARIABLE_NAME;
+
+/**
+ * An array-backed, read-only binding collection for the signatures defined by the core.
+ * <p/>
+ * Core signatures have at most a handful of variables and bounds, a linear search over a few array slots is cheaper
+ * than the hash maps of a general-purpose binding collection, both in time and in retained heap. All mutating methods
+ * throw an UnsupportedOperationException. Since nothing can change, function types (and their copies) can share an
+ * instance, the inference engine transfers the bounds into its own collection when it binds an overload anyway.
+ * <p/>
+ * Besides the name based methods of {@link IBindingCollection}, the bounds can be looked up by the ids of a
+ * {@link VariableIdPool} and the type variables of the parameters and the return variable are precomputed, which
+ * means no string has to be hashed or compared when an overload is checked against its arguments.
+ */
+public final class ImmutableBindingCollection implements IBindingCollection
+{
+    private final String[] variableIds;
+    private final ITypeVariableReference[] references;
+    private final int[] variable2TypeVariable;
+    private final String[] typeVariables;
+    private final int[] typeVariableSlots;
+    private final int[] parameterTypeVariableIds;
+    private final int returnTypeVariableId;
+    private final ArraySet[] typeVariable2Variables;
+    private final IUnionTypeSymbol[] lowerTypeBounds;
+    private final IIntersectionTypeSymbol[] upperTypeBounds;
+    private final ArraySet[] lowerRefBounds;
+    private final ArraySet[] upperRefBounds;
+    private final ArraySet variableIdSet;
+    private final int numberOfConvertibleApplications;
+    private final EBindingCollectionMode mode;
+
+    private ImmutableBindingCollection(
+            IBindingCollection source, List<IVariable> parameters, VariableIdPool variableIdPool) {
+        Set<String> sourceVariableIds = source.getVariableIds();
+        int numberOfVariables = sourceVariableIds.size();
+        variableIds = sourceVariableIds.toArray(new String[numberOfVariables]);
+        references = new ITypeVariableReference[numberOfVariables];
+        variable2TypeVariable = new int[numberOfVariables];
+
+        String[] typeVariablesFound = new String[numberOfVariables];
+        int numberOfTypeVariables = 0;
+        for (int i = 0; i < numberOfVariables; ++i) {
+            references[i] = source.getTypeVariableReference(variableIds[i]);
+            String typeVariable = references[i].getTypeVariable();
+            int index = indexOf(typeVariablesFound, numberOfTypeVariables, typeVariable);
+            if (index == -1) {
+                index = numberOfTypeVariables++;
+                typeVariablesFound[index] = typeVariable;
+            }
+            variable2TypeVariable[i] = index;
+        }
+        typeVariables = Arrays.copyOf(typeVariablesFound, numberOfTypeVariables);
+
+        int[] typeVariableIds = new int[numberOfTypeVariables];
+        int maxId = -1;
+        for (int i = 0; i < numberOfTypeVariables; ++i) {
+            typeVariableIds[i] = variableIdPool.getId(typeVariables[i]);
+            maxId = Math.max(maxId, typeVariableIds[i]);
+        }
+        typeVariableSlots = new int[maxId + 1];
+        Arrays.fill(typeVariableSlots, -1);
+        for (int i = 0; i < numberOfTypeVariables; ++i) {
+            typeVariableSlots[typeVariableIds[i]] = i;
+        }
+
+        int numberOfParameters = parameters.size();
+        parameterTypeVariableIds = new int[numberOfParameters];
+        for (int i = 0; i < numberOfParameters; ++i) {
+            String parameterId = parameters.get(i).getAbsoluteName();
+            int index = variableIndex(parameterId);
+            if (index == -1) {
+                throw new IllegalArgumentException("the parameter " + parameterId + " is not part of the collection.");
+            }
+            parameterTypeVariableIds[i] = typeVariableIds[variable2TypeVariable[index]];
+        }
+        int returnIndex = variableIndex(RETURN_VARIABLE_NAME);
+        returnTypeVariableId = returnIndex != -1 ? typeVariableIds[variable2TypeVariable[returnIndex]] : -1;
+
+        typeVariable2Variables = new ArraySet[numberOfTypeVariables];
+        lowerTypeBounds = new IUnionTypeSymbol[numberOfTypeVariables];
+        upperTypeBounds = new IIntersectionTypeSymbol[numberOfTypeVariables];
+        lowerRefBounds = new ArraySet[numberOfTypeVariables];
+        upperRefBounds = new ArraySet[numberOfTypeVariables];
+        for (int i = 0; i < numberOfTypeVariables; ++i) {
+            String typeVariable = typeVariables[i];
+            typeVariable2Variables[i] = copy(source.getVariableIds(typeVariable));
+            if (source.hasLowerTypeBounds(typeVariable)) {
+                lowerTypeBounds[i] = source.getLowerTypeBounds(typeVariable);
+            }
+            if (source.hasUpperTypeBounds(typeVariable)) {
+                upperTypeBounds[i] = source.getUpperTypeBounds(typeVariable);
+            }
+            lowerRefBounds[i] = copyRefBounds(typeVariable, source.getLowerRefBounds(typeVariable));
+            upperRefBounds[i] = copyRefBounds(typeVariable, source.getUpperRefBounds(typeVariable));
+        }
+
+        variableIdSet = new ArraySet(variableIds);
+        numberOfConvertibleApplications = source.getNumberOfConvertibleApplications();
+        mode = source.getMode();
+    }
+
+    /**
+     * Returns an immutable copy of the given binding collection, the ids of its type variables are taken from the
+     * given pool and the given parameters need to be part of the collection.
+     * <p/>
+     * Convertible types which are bound to the given collection are rebound to the copy so that the given collection
+     * can be garbage collected. Hence the given collection should not be used any longer afterwards.
+     *
+     * @throws IllegalArgumentException in case a parameter is not part of the given collection or a ref bound refers
+     *                                  to a type variable which does not belong to any variable (core signatures do
+     *                                  not need such helper type variables).
+     */
+    public static ImmutableBindingCollection copyOf(
+            IBindingCollection source, List<IVariable> parameters, VariableIdPool variableIdPool) {
+        ImmutableBindingCollection collection = new ImmutableBindingCollection(source, parameters, variableIdPool);
+        for (int i = 0; i < collection.typeVariables.length; ++i) {
+            rebindConvertibles(source, collection, collection.lowerTypeBounds[i]);
+            rebindConvertibles(source, collection, collection.upperTypeBounds[i]);
+        }
+        return collection;
+    }
+
+    private static void rebindConvertibles(
+            IBindingCollection source, IBindingCollection target, IContainerTypeSymbol container) {
+        if (container == null) {
+            return;
+        }
+        for (ITypeSymbol typeSymbol : container.getTypeSymbols().values()) {
+            if (typeSymbol instanceof IConvertibleTypeSymbol) {
+                IConvertibleTypeSymbol convertibleTypeSymbol = (IConvertibleTypeSymbol) typeSymbol;
+                if (convertibleTypeSymbol.wasBound() && convertibleTypeSymbol.getBindingCollection() == source) {
+                    convertibleTypeSymbol.rebind(target);
+                }
+            } else if (typeSymbol instanceof IContainerTypeSymbol) {
+                rebindConvertibles(source, target, (IContainerTypeSymbol) typeSymbol);
+            }
+        }
+    }
+
+    private ArraySet copyRefBounds(String typeVariable, Set<String> refBounds) {
+        if (refBounds == null) {
+            return null;
+        }
+        for (String refBound : refBounds) {
+            if (indexOf(typeVariables, typeVariables.length, refBound) == -1) {
+                throw new IllegalArgumentException("the ref bound " + refBound + " of " + typeVariable
+                        + " does not belong to any variable.");
+            }
+        }
+        return copy(refBounds);
+    }
+
+    private static ArraySet copy(Set<String> set) {
+        return set != null ? new ArraySet(set.toArray(new String[set.size()])) : null;
+    }
+
+    private static int indexOf(String[] array, int length, String value) {
+        for (int i = 0; i < length; ++i) {
+            if (array[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int variableIndex(String variableId) {
+        return indexOf(variableIds, variableIds.length, variableId);
+    }
+
+    private int typeVariableIndex(String typeVariable) {
+        return indexOf(typeVariables, typeVariables.length, typeVariable);
+    }
+
+    public int getNumberOfParameters() {
+        return parameterTypeVariableIds.length;
+    }
+
+    /**
+     * Returns the id of the type variable of the parameter at the given index.
+     */
+    public int getParameterTypeVariableId(int parameterIndex) {
+        return parameterTypeVariableIds[parameterIndex];
+    }
+
+    /**
+     * Returns the id of the type variable of the return variable or -1 if the collection does not contain it.
+     */
+    public int getReturnTypeVariableId() {
+        return returnTypeVariableId;
+    }
+
+    private int typeVariableSlot(int typeVariableId) {
+        return typeVariableId >= 0 && typeVariableId < typeVariableSlots.length
+                ? typeVariableSlots[typeVariableId]
+                : -1;
+    }
+
+    public boolean hasLowerTypeBounds(int typeVariableId) {
+        return getLowerTypeBounds(typeVariableId) != null;
+    }
+
+    public boolean hasUpperTypeBounds(int typeVariableId) {
+        return getUpperTypeBounds(typeVariableId) != null;
+    }
+
+    public IUnionTypeSymbol getLowerTypeBounds(int typeVariableId) {
+        int slot = typeVariableSlot(typeVariableId);
+        return slot != -1 ? lowerTypeBounds[slot] : null;
+    }
+
+    public IIntersectionTypeSymbol getUpperTypeBounds(int typeVariableId) {
+        int slot = typeVariableSlot(typeVariableId);
+        return slot != -1 ? upperTypeBounds[slot] : null;
+    }
+
+    @Override
+    public boolean containsVariable(String variableId) {
+        return variableIndex(variableId) != -1;
+    }
+
+    @Override
+    public boolean containsTypeVariable(String typeVariable) {
+        return typeVariableIndex(typeVariable) != -1;
+    }
+
+    @Override
+    public ITypeVariableReference getTypeVariableReference(String variableId) {
+        int index = variableIndex(variableId);
+        return index != -1 ? references[index] : null;
+    }
+
+    @Override
+    public String getTypeVariable(String variableId) {
+        return references[variableIndex(variableId)].getTypeVariable();
+    }
+
+    @Override
+    public Set<String> getVariableIds() {
+        return variableIdSet;
+    }
+
+    @Override
+    public Set<String> getVariableIds(String typeVariable) {
+        int index = typeVariableIndex(typeVariable);
+        return index != -1 ? typeVariable2Variables[index] : null;
+    }
+
+    @Override
+    public boolean hasLowerRefBounds(String typeVariable) {
+        return !isEmpty(lowerRefBounds, typeVariableIndex(typeVariable));
+    }
+
+    @Override
+    public boolean hasUpperRefBounds(String typeVariable) {
+        return !isEmpty(upperRefBounds, typeVariableIndex(typeVariable));
+    }
+
+    private boolean isEmpty(ArraySet[] refBounds, int index) {
+        return index == -1 || refBounds[index] == null || refBounds[index].isEmpty();
+    }
+
+    @Override
+    public boolean hasLowerTypeBounds(String typeVariable) {
+        return getLowerTypeBounds(typeVariable) != null;
+    }
+
+    @Override
+    public boolean hasUpperTypeBounds(String typeVariable) {
+        return getUpperTypeBounds(typeVariable) != null;
+    }
+
+    @Override
+    public boolean hasLowerBounds(String typeVariable) {
+        return hasLowerTypeBounds(typeVariable) || hasLowerRefBounds(typeVariable);
+    }
+
+    @Override
+    public boolean hasUpperBounds(String typeVariable) {
+        return hasUpperTypeBounds(typeVariable) || hasUpperRefBounds(typeVariable);
+    }
+
+    @Override
+    public IUnionTypeSymbol getLowerTypeBounds(String typeVariable) {
+        int index = typeVariableIndex(typeVariable);
+        return index != -1 ? lowerTypeBounds[index] : null;
+    }
+
+    @Override
+    public IIntersectionTypeSymbol getUpperTypeBounds(String typeVariable) {
+        int index = typeVariableIndex(typeVariable);
+        return index != -1 ? upperTypeBounds[index] : null;
+    }
+
+    @Override
+    public Set<String> getLowerRefBounds(String typeVariable) {
+        int index = typeVariableIndex(typeVariable);
+        return index != -1 ? lowerRefBounds[index] : null;
+    }
+
+    @Override
+    public Set<String> getUpperRefBounds(String typeVariable) {
+        int index = typeVariableIndex(typeVariable);
+        return index != -1 ? upperRefBounds[index] : null;
+    }
+
+    @Override
+    public Set<String> getLowerBoundConstraintIds(String typeVariable) {
+        return getBoundConstraintIds(getLowerTypeBounds(typeVariable), getLowerRefBounds(typeVariable));
+    }
+
+    @Override
+    public Set<String> getUpperBoundConstraintIds(String typeVariable) {
+        return getBoundConstraintIds(getUpperTypeBounds(typeVariable), getUpperRefBounds(typeVariable));
+    }
+
+    private Set<String> getBoundConstraintIds(IContainerTypeSymbol typeBounds, Set<String> refBounds) {
+        Set<String> constraintIds = new HashSet<>();
+        if (typeBounds != null) {
+            constraintIds.addAll(typeBounds.getTypeSymbols().keySet());
+        }
+        if (refBounds != null) {
+            for (String refBound : refBounds) {
+                constraintIds.add("@" + refBound);
+            }
+        }
+        return constraintIds;
+    }
+
+    @Override
+    public OverloadApplicationDto getAppliedOverload(String variableId) {
+        return null;
+    }
+
+    @Override
+    public int getNumberOfConvertibleApplications() {
+        return numberOfConvertibleApplications;
+    }
+
+    @Override
+    public EBindingCollectionMode getMode() {
+        return mode;
+    }
+
+    @Override
+    public ITypeVariableReference createHelperVariable() {
+        throw immutable();
+    }
+
+    @Override
+    public ITypeVariableReference getNextTypeVariable() {
+        throw immutable();
+    }
+
+    @Override
+    public void addVariable(String variableId, ITypeVariableReference reference) {
+        throw immutable();
+    }
+
+    @Override
+    public BoundResultDto addLowerRefBound(String typeVariable, ITypeVariableReference reference) {
+        throw immutable();
+    }
+
+    @Override
+    public BoundResultDto addLowerTypeBound(String typeVariable, ITypeSymbol typeSymbol) {
+        throw immutable();
+    }
+
+    @Override
+    public BoundResultDto addUpperTypeBound(String typeVariable, ITypeSymbol typeSymbol) {
+        throw immutable();
+    }
+
+    @Override
+    public void setAppliedOverload(String variableId, OverloadApplicationDto dto) {
+        throw immutable();
+    }
+
+    @Override
+    public void fixType(String variableId) {
+        throw immutable();
+    }
+
+    @Override
+    public void fixTypeParameter(String typeParameter) {
+        throw immutable();
+    }
+
+    @Override
+    public void fixTypeParameters() {
+        throw immutable();
+    }
+
+    @Override
+    public Set<String> tryToFix(Set<String> parameterTypeVariables) {
+        throw immutable();
+    }
+
+    @Override
+    public void mergeFirstIntoSecond(String firstTypeVariable, String secondTypeVariable) {
+        throw immutable();
+    }
+
+    @Override
+    public void renameTypeVariable(String typeVariable, String newName) {
+        throw immutable();
+    }
+
+    @Override
+    public void renameTypeVariableToNextFreeName(String typeVariable) {
+        throw immutable();
+    }
+
+    @Override
+    public void bind(IParametricType parametricType, List<String> typeParameters) {
+        throw immutable();
+    }
+
+    @Override
+    public void setMode(EBindingCollectionMode newMode) {
+        throw immutable();
+    }
+
+    @Override
+    public void setLowerTypeBounds(String typeVariable, IUnionTypeSymbol typeSymbol) {
+        throw immutable();
+    }
+
+    @Override
+    public void setUpperTypeBounds(String typeVariable, IIntersectionTypeSymbol typeSymbol) {
+        throw immutable();
+    }
+
+    @Override
+    public IUnionTypeSymbol removeLowerTypeBounds(String typeVariable) {
+        throw immutable();
+    }
+
+    @Override
+    public IIntersectionTypeSymbol removeUpperTypeBounds(String typeVariable) {
+        throw immutable();
+    }
+
+    private UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("binding collections of core signatures are immutable.");
+    }
+
+    private static final class ArraySet extends AbstractSet<String>
+    {
+        private final String[] elements;
+
+        private ArraySet(String[] theElements) {
+            elements = theElements;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            for (String element : elements) {
+                if (element.equals(o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>()
+            {
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < elements.length;
+                }
+
+                @Override
+                public String next() {
+                    if (index >= elements.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return elements[index++];
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException("binding collections of core signatures are immutable.");
+                }
+            };
+        }
+    }
+}
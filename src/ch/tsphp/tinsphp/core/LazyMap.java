@@ -0,0 +1,198 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A map which holds a cheap placeholder per key and lets an {@link ILazyInitialiser} complete the placeholder the
+ * first time its entry is accessed via {@link #get(Object)} or an entry of {@link #entrySet()}.
+ * <p/>
+ * Querying keys (containsKey, keySet, size) does not initialise any entry. Each entry is initialised exactly once via
+ * a {@link LazyValue}: different entries can be initialised concurrently, concurrent first accesses of the same entry
+ * wait until the initialisation is complete. Modifications (put, remove, clear) are not thread-safe.
+ */
+public class LazyMap<TKey, TValue> extends AbstractMap<TKey, TValue>
+{
+    private final Map<TKey, TValue> placeholders;
+    private final ILazyInitialiser<TKey, TValue> initialiser;
+    private final ConcurrentMap<Object, LazyValue<TValue>> initialisations;
+    private Set<Map.Entry<TKey, TValue>> entrySet;
+
+    public LazyMap(Map<TKey, TValue> thePlaceholders, ILazyInitialiser<TKey, TValue> theInitialiser) {
+        placeholders = thePlaceholders;
+        initialiser = theInitialiser;
+        initialisations = new ConcurrentHashMap<>(thePlaceholders.size());
+    }
+
+    public boolean isInitialised(Object key) {
+        LazyValue<TValue> initialisation = initialisations.get(key);
+        return initialisation != null && initialisation.isCreated();
+    }
+
+    @Override
+    public int size() {
+        return placeholders.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return placeholders.containsKey(key);
+    }
+
+    @Override
+    public TValue get(Object key) {
+        TValue value = placeholders.get(key);
+        if (value == null) {
+            return null;
+        }
+        LazyValue<TValue> initialisation = initialisations.get(key);
+        if (initialisation == null) {
+            initialisation = createInitialisation(key, value);
+            LazyValue<TValue> existing = initialisations.putIfAbsent(key, initialisation);
+            if (existing != null) {
+                initialisation = existing;
+            }
+        }
+        return initialisation.get();
+    }
+
+    private LazyValue<TValue> createInitialisation(final Object key, final TValue placeholder) {
+        return new LazyValue<TValue>()
+        {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected TValue create() {
+                initialiser.initialise((TKey) key, placeholder);
+                return placeholder;
+            }
+        };
+    }
+
+    @Override
+    public TValue put(TKey key, final TValue value) {
+        LazyValue<TValue> initialisation = new LazyValue<TValue>()
+        {
+            @Override
+            protected TValue create() {
+                return value;
+            }
+        };
+        //a put value is complete already
+        initialisation.get();
+        initialisations.put(key, initialisation);
+        return placeholders.put(key, value);
+    }
+
+    @Override
+    public TValue remove(Object key) {
+        TValue value = get(key);
+        placeholders.remove(key);
+        initialisations.remove(key);
+        return value;
+    }
+
+    @Override
+    public void clear() {
+        placeholders.clear();
+        initialisations.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<TKey, TValue>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private class EntrySet extends AbstractSet<Map.Entry<TKey, TValue>>
+    {
+        @Override
+        public int size() {
+            return placeholders.size();
+        }
+
+        @Override
+        public Iterator<Map.Entry<TKey, TValue>> iterator() {
+            final Iterator<TKey> keyIterator = placeholders.keySet().iterator();
+            return new Iterator<Map.Entry<TKey, TValue>>()
+            {
+                private TKey currentKey;
+
+                @Override
+                public boolean hasNext() {
+                    return keyIterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<TKey, TValue> next() {
+                    currentKey = keyIterator.next();
+                    return new LazyEntry(currentKey);
+                }
+
+                @Override
+                public void remove() {
+                    keyIterator.remove();
+                    initialisations.remove(currentKey);
+                }
+            };
+        }
+    }
+
+    private class LazyEntry implements Map.Entry<TKey, TValue>
+    {
+        private final TKey key;
+
+        LazyEntry(TKey theKey) {
+            key = theKey;
+        }
+
+        @Override
+        public TKey getKey() {
+            return key;
+        }
+
+        @Override
+        public TValue getValue() {
+            return get(key);
+        }
+
+        @Override
+        public TValue setValue(TValue value) {
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) obj;
+            TValue value = getValue();
+            return (key == null ? entry.getKey() == null : key.equals(entry.getKey()))
+                    && (value == null ? entry.getValue() == null : value.equals(entry.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            TValue value = getValue();
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A value which is created the first time it is retrieved, exactly once and safely published to all threads.
+ * <p/>
+ * Once the value was created, {@link #get()} is a single volatile read. The first threads compete via compare-and-set
+ * for creating the value, the winner creates it without holding a lock and the others wait until it is available
+ * (they do not create a value of their own). If the creation fails, then every call to {@link #get()} rethrows the
+ * failure.
+ */
+public abstract class LazyValue<TValue>
+{
+    private final AtomicReference<FutureTask<TValue>> task = new AtomicReference<>();
+    private volatile TValue value;
+
+    protected abstract TValue create();
+
+    public TValue get() {
+        TValue theValue = value;
+        if (theValue == null) {
+            FutureTask<TValue> futureTask = task.get();
+            if (futureTask == null) {
+                FutureTask<TValue> newTask = new FutureTask<>(new Callable<TValue>()
+                {
+                    @Override
+                    public TValue call() {
+                        return create();
+                    }
+                });
+                if (task.compareAndSet(null, newTask)) {
+                    newTask.run();
+                    futureTask = newTask;
+                } else {
+                    futureTask = task.get();
+                }
+            }
+            theValue = await(futureTask);
+            value = theValue;
+        }
+        return theValue;
+    }
+
+    public boolean isCreated() {
+        return value != null;
+    }
+
+    private TValue await(FutureTask<TValue> futureTask) {
+        boolean wasInterrupted = false;
+        try {
+            while (true) {
+                try {
+                    return futureTask.get();
+                } catch (InterruptedException ex) {
+                    wasInterrupted = true;
+                }
+            }
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("could not create the lazy value.", cause);
+        } finally {
+            if (wasInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
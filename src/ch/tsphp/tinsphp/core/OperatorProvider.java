@@ -30,6 +30,7 @@ import java.util.Set;
 
 import static ch.tsphp.tinsphp.common.TinsPHPConstants.RETURN_VARIABLE_NAME;
 import static ch.tsphp.tinsphp.common.utils.Pair.pair;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T;
 import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_EXPR;
 import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_LHS;
 import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_RETURN;
@@ -43,6 +44,14 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
 
     private final Set<String> emptySet = new HashSet<>(0);
     private Map<Integer, IMinimalMethodSymbol> builtInOperators;
+    private final LazyValue<LazyMap<Integer, IMinimalMethodSymbol>> lazyOperators
+            = new LazyValue<LazyMap<Integer, IMinimalMethodSymbol>>()
+    {
+        @Override
+        protected LazyMap<Integer, IMinimalMethodSymbol> create() {
+            return createOperators();
+        }
+    };
     private final Map<String, ISymbol> builtInSymbols;
 
     public OperatorProvider(
@@ -54,32 +63,42 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         builtInSymbols = theBuiltInSymbols;
     }
 
+    /**
+     * Returns a map which contains a method symbol for each operator where the overloads of an operator are only
+     * defined the first time the operator is retrieved from the map.
+     */
     @Override
     public Map<Integer, IMinimalMethodSymbol> getOperators() {
-        if (builtInOperators == null) {
-            createOperators();
-        }
-        return builtInOperators;
+        return lazyOperators.get();
     }
 
-    private void createOperators() {
+    private LazyMap<Integer, IMinimalMethodSymbol> createOperators() {
         builtInOperators = new HashMap<>();
         addOperatorLists();
+        return new LazyMap<>(builtInOperators, new ILazyInitialiser<Integer, IMinimalMethodSymbol>()
+        {
+            @Override
+            public void initialise(Integer operatorType, IMinimalMethodSymbol placeholder) {
+                defineOperator(operatorType);
+            }
+        });
+    }
 
-        defineLogicOperators();
-        defineAssignmentOperators();
-        defineBitLevelOperators();
-        defineComparisonOperators();
-        defineTernaryOperator();
-        defineArithmeticOperators();
-        defineDotOperator();
-        defineInstanceOfOperator();
-        defineCloneAndNewOperator();
-        defineAtAndCastOperator();
-        defineArrayAccessOperator();
-
-        defineControlFlowOperators();
-        defineGlobalFunctions();
+    private void defineOperator(int operatorType) {
+        defineLogicOperators(operatorType);
+        defineAssignmentOperators(operatorType);
+        defineBitLevelOperators(operatorType);
+        defineComparisonOperators(operatorType);
+        defineTernaryOperator(operatorType);
+        defineArithmeticOperators(operatorType);
+        defineDotOperator(operatorType);
+        defineInstanceOfOperator(operatorType);
+        defineCloneAndNewOperator(operatorType);
+        defineAtAndCastOperator(operatorType);
+        defineArrayAccessOperator(operatorType);
+
+        defineControlFlowOperators(operatorType);
+        defineGlobalFunctions(operatorType);
     }
 
     private void addOperatorLists() {
@@ -133,34 +152,54 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         }
     }
 
-    private void defineLogicOperators() {
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] orOperators = new Pair[]{
-                pair("or", TokenTypes.LogicOrWeak),
-                pair("||", TokenTypes.LogicOr)
-        };
-        for (Pair<String, Integer> operator : orOperators) {
-//            //false x false -> false
-//            addToBinaryOperators(operator, std.falseTypeSymbol, std.falseTypeSymbol, std.falseTypeSymbol, false);
-//            //true x true -> true
-//            addToBinaryOperators(operator, std.trueTypeSymbol, std.trueTypeSymbol, std.trueTypeSymbol, false);
+    private void defineLogicOperators(int operatorType) {
+        switch (operatorType) {
+            case TokenTypes.LogicOrWeak:
+                createOrOperator(pair("or", operatorType));
+                break;
+            case TokenTypes.LogicOr:
+                createOrOperator(pair("||", operatorType));
+                break;
+            case TokenTypes.LogicXorWeak:
+                createXorOperator();
+                break;
+            case TokenTypes.LogicAndWeak:
+                createAndOperator(pair("and", operatorType));
+                break;
+            case TokenTypes.LogicAnd:
+                createAndOperator(pair("&&", operatorType));
+                break;
+            case TokenTypes.LogicNot:
+                createLogicNotOperator();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void createOrOperator(Pair<String, Integer> operator) {
+//        //false x false -> false
+//        addToBinaryOperators(operator, std.falseTypeSymbol, std.falseTypeSymbol, std.falseTypeSymbol, false);
+//        //true x true -> true
+//        addToBinaryOperators(operator, std.trueTypeSymbol, std.trueTypeSymbol, std.trueTypeSymbol, false);
 //
-//            //true x bool -> true
-//            addToBinaryOperators(operator, std.trueTypeSymbol, std.boolTypeSymbol, std.trueTypeSymbol, false);
-//            //true x {as bool} -> true
-//            addToBinaryOperators(operator, std.trueTypeSymbol, std.asBoolTypeSymbol, std.trueTypeSymbol, true);
+//        //true x bool -> true
+//        addToBinaryOperators(operator, std.trueTypeSymbol, std.boolTypeSymbol, std.trueTypeSymbol, false);
+//        //true x {as bool} -> true
+//        addToBinaryOperators(operator, std.trueTypeSymbol, std.asBoolTypeSymbol, std.trueTypeSymbol, true);
 //
-//            //bool x true -> true
-//            addToBinaryOperators(operator, std.boolTypeSymbol, std.trueTypeSymbol, std.trueTypeSymbol, false);
-//            //{as bool} x true -> true
-//            addToBinaryOperators(operator, std.asBoolTypeSymbol, std.trueTypeSymbol, std.trueTypeSymbol, true);
-
-            //bool x bool -> bool
-            addToBinaryOperators(operator, std.boolTypeSymbol, std.boolTypeSymbol, std.boolTypeSymbol, false);
-            //{as bool} x {as bool} -> bool
-            addToBinaryOperators(operator, std.asBoolTypeSymbol, std.asBoolTypeSymbol, std.boolTypeSymbol, true);
-        }
+//        //bool x true -> true
+//        addToBinaryOperators(operator, std.boolTypeSymbol, std.trueTypeSymbol, std.trueTypeSymbol, false);
+//        //{as bool} x true -> true
+//        addToBinaryOperators(operator, std.asBoolTypeSymbol, std.trueTypeSymbol, std.trueTypeSymbol, true);
+
+        //bool x bool -> bool
+        addToBinaryOperators(operator, std.boolTypeSymbol, std.boolTypeSymbol, std.boolTypeSymbol, false);
+        //{as bool} x {as bool} -> bool
+        addToBinaryOperators(operator, std.asBoolTypeSymbol, std.asBoolTypeSymbol, std.boolTypeSymbol, true);
+    }
 
+    private void createXorOperator() {
         Pair<String, Integer> xorWeak = pair("xor", TokenTypes.LogicXorWeak);
 //        //false x true -> true
 //        addToBinaryOperators(xorWeak, std.falseTypeSymbol, std.trueTypeSymbol, std.trueTypeSymbol, false);
@@ -174,35 +213,32 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         addToBinaryOperators(xorWeak, std.boolTypeSymbol, std.boolTypeSymbol, std.boolTypeSymbol, false);
         //{as bool} x {as bool} -> bool
         addToBinaryOperators(xorWeak, std.asBoolTypeSymbol, std.asBoolTypeSymbol, std.boolTypeSymbol, true);
+    }
 
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] andOperators = new Pair[]{
-                pair("and", TokenTypes.LogicAndWeak),
-                pair("&&", TokenTypes.LogicAnd)
-        };
-        for (Pair<String, Integer> operator : andOperators) {
-//            //false x false -> false
-//            addToBinaryOperators(operator, std.falseTypeSymbol, std.falseTypeSymbol, std.falseTypeSymbol, false);
+    private void createAndOperator(Pair<String, Integer> operator) {
+//        //false x false -> false
+//        addToBinaryOperators(operator, std.falseTypeSymbol, std.falseTypeSymbol, std.falseTypeSymbol, false);
 //
-//            //false x bool -> false
-//            addToBinaryOperators(operator, std.falseTypeSymbol, std.boolTypeSymbol, std.falseTypeSymbol, false);
-//            //false x {as bool} -> false
-//            addToBinaryOperators(operator, std.falseTypeSymbol, std.asBoolTypeSymbol, std.falseTypeSymbol, true);
+//        //false x bool -> false
+//        addToBinaryOperators(operator, std.falseTypeSymbol, std.boolTypeSymbol, std.falseTypeSymbol, false);
+//        //false x {as bool} -> false
+//        addToBinaryOperators(operator, std.falseTypeSymbol, std.asBoolTypeSymbol, std.falseTypeSymbol, true);
 //
-//            //bool x false -> false
-//            addToBinaryOperators(operator, std.boolTypeSymbol, std.falseTypeSymbol, std.falseTypeSymbol, false);
-//            //{as bool} x false -> false
-//            addToBinaryOperators(operator, std.asBoolTypeSymbol, std.falseTypeSymbol, std.falseTypeSymbol, true);
+//        //bool x false -> false
+//        addToBinaryOperators(operator, std.boolTypeSymbol, std.falseTypeSymbol, std.falseTypeSymbol, false);
+//        //{as bool} x false -> false
+//        addToBinaryOperators(operator, std.asBoolTypeSymbol, std.falseTypeSymbol, std.falseTypeSymbol, true);
 //
-//            //true x true -> true
-//            addToBinaryOperators(operator, std.trueTypeSymbol, std.trueTypeSymbol, std.trueTypeSymbol, false);
+//        //true x true -> true
+//        addToBinaryOperators(operator, std.trueTypeSymbol, std.trueTypeSymbol, std.trueTypeSymbol, false);
 
-            //bool x bool -> bool
-            addToBinaryOperators(operator, std.boolTypeSymbol, std.boolTypeSymbol, std.boolTypeSymbol, false);
-            //{as bool} x {as bool} -> bool
-            addToBinaryOperators(operator, std.asBoolTypeSymbol, std.asBoolTypeSymbol, std.boolTypeSymbol, true);
-        }
+        //bool x bool -> bool
+        addToBinaryOperators(operator, std.boolTypeSymbol, std.boolTypeSymbol, std.boolTypeSymbol, false);
+        //{as bool} x {as bool} -> bool
+        addToBinaryOperators(operator, std.asBoolTypeSymbol, std.asBoolTypeSymbol, std.boolTypeSymbol, true);
+    }
 
+    private void createLogicNotOperator() {
         Pair<String, Integer> logicNot = new Pair<>("!", TokenTypes.LogicNot);
 //        addToUnaryOperators(logicNot, std.falseTypeSymbol, std.trueTypeSymbol, false);
 //        addToUnaryOperators(logicNot, std.trueTypeSymbol, std.falseTypeSymbol, false);
@@ -210,13 +246,17 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         addToUnaryOperators(logicNot, std.asBoolTypeSymbol, std.boolTypeSymbol, true);
     }
 
-    private void defineAssignmentOperators() {
+    private void defineAssignmentOperators(int operatorType) {
+        if (operatorType != TokenTypes.Assign) {
+            return;
+        }
+
         IFunctionType function;
 
         //Tlhs x Trhs -> Tlhs \ Trhs <: Tlhs
         IBindingCollection bindingCollection = createAssignBindingCollection();
         bindingCollection.addLowerRefBound(T_LHS, new TypeVariableReference(T_RHS));
-        function = symbolFactory.createFunctionType("=", bindingCollection, std.binaryParameterIds);
+        function = createFunctionType("=", bindingCollection, std.binaryParameterIds);
         function.manuallySimplified(set(T_LHS, T_RHS), 0, false);
         addToOperators(TokenTypes.Assign, function);
 
@@ -224,39 +264,52 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         //For instance, += is in createAssignmentOperators
     }
 
-    private void defineBitLevelOperators() {
-        createBitLevelNonAssignOperators();
-        createBitLevelAssignOperators();
+    private void defineBitLevelOperators(int operatorType) {
+        createBitLevelNonAssignOperators(operatorType);
+        createBitLevelAssignOperators(operatorType);
     }
 
-    private void createBitLevelNonAssignOperators() {
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] intResultingNonAssignOperators = new Pair[]{
-                pair("|", TokenTypes.BitwiseOr),
-                pair("^", TokenTypes.BitwiseXor),
-                pair("&", TokenTypes.BitwiseAnd),
-                pair("<<", TokenTypes.ShiftLeft),
-                pair(">>", TokenTypes.ShiftRight),
-        };
-
-        for (Pair<String, Integer> operator : intResultingNonAssignOperators) {
-            //int x int -> int
-            addToBinaryOperators(operator, std.intTypeSymbol, std.intTypeSymbol, std.intTypeSymbol, false);
-            //(array | {as int}) x (array | {as int}) -> int
-            addToBinaryOperators(operator, std.arrayOrAsInt, std.arrayOrAsInt, std.intTypeSymbol, true);
+    private void createBitLevelNonAssignOperators(int operatorType) {
+        switch (operatorType) {
+            case TokenTypes.BitwiseOr:
+                createIntResultingBitLevelOperator(pair("|", operatorType));
+                createStringResultingBitLevelOperator(pair("|", operatorType));
+                break;
+            case TokenTypes.BitwiseXor:
+                createIntResultingBitLevelOperator(pair("^", operatorType));
+                createStringResultingBitLevelOperator(pair("^", operatorType));
+                break;
+            case TokenTypes.BitwiseAnd:
+                createIntResultingBitLevelOperator(pair("&", operatorType));
+                createStringResultingBitLevelOperator(pair("&", operatorType));
+                break;
+            case TokenTypes.ShiftLeft:
+                createIntResultingBitLevelOperator(pair("<<", operatorType));
+                break;
+            case TokenTypes.ShiftRight:
+                createIntResultingBitLevelOperator(pair(">>", operatorType));
+                break;
+            case TokenTypes.BitwiseNot:
+                createBitwiseNotOperator();
+                break;
+            default:
+                break;
         }
+    }
 
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] stringResultingOperators = new Pair[]{
-                pair("|", TokenTypes.BitwiseOr),
-                pair("^", TokenTypes.BitwiseXor),
-                pair("&", TokenTypes.BitwiseAnd)
-        };
-        for (Pair<String, Integer> operator : stringResultingOperators) {
-            //string x string -> string
-            addToBinaryOperators(operator, std.stringTypeSymbol, std.stringTypeSymbol, std.stringTypeSymbol, false);
-        }
+    private void createIntResultingBitLevelOperator(Pair<String, Integer> operator) {
+        //int x int -> int
+        addToBinaryOperators(operator, std.intTypeSymbol, std.intTypeSymbol, std.intTypeSymbol, false);
+        //(array | {as int}) x (array | {as int}) -> int
+        addToBinaryOperators(operator, std.arrayOrAsInt, std.arrayOrAsInt, std.intTypeSymbol, true);
+    }
 
+    private void createStringResultingBitLevelOperator(Pair<String, Integer> operator) {
+        //string x string -> string
+        addToBinaryOperators(operator, std.stringTypeSymbol, std.stringTypeSymbol, std.stringTypeSymbol, false);
+    }
+
+    private void createBitwiseNotOperator() {
         Pair<String, Integer> bitwiseNot = pair("~", TokenTypes.BitwiseNot);
         //int -> int
         addToUnaryOperators(bitwiseNot, std.intTypeSymbol, std.intTypeSymbol, false);
@@ -266,75 +319,103 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         addToUnaryOperators(bitwiseNot, std.stringTypeSymbol, std.stringTypeSymbol, false);
     }
 
-    private void createBitLevelAssignOperators() {
-        IFunctionType function;
+    private void createBitLevelAssignOperators(int operatorType) {
+        switch (operatorType) {
+            case TokenTypes.BitwiseOrAssign:
+                createIntResultingBitLevelAssignOperator(pair("|=", operatorType));
+                createStringResultingBitLevelAssignOperator(pair("|=", operatorType));
+                break;
+            case TokenTypes.BitwiseXorAssign:
+                createIntResultingBitLevelAssignOperator(pair("^=", operatorType));
+                createStringResultingBitLevelAssignOperator(pair("^=", operatorType));
+                break;
+            case TokenTypes.BitwiseAndAssign:
+                createIntResultingBitLevelAssignOperator(pair("&=", operatorType));
+                createStringResultingBitLevelAssignOperator(pair("&=", operatorType));
+                break;
+            case TokenTypes.ShiftLeftAssign:
+                createIntResultingBitLevelAssignOperator(pair("<<=", operatorType));
+                break;
+            case TokenTypes.ShiftRightAssign:
+                createIntResultingBitLevelAssignOperator(pair(">>=", operatorType));
+                break;
+            default:
+                break;
+        }
+    }
 
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] intResultingAssignOperators = new Pair[]{
-                pair("|=", TokenTypes.BitwiseOrAssign),
-                pair("^=", TokenTypes.BitwiseXorAssign),
-                pair("&=", TokenTypes.BitwiseAndAssign),
-                pair("<<=", TokenTypes.ShiftLeftAssign),
-                pair(">>=", TokenTypes.ShiftRightAssign),
-        };
+    private void createIntResultingBitLevelAssignOperator(Pair<String, Integer> operator) {
+        IFunctionType function;
 
-        for (Pair<String, Integer> operator : intResultingAssignOperators) {
-            //Tlhs x int -> Tlhs \ int <: Tlhs <: int
-            IBindingCollection bindingCollection = createAssignBindingCollection();
-            bindingCollection.addLowerTypeBound(T_LHS, std.intTypeSymbol);
-            bindingCollection.addUpperTypeBound(T_LHS, std.intTypeSymbol);
-            bindingCollection.addUpperTypeBound(T_RHS, std.intTypeSymbol);
-            function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
-            function.manuallySimplified(set(T_LHS), 0, false);
-            addToOperators(operator.second, function);
-
-            //Tlhs x (array | {as int}) -> Tlhs \ int <: Tlhs <: (array | {as int})
-            bindingCollection = createAssignBindingCollection();
-            bindingCollection.addLowerTypeBound(T_LHS, std.intTypeSymbol);
-            bindingCollection.addUpperTypeBound(T_LHS, std.arrayOrAsInt);
-            bindingCollection.addUpperTypeBound(T_RHS, std.arrayOrAsInt);
-            function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
-            function.manuallySimplified(set(T_LHS), 0, true);
-            addToOperators(operator.second, function);
-        }
+        //Tlhs x int -> Tlhs \ int <: Tlhs <: int
+        IBindingCollection bindingCollection = createAssignBindingCollection();
+        bindingCollection.addLowerTypeBound(T_LHS, std.intTypeSymbol);
+        bindingCollection.addUpperTypeBound(T_LHS, std.intTypeSymbol);
+        bindingCollection.addUpperTypeBound(T_RHS, std.intTypeSymbol);
+        function = createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
+        function.manuallySimplified(set(T_LHS), 0, false);
+        addToOperators(operator.second, function);
 
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] stringResultingAssignOperators = new Pair[]{
-                pair("|=", TokenTypes.BitwiseOrAssign),
-                pair("^=", TokenTypes.BitwiseXorAssign),
-                pair("&=", TokenTypes.BitwiseAndAssign)
-        };
-        for (Pair<String, Integer> operator : stringResultingAssignOperators) {
-            //Tlhs x string -> Tlhs \ string <: Tlhs <: string
-            IBindingCollection bindingCollection = createAssignBindingCollection();
-            bindingCollection.addLowerTypeBound(T_LHS, std.stringTypeSymbol);
-            bindingCollection.addUpperTypeBound(T_LHS, std.stringTypeSymbol);
-            bindingCollection.addUpperTypeBound(T_RHS, std.stringTypeSymbol);
-            function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
-            function.manuallySimplified(set(T_LHS), 0, false);
-            addToOperators(operator.second, function);
-        }
+        //Tlhs x (array | {as int}) -> Tlhs \ int <: Tlhs <: (array | {as int})
+        bindingCollection = createAssignBindingCollection();
+        bindingCollection.addLowerTypeBound(T_LHS, std.intTypeSymbol);
+        bindingCollection.addUpperTypeBound(T_LHS, std.arrayOrAsInt);
+        bindingCollection.addUpperTypeBound(T_RHS, std.arrayOrAsInt);
+        function = createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
+        function.manuallySimplified(set(T_LHS), 0, true);
+        addToOperators(operator.second, function);
     }
 
-    private void defineComparisonOperators() {
+    private void createStringResultingBitLevelAssignOperator(Pair<String, Integer> operator) {
+        //Tlhs x string -> Tlhs \ string <: Tlhs <: string
+        IBindingCollection bindingCollection = createAssignBindingCollection();
+        bindingCollection.addLowerTypeBound(T_LHS, std.stringTypeSymbol);
+        bindingCollection.addUpperTypeBound(T_LHS, std.stringTypeSymbol);
+        bindingCollection.addUpperTypeBound(T_RHS, std.stringTypeSymbol);
+        IFunctionType function = createFunctionType(
+                operator.first, bindingCollection, std.binaryParameterIds);
+        function.manuallySimplified(set(T_LHS), 0, false);
+        addToOperators(operator.second, function);
+    }
 
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] operators = new Pair[]{
-                pair("==", TokenTypes.Equal),
-                pair("===", TokenTypes.Identical),
-                pair("!=", TokenTypes.NotEqual),
-                pair("!==", TokenTypes.NotIdentical),
-                pair("<", TokenTypes.LessThan),
-                pair("<=", TokenTypes.LessEqualThan),
-                pair(">", TokenTypes.GreaterThan),
-                pair(">=", TokenTypes.GreaterEqualThan),
-        };
-        for (Pair<String, Integer> operator : operators) {
-            addToBinaryOperators(operator, std.mixedTypeSymbol, std.mixedTypeSymbol, std.boolTypeSymbol, false);
+    private void defineComparisonOperators(int operatorType) {
+        Pair<String, Integer> operator;
+        switch (operatorType) {
+            case TokenTypes.Equal:
+                operator = pair("==", operatorType);
+                break;
+            case TokenTypes.Identical:
+                operator = pair("===", operatorType);
+                break;
+            case TokenTypes.NotEqual:
+                operator = pair("!=", operatorType);
+                break;
+            case TokenTypes.NotIdentical:
+                operator = pair("!==", operatorType);
+                break;
+            case TokenTypes.LessThan:
+                operator = pair("<", operatorType);
+                break;
+            case TokenTypes.LessEqualThan:
+                operator = pair("<=", operatorType);
+                break;
+            case TokenTypes.GreaterThan:
+                operator = pair(">", operatorType);
+                break;
+            case TokenTypes.GreaterEqualThan:
+                operator = pair(">=", operatorType);
+                break;
+            default:
+                return;
         }
+        addToBinaryOperators(operator, std.mixedTypeSymbol, std.mixedTypeSymbol, std.boolTypeSymbol, false);
     }
 
-    private void defineTernaryOperator() {
+    private void defineTernaryOperator(int operatorType) {
+        if (operatorType != TokenTypes.QuestionMark) {
+            return;
+        }
+
         final String varCondition = "$condition";
         final String varIf = "$if";
         final String varElse = "$else";
@@ -356,7 +437,7 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
 //        bindingCollection.addUpperTypeBound(tCondition, std.falseTypeSymbol);
 //        bindingCollection.addUpperTypeBound(tIf, std.mixedTypeSymbol);
 //        bindingCollection.addLowerRefBound(T_RETURN, reference(tElse));
-//        IFunctionType function = symbolFactory.createFunctionType("?", bindingCollection, parameters);
+//        IFunctionType function = createFunctionType("?", bindingCollection, parameters);
 //        function.manuallySimplified(set(tElse, T_RETURN), 0, false);
 //        addToOperators(TokenTypes.QuestionMark, function);
 //
@@ -371,7 +452,7 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
 //        bindingCollection.addUpperTypeBound(tCondition, std.trueTypeSymbol);
 //        bindingCollection.addUpperTypeBound(tElse, std.mixedTypeSymbol);
 //        bindingCollection.addLowerRefBound(T_RETURN, reference(tIf));
-//        function = symbolFactory.createFunctionType("?", bindingCollection, parameters);
+//        function = createFunctionType("?", bindingCollection, parameters);
 //        function.manuallySimplified(set(tIf, T_RETURN), 0, false);
 //        addToOperators(TokenTypes.QuestionMark, function);
 
@@ -386,7 +467,7 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         bindingCollection.addUpperTypeBound(tCondition, std.boolTypeSymbol);
         bindingCollection.addLowerRefBound(T_RETURN, reference(tIf));
         bindingCollection.addLowerRefBound(T_RETURN, reference(tElse));
-        IFunctionType function = symbolFactory.createFunctionType("?", bindingCollection, parameters);
+        IFunctionType function = createFunctionType("?", bindingCollection, parameters);
         function.manuallySimplified(set(tIf, tElse, T_RETURN), 0, false);
         addToOperators(TokenTypes.QuestionMark, function);
 
@@ -401,56 +482,63 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         bindingCollection.addUpperTypeBound(tCondition, std.asBoolTypeSymbol);
         bindingCollection.addLowerRefBound(T_RETURN, reference(tIf));
         bindingCollection.addLowerRefBound(T_RETURN, reference(tElse));
-        function = symbolFactory.createFunctionType("?", bindingCollection, parameters);
+        function = createFunctionType("?", bindingCollection, parameters);
         function.manuallySimplified(set(tIf, tElse, T_RETURN), 0, true);
         addToOperators(TokenTypes.QuestionMark, function);
     }
 
-    private void defineArithmeticOperators() {
-        createArithmeticNonAssignOperators();
-        createArithmeticAssignOperators();
+    private void defineArithmeticOperators(int operatorType) {
+        createArithmeticNonAssignOperators(operatorType);
+        createArithmeticAssignOperators(operatorType);
 
-        createModuloOperators();
-        createUnaryArithmeticOperators();
+        createModuloOperators(operatorType);
+        createUnaryArithmeticOperators(operatorType);
     }
 
-    private void createArithmeticNonAssignOperators() {
-        IFunctionType function;
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] nonAssignOperators = new Pair[]{
-                pair("+", TokenTypes.Plus),
-                pair("-", TokenTypes.Minus),
-                pair("*", TokenTypes.Multiply)
-        };
-
-        for (Pair<String, Integer> operator : nonAssignOperators) {
-            //int x int -> int
-            addToBinaryOperators(operator, std.intTypeSymbol, std.intTypeSymbol, std.intTypeSymbol, false);
-
-            //float x float -> float
-            addToBinaryOperators(operator, std.floatTypeSymbol, std.floatTypeSymbol, std.floatTypeSymbol, false);
-
-            //{as T} x {as T} -> T \ T <: num
-            IBindingCollection bindingCollection = symbolFactory.createBindingCollection();
-            bindingCollection.addVariable(VAR_LHS, fixReference(T_LHS));
-            bindingCollection.addVariable(VAR_RHS, fixReference(T_RHS));
-            bindingCollection.addVariable(RETURN_VARIABLE_NAME, reference("T"));
-            //bind convertible type to Treturn
-            IConvertibleTypeSymbol asT = symbolFactory.createConvertibleTypeSymbol();
-            bindingCollection.bind(asT, Arrays.asList("T"));
-            bindingCollection.addUpperTypeBound(T_LHS, asT);
-            bindingCollection.addUpperTypeBound(T_RHS, asT);
-            bindingCollection.addUpperTypeBound("T", std.numTypeSymbol);
-            function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
-            function.manuallySimplified(set("T"), 0, true);
-            addToOperators(operator.second, function);
+    private void createArithmeticNonAssignOperators(int operatorType) {
+        switch (operatorType) {
+            case TokenTypes.Plus:
+                createArithmeticNonAssignOperator(pair("+", operatorType));
+                //array x array -> array
+                addToBinaryOperators(pair("+", TokenTypes.Plus),
+                        std.arrayTypeSymbol, std.arrayTypeSymbol, std.arrayTypeSymbol, false);
+                break;
+            case TokenTypes.Minus:
+                createArithmeticNonAssignOperator(pair("-", operatorType));
+                break;
+            case TokenTypes.Multiply:
+                createArithmeticNonAssignOperator(pair("*", operatorType));
+                break;
+            case TokenTypes.Divide:
+                createDivOperator();
+                break;
+            default:
+                break;
         }
+    }
+
+    private void createArithmeticNonAssignOperator(Pair<String, Integer> operator) {
+        //int x int -> int
+        addToBinaryOperators(operator, std.intTypeSymbol, std.intTypeSymbol, std.intTypeSymbol, false);
 
-        //array x array -> array
-        addToBinaryOperators(pair("+", TokenTypes.Plus),
-                std.arrayTypeSymbol, std.arrayTypeSymbol, std.arrayTypeSymbol, false);
+        //float x float -> float
+        addToBinaryOperators(operator, std.floatTypeSymbol, std.floatTypeSymbol, std.floatTypeSymbol, false);
 
-        createDivOperator();
+        //{as T} x {as T} -> T \ T <: num
+        IBindingCollection bindingCollection = symbolFactory.createBindingCollection();
+        bindingCollection.addVariable(VAR_LHS, fixReference(T_LHS));
+        bindingCollection.addVariable(VAR_RHS, fixReference(T_RHS));
+        bindingCollection.addVariable(RETURN_VARIABLE_NAME, reference(T));
+        //bind convertible type to Treturn
+        IConvertibleTypeSymbol asT = symbolFactory.createConvertibleTypeSymbol();
+        bindingCollection.bind(asT, Arrays.asList(T));
+        bindingCollection.addUpperTypeBound(T_LHS, asT);
+        bindingCollection.addUpperTypeBound(T_RHS, asT);
+        bindingCollection.addUpperTypeBound(T, std.numTypeSymbol);
+        IFunctionType function = createFunctionType(
+                operator.first, bindingCollection, std.binaryParameterIds);
+        function.manuallySimplified(set(T), 0, true);
+        addToOperators(operator.second, function);
     }
 
     private void createDivOperator() {
@@ -491,83 +579,97 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
 //        bindingCollection.addUpperTypeBound("T", std.numTypeSymbol);
 //        bindingCollection.addLowerTypeBound(T_RETURN, std.falseTypeSymbol);
 //        bindingCollection.addLowerRefBound(T_RETURN, reference("T"));
-//        IFunctionType function = symbolFactory.createFunctionType("/", bindingCollection, std.binaryParameterIds);
+//        IFunctionType function = createFunctionType("/", bindingCollection, std.binaryParameterIds);
 //        function.manuallySimplified(set("T"), 0, true);
 //        addToOperators(TokenTypes.Divide, function);
     }
 
-    private void createArithmeticAssignOperators() {
+    private void createArithmeticAssignOperators(int operatorType) {
+        switch (operatorType) {
+            case TokenTypes.PlusAssign:
+                createArithmeticAssignOperator(pair("+=", operatorType));
+                createArrayPlusAssignOverload();
+                break;
+            case TokenTypes.MinusAssign:
+                createArithmeticAssignOperator(pair("-=", operatorType));
+                break;
+            case TokenTypes.MultiplyAssign:
+                createArithmeticAssignOperator(pair("*=", operatorType));
+                break;
+            case TokenTypes.DivideAssign:
+                createDivAssignOperator();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void createArithmeticAssignOperator(Pair<String, Integer> operator) {
         IFunctionType function;
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] assignOperators = new Pair[]{
-                pair("+=", TokenTypes.PlusAssign),
-                pair("-=", TokenTypes.MinusAssign),
-                pair("*=", TokenTypes.MultiplyAssign),
-        };
-        for (Pair<String, Integer> operator : assignOperators) {
-            //Tlhs x int -> Tlhs \ int <: Tlhs <: int
-            IBindingCollection bindingCollection = createAssignBindingCollection();
-            bindingCollection.addLowerTypeBound(T_LHS, std.intTypeSymbol);
-            bindingCollection.addUpperTypeBound(T_LHS, std.intTypeSymbol);
-            bindingCollection.addUpperTypeBound(T_RHS, std.intTypeSymbol);
-            function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
-            function.manuallySimplified(set(T_LHS), 0, false);
-            addToOperators(operator.second, function);
-
-            //Tlhs x float -> Tlhs \ float <: Tlhs <: float
-            bindingCollection = createAssignBindingCollection();
-            bindingCollection.addLowerTypeBound(T_LHS, std.floatTypeSymbol);
-            bindingCollection.addUpperTypeBound(T_LHS, std.floatTypeSymbol);
-            bindingCollection.addUpperTypeBound(T_RHS, std.floatTypeSymbol);
-            function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
-            function.manuallySimplified(set(T_LHS), 0, false);
-            addToOperators(operator.second, function);
-
-//            //Tlhs x {as num} -> Tlhs \ float <: Tlhs <: float
-//            bindingCollection = createAssignBindingCollection();
-//            bindingCollection.addLowerTypeBound(T_LHS, std.floatTypeSymbol);
-//            bindingCollection.addUpperTypeBound(T_LHS, std.floatTypeSymbol);
-//            bindingCollection.addUpperTypeBound(T_RHS, std.asNumTypeSymbol);
-//            function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
-//            function.manuallySimplified(set(T_LHS), 0, true);
-//            addToOperators(operator.second, function);
+
+        //Tlhs x int -> Tlhs \ int <: Tlhs <: int
+        IBindingCollection bindingCollection = createAssignBindingCollection();
+        bindingCollection.addLowerTypeBound(T_LHS, std.intTypeSymbol);
+        bindingCollection.addUpperTypeBound(T_LHS, std.intTypeSymbol);
+        bindingCollection.addUpperTypeBound(T_RHS, std.intTypeSymbol);
+        function = createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
+        function.manuallySimplified(set(T_LHS), 0, false);
+        addToOperators(operator.second, function);
+
+        //Tlhs x float -> Tlhs \ float <: Tlhs <: float
+        bindingCollection = createAssignBindingCollection();
+        bindingCollection.addLowerTypeBound(T_LHS, std.floatTypeSymbol);
+        bindingCollection.addUpperTypeBound(T_LHS, std.floatTypeSymbol);
+        bindingCollection.addUpperTypeBound(T_RHS, std.floatTypeSymbol);
+        function = createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
+        function.manuallySimplified(set(T_LHS), 0, false);
+        addToOperators(operator.second, function);
+
+//        //Tlhs x {as num} -> Tlhs \ float <: Tlhs <: float
+//        bindingCollection = createAssignBindingCollection();
+//        bindingCollection.addLowerTypeBound(T_LHS, std.floatTypeSymbol);
+//        bindingCollection.addUpperTypeBound(T_LHS, std.floatTypeSymbol);
+//        bindingCollection.addUpperTypeBound(T_RHS, std.asNumTypeSymbol);
+//        function = createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
+//        function.manuallySimplified(set(T_LHS), 0, true);
+//        addToOperators(operator.second, function);
 //
-//            //Tlhs x float -> Tlhs \ float <: Tlhs <: {as num}
-//            bindingCollection = createAssignBindingCollection();
-//            bindingCollection.addLowerTypeBound(T_LHS, std.floatTypeSymbol);
-//            bindingCollection.addUpperTypeBound(T_LHS, std.asNumTypeSymbol);
-//            bindingCollection.addUpperTypeBound(T_RHS, std.floatTypeSymbol);
-//            function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
-//            function.manuallySimplified(set(T_LHS), 0, true);
-//            addToOperators(operator.second, function);
-
-            //Tlhs x {as T} -> Tlhs \ T <: Tlhs <: {as T}, T <: num
-            bindingCollection = createAssignBindingCollection();
-            TypeVariableReference tHelper = reference("T");
-            bindingCollection.addVariable("!help0", tHelper);
-            //bind convertible type to T
-            IConvertibleTypeSymbol asT = symbolFactory.createConvertibleTypeSymbol();
-            bindingCollection.bind(asT, Arrays.asList("T"));
-            bindingCollection.addLowerRefBound(T_LHS, tHelper);
-            bindingCollection.addUpperTypeBound(T_LHS, asT);
-            bindingCollection.addUpperTypeBound(T_RHS, asT);
-            bindingCollection.addUpperTypeBound("T", std.numTypeSymbol);
-
-            function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
-            function.manuallySimplified(set(T_LHS, "T"), 0, true);
-            addToOperators(operator.second, function);
-        }
+//        //Tlhs x float -> Tlhs \ float <: Tlhs <: {as num}
+//        bindingCollection = createAssignBindingCollection();
+//        bindingCollection.addLowerTypeBound(T_LHS, std.floatTypeSymbol);
+//        bindingCollection.addUpperTypeBound(T_LHS, std.asNumTypeSymbol);
+//        bindingCollection.addUpperTypeBound(T_RHS, std.floatTypeSymbol);
+//        function = createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
+//        function.manuallySimplified(set(T_LHS), 0, true);
+//        addToOperators(operator.second, function);
+
+
+        //Tlhs x {as T} -> Tlhs \ T <: Tlhs <: {as T}, T <: num
+        bindingCollection = createAssignBindingCollection();
+        TypeVariableReference tHelper = reference(T);
+        bindingCollection.addVariable("!help0", tHelper);
+        //bind convertible type to T
+        IConvertibleTypeSymbol asT = symbolFactory.createConvertibleTypeSymbol();
+        bindingCollection.bind(asT, Arrays.asList(T));
+        bindingCollection.addLowerRefBound(T_LHS, tHelper);
+        bindingCollection.addUpperTypeBound(T_LHS, asT);
+        bindingCollection.addUpperTypeBound(T_RHS, asT);
+        bindingCollection.addUpperTypeBound(T, std.numTypeSymbol);
+
+        function = createFunctionType(operator.first, bindingCollection, std.binaryParameterIds);
+        function.manuallySimplified(set(T_LHS, T), 0, true);
+        addToOperators(operator.second, function);
+    }
 
+    private void createArrayPlusAssignOverload() {
         //Tlhs x array -> Tlhs \ array <: Tlhs <: array
         IBindingCollection bindingCollection = createAssignBindingCollection();
         bindingCollection.addLowerTypeBound(T_LHS, std.arrayTypeSymbol);
         bindingCollection.addUpperTypeBound(T_LHS, std.arrayTypeSymbol);
         bindingCollection.addUpperTypeBound(T_RHS, std.arrayTypeSymbol);
-        function = symbolFactory.createFunctionType("+=", bindingCollection, std.binaryParameterIds);
+        IFunctionType function = createFunctionType("+=", bindingCollection, std.binaryParameterIds);
         function.manuallySimplified(set(T_LHS), 0, false);
         addToOperators(TokenTypes.PlusAssign, function);
-
-        createDivAssignOperator();
     }
 
     private void createDivAssignOperator() {
@@ -578,7 +680,7 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         bindingCollection.addLowerTypeBound(T_LHS, std.floatOrFalse);
         bindingCollection.addUpperTypeBound(T_LHS, std.floatOrFalse);
         bindingCollection.addUpperTypeBound(T_RHS, std.floatTypeSymbol);
-        function = symbolFactory.createFunctionType("/=", bindingCollection, std.binaryParameterIds);
+        function = createFunctionType("/=", bindingCollection, std.binaryParameterIds);
         function.manuallySimplified(set(T_LHS), 0, false);
         addToOperators(TokenTypes.DivideAssign, function);
 
@@ -587,7 +689,7 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         bindingCollection.addLowerTypeBound(T_LHS, std.floatOrFalse);
         bindingCollection.addUpperTypeBound(T_LHS, std.asNumTypeSymbol);
         bindingCollection.addUpperTypeBound(T_RHS, std.floatTypeSymbol);
-        function = symbolFactory.createFunctionType("/=", bindingCollection, std.binaryParameterIds);
+        function = createFunctionType("/=", bindingCollection, std.binaryParameterIds);
         function.manuallySimplified(set(T_LHS), 0, true);
         addToOperators(TokenTypes.DivideAssign, function);
 
@@ -596,142 +698,171 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         bindingCollection.addLowerTypeBound(T_LHS, std.numOrFalse);
         bindingCollection.addUpperTypeBound(T_LHS, std.asNumTypeSymbol);
         bindingCollection.addUpperTypeBound(T_RHS, std.asNumTypeSymbol);
-        function = symbolFactory.createFunctionType("/=", bindingCollection, std.binaryParameterIds);
+        function = createFunctionType("/=", bindingCollection, std.binaryParameterIds);
         function.manuallySimplified(set(T_LHS), 0, true);
         addToOperators(TokenTypes.DivideAssign, function);
     }
 
-    private void createModuloOperators() {
-        IFunctionType function;
-
-        //int x int -> (int | false)
-        addToBinaryOperators(pair("%", TokenTypes.Modulo), std.intTypeSymbol, std.intTypeSymbol, std.intOrFalse, false);
-
-        //(array | {as int}) x (array | {as int}) -> (int | false)
-        addToBinaryOperators(pair("%", TokenTypes.Modulo),
-                std.arrayOrAsInt, std.arrayOrAsInt, std.intOrFalse, true);
-
 
-        //Tlhs x int -> Tlhs \ (int | falseType) <: Tlhs <: (int | falseType)
-        IBindingCollection bindingCollection = createAssignBindingCollection();
-        bindingCollection.addLowerTypeBound(T_LHS, std.intOrFalse);
-        bindingCollection.addUpperTypeBound(T_LHS, std.intOrFalse);
-        bindingCollection.addUpperTypeBound(T_RHS, std.intTypeSymbol);
-        function = symbolFactory.createFunctionType("%=", bindingCollection, std.binaryParameterIds);
-        function.manuallySimplified(set(T_LHS), 0, false);
-        addToOperators(TokenTypes.ModuloAssign, function);
-
-        //Tlhs x (array | {as int}) -> Tlhs \ (int | falseType) <: Tlhs <: (array | {as int})
-        bindingCollection = createAssignBindingCollection();
-        bindingCollection.addLowerTypeBound(T_LHS, std.intOrFalse);
-        bindingCollection.addUpperTypeBound(T_LHS, std.arrayOrAsInt);
-        bindingCollection.addUpperTypeBound(T_RHS, std.arrayOrAsInt);
-        function = symbolFactory.createFunctionType("%=", bindingCollection, std.binaryParameterIds);
-        function.manuallySimplified(set(T_LHS), 0, true);
-        addToOperators(TokenTypes.ModuloAssign, function);
-    }
-
-    private void createUnaryArithmeticOperators() {
+    private void createModuloOperators(int operatorType) {
         IFunctionType function;
+        IBindingCollection bindingCollection;
+
+        switch (operatorType) {
+            case TokenTypes.Modulo:
+                //int x int -> (int | false)
+                addToBinaryOperators(pair("%", TokenTypes.Modulo),
+                        std.intTypeSymbol, std.intTypeSymbol, std.intOrFalse, false);
+
+                //(array | {as int}) x (array | {as int}) -> (int | false)
+                addToBinaryOperators(pair("%", TokenTypes.Modulo),
+                        std.arrayOrAsInt, std.arrayOrAsInt, std.intOrFalse, true);
+                break;
+            case TokenTypes.ModuloAssign:
+                //Tlhs x int -> Tlhs \ (int | falseType) <: Tlhs <: (int | falseType)
+                bindingCollection = createAssignBindingCollection();
+                bindingCollection.addLowerTypeBound(T_LHS, std.intOrFalse);
+                bindingCollection.addUpperTypeBound(T_LHS, std.intOrFalse);
+                bindingCollection.addUpperTypeBound(T_RHS, std.intTypeSymbol);
+                function = createFunctionType("%=", bindingCollection, std.binaryParameterIds);
+                function.manuallySimplified(set(T_LHS), 0, false);
+                addToOperators(TokenTypes.ModuloAssign, function);
+
+                //Tlhs x (array | {as int}) -> Tlhs \ (int | falseType) <: Tlhs <: (array | {as int})
+                bindingCollection = createAssignBindingCollection();
+                bindingCollection.addLowerTypeBound(T_LHS, std.intOrFalse);
+                bindingCollection.addUpperTypeBound(T_LHS, std.arrayOrAsInt);
+                bindingCollection.addUpperTypeBound(T_RHS, std.arrayOrAsInt);
+                function = createFunctionType("%=", bindingCollection, std.binaryParameterIds);
+                function.manuallySimplified(set(T_LHS), 0, true);
+                addToOperators(TokenTypes.ModuloAssign, function);
+                break;
+            default:
+                break;
+        }
+    }
 
-        IUnionTypeSymbol stringOrIntOrFloat = symbolFactory.createUnionTypeSymbol();
-        stringOrIntOrFloat.addTypeSymbol(std.stringTypeSymbol);
-        stringOrIntOrFloat.addTypeSymbol(std.intTypeSymbol);
-        stringOrIntOrFloat.addTypeSymbol(std.floatTypeSymbol);
-
-        IUnionTypeSymbol nullOrInt = symbolFactory.createUnionTypeSymbol();
-        nullOrInt.addTypeSymbol(std.nullTypeSymbol);
-        nullOrInt.addTypeSymbol(std.intTypeSymbol);
+    private void createUnaryArithmeticOperators(int operatorType) {
+        switch (operatorType) {
+            case TokenTypes.PRE_INCREMENT:
+                createIncrDecrOperator(pair("preIncr", operatorType));
+                //T -> T \ (nullType | int) <: T <: (nullType | int)
+                createIncrDecrOverload(pair("preIcnr", TokenTypes.PRE_INCREMENT), getNullOrInt());
+                break;
+            case TokenTypes.POST_INCREMENT:
+                createIncrDecrOperator(pair("postIncr", operatorType));
+                //T -> T \ (nullType | int) <: T <: (nullType | int)
+                createIncrDecrOverload(pair("postIncr", TokenTypes.POST_INCREMENT), getNullOrInt());
+                break;
+            case TokenTypes.PRE_DECREMENT:
+                createIncrDecrOperator(pair("preDecr", operatorType));
+                break;
+            case TokenTypes.POST_DECREMENT:
+                createIncrDecrOperator(pair("postDecr", operatorType));
+                break;
+            case TokenTypes.UNARY_MINUS:
+                createUnaryPlusMinusOperator(pair("uMinus", operatorType));
+                break;
+            case TokenTypes.UNARY_PLUS:
+                createUnaryPlusMinusOperator(pair("uPlus", operatorType));
+                break;
+            default:
+                break;
+        }
+    }
 
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] incrDecrOperators = new Pair[]{
-                pair("preIncr", TokenTypes.PRE_INCREMENT),
-                pair("postIncr", TokenTypes.POST_INCREMENT),
-                pair("preDecr", TokenTypes.PRE_DECREMENT),
-                pair("postDecr", TokenTypes.POST_DECREMENT),
-        };
-        for (Pair<String, Integer> operator : incrDecrOperators) {
-            //T -> T \ int <: T <: int
-            createIncrDecrOverload(operator, std.intTypeSymbol);
+    private void createIncrDecrOperator(Pair<String, Integer> operator) {
+        IUnionTypeSymbol stringOrIntOrFloat = std.unionTypePool.getUnion(
+                std.stringTypeSymbol, std.intTypeSymbol, std.floatTypeSymbol);
 
-            //T -> T \ float <: T <: float
-            createIncrDecrOverload(operator, std.floatTypeSymbol);
+        //T -> T \ int <: T <: int
+        createIncrDecrOverload(operator, std.intTypeSymbol);
 
-            //T -> T \ (int | float) <: T <: (int | float)
-            createIncrDecrOverload(operator, std.numTypeSymbol);
+        //T -> T \ float <: T <: float
+        createIncrDecrOverload(operator, std.floatTypeSymbol);
 
-            //T -> T \ (string | int | float) <: T <: (string | int | float)
-            createIncrDecrOverload(operator, stringOrIntOrFloat);
+        //T -> T \ (int | float) <: T <: (int | float)
+        createIncrDecrOverload(operator, std.numTypeSymbol);
 
-            //T -> T
-            IBindingCollection bindingCollection = createUnaryTBindingCollection();
-            function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.unaryParameterId);
-            function.manuallySimplified(set("T"), 0, false);
-            addToOperators(operator.second, function);
-        }
+        //T -> T \ (string | int | float) <: T <: (string | int | float)
+        createIncrDecrOverload(operator, stringOrIntOrFloat);
 
-        //T -> T \ (nullType | int) <: T <: (nullType | int)
-        createIncrDecrOverload(pair("preIcnr", TokenTypes.PRE_INCREMENT), nullOrInt);
-        createIncrDecrOverload(pair("postIncr", TokenTypes.POST_INCREMENT), nullOrInt);
+        //T -> T
+        IBindingCollection bindingCollection = createUnaryTBindingCollection();
+        IFunctionType function = createFunctionType(
+                operator.first, bindingCollection, std.unaryParameterId);
+        function.manuallySimplified(set(T), 0, false);
+        addToOperators(operator.second, function);
+    }
 
+    private IUnionTypeSymbol getNullOrInt() {
+        return std.unionTypePool.getUnion(std.nullTypeSymbol, std.intTypeSymbol);
+    }
 
+    private void createUnaryPlusMinusOperator(Pair<String, Integer> operator) {
         //TODO rstoll TINS-332 introduce object pseudo type
-        IUnionTypeSymbol scalarOrNullOrObject = symbolFactory.createUnionTypeSymbol();
-        scalarOrNullOrObject.addTypeSymbol(std.scalarTypeSymbol);
-        scalarOrNullOrObject.addTypeSymbol(std.nullTypeSymbol);
+        IUnionTypeSymbol scalarOrNullOrObject = std.unionTypePool.getUnion(std.scalarTypeSymbol, std.nullTypeSymbol);
 
-        @SuppressWarnings("unchecked")
-        Pair<String, Integer>[] unaryPlusMinusOperators = new Pair[]{
-                pair("uMinus", TokenTypes.UNARY_MINUS),
-                pair("uPlus", TokenTypes.UNARY_PLUS)
-        };
-        for (Pair<String, Integer> operator : unaryPlusMinusOperators) {
-            //float -> float
-            addToUnaryOperators(operator, std.floatTypeSymbol, std.floatTypeSymbol, false);
+        //float -> float
+        addToUnaryOperators(operator, std.floatTypeSymbol, std.floatTypeSymbol, false);
 
-            //(scalar | nullType | object) -> int
-            addToUnaryOperators(operator, scalarOrNullOrObject, std.intTypeSymbol, false);
-        }
+        //(scalar | nullType | object) -> int
+        addToUnaryOperators(operator, scalarOrNullOrObject, std.intTypeSymbol, false);
     }
 
     private void createIncrDecrOverload(Pair<String, Integer> operator, ITypeSymbol typeSymbol) {
         IFunctionType function;
         IBindingCollection bindingCollection = createUnaryTBindingCollection();
-        bindingCollection.addLowerTypeBound("T", typeSymbol);
-        bindingCollection.addUpperTypeBound("T", typeSymbol);
-        function = symbolFactory.createFunctionType(operator.first, bindingCollection, std.unaryParameterId);
-        function.manuallySimplified(set("T"), 0, false);
+        bindingCollection.addLowerTypeBound(T, typeSymbol);
+        bindingCollection.addUpperTypeBound(T, typeSymbol);
+        function = createFunctionType(operator.first, bindingCollection, std.unaryParameterId);
+        function.manuallySimplified(set(T), 0, false);
         addToOperators(operator.second, function);
     }
 
-    private void defineDotOperator() {
-        //string x string -> string
-        addToBinaryOperators(pair(".", TokenTypes.Dot),
-                std.stringTypeSymbol, std.stringTypeSymbol, std.stringTypeSymbol, false);
-        //{as string} x {as string} -> string
-        addToBinaryOperators(pair(".", TokenTypes.Dot),
-                std.asStringTypeSymbol, std.asStringTypeSymbol, std.stringTypeSymbol, true);
 
-        //Tlhs x string -> Tlhs \ string <: Tlhs <: string
-        IBindingCollection bindingCollection = createAssignBindingCollection();
-        bindingCollection.addLowerTypeBound(T_LHS, std.stringTypeSymbol);
-        bindingCollection.addUpperTypeBound(T_LHS, std.stringTypeSymbol);
-        bindingCollection.addUpperTypeBound(T_RHS, std.stringTypeSymbol);
-        IFunctionType function = symbolFactory.createFunctionType(".=", bindingCollection, std.binaryParameterIds);
-        function.manuallySimplified(set(T_LHS), 0, false);
-        addToOperators(TokenTypes.DotAssign, function);
+    private void defineDotOperator(int operatorType) {
+        IBindingCollection bindingCollection;
+        IFunctionType function;
 
-        //Tlhs x {as string} -> Tlhs \ string <: Tlhs <: {as string}
-        bindingCollection = createAssignBindingCollection();
-        bindingCollection.addLowerTypeBound(T_LHS, std.stringTypeSymbol);
-        bindingCollection.addUpperTypeBound(T_LHS, std.asStringTypeSymbol);
-        bindingCollection.addUpperTypeBound(T_RHS, std.asStringTypeSymbol);
-        function = symbolFactory.createFunctionType(".=", bindingCollection, std.binaryParameterIds);
-        function.manuallySimplified(set(T_LHS), 0, true);
-        addToOperators(TokenTypes.DotAssign, function);
+        switch (operatorType) {
+            case TokenTypes.Dot:
+                //string x string -> string
+                addToBinaryOperators(pair(".", TokenTypes.Dot),
+                        std.stringTypeSymbol, std.stringTypeSymbol, std.stringTypeSymbol, false);
+                //{as string} x {as string} -> string
+                addToBinaryOperators(pair(".", TokenTypes.Dot),
+                        std.asStringTypeSymbol, std.asStringTypeSymbol, std.stringTypeSymbol, true);
+                break;
+            case TokenTypes.DotAssign:
+                //Tlhs x string -> Tlhs \ string <: Tlhs <: string
+                bindingCollection = createAssignBindingCollection();
+                bindingCollection.addLowerTypeBound(T_LHS, std.stringTypeSymbol);
+                bindingCollection.addUpperTypeBound(T_LHS, std.stringTypeSymbol);
+                bindingCollection.addUpperTypeBound(T_RHS, std.stringTypeSymbol);
+                function = createFunctionType(".=", bindingCollection, std.binaryParameterIds);
+                function.manuallySimplified(set(T_LHS), 0, false);
+                addToOperators(TokenTypes.DotAssign, function);
+
+                //Tlhs x {as string} -> Tlhs \ string <: Tlhs <: {as string}
+                bindingCollection = createAssignBindingCollection();
+                bindingCollection.addLowerTypeBound(T_LHS, std.stringTypeSymbol);
+                bindingCollection.addUpperTypeBound(T_LHS, std.asStringTypeSymbol);
+                bindingCollection.addUpperTypeBound(T_RHS, std.asStringTypeSymbol);
+                function = createFunctionType(".=", bindingCollection, std.binaryParameterIds);
+                function.manuallySimplified(set(T_LHS), 0, true);
+                addToOperators(TokenTypes.DotAssign, function);
+                break;
+            default:
+                break;
+        }
     }
 
-    private void defineInstanceOfOperator() {
+    private void defineInstanceOfOperator(int operatorType) {
+        if (operatorType != TokenTypes.Instanceof) {
+            return;
+        }
+
         //TODO rstoll TINS-332 introduce object pseudo type
         //more precise would be: object x mixed -> bool
         //mixed x (object | string) -> bool
@@ -739,54 +870,76 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         addToBinaryOperators(instanceOf, std.mixedTypeSymbol, std.mixedTypeSymbol, std.boolTypeSymbol, false);
     }
 
-    private void defineCloneAndNewOperator() {
-        //TODO rstoll TINS-332 introduce object pseudo type
-        //more precise would be: T -> T \ T <: object
-        //T -> T
-        IBindingCollection collection = createUnaryTBindingCollection();
-        IFunctionType function = symbolFactory.createFunctionType("clone", collection, std.unaryParameterId);
-        function.manuallySimplified(set("T"), 0, false);
-        addToOperators(TokenTypes.Clone, function);
-
-        //TODO TINS-349 structural constraints
-        //not all classes return itself, some return null as well in error cases
-        //see https://wiki.php.net/rfc/internal_constructor_behaviour
-        //T -> T
-        collection = createUnaryTBindingCollection();
-        function = symbolFactory.createFunctionType("new", collection, std.unaryParameterId);
-        function.manuallySimplified(set("T"), 0, false);
-        addToOperators(TokenTypes.New, function);
+    private void defineCloneAndNewOperator(int operatorType) {
+        IBindingCollection collection;
+        IFunctionType function;
+
+        switch (operatorType) {
+            case TokenTypes.Clone:
+                //TODO rstoll TINS-332 introduce object pseudo type
+                //more precise would be: T -> T \ T <: object
+                //T -> T
+                collection = createUnaryTBindingCollection();
+                function = createFunctionType("clone", collection, std.unaryParameterId);
+                function.manuallySimplified(set(T), 0, false);
+                addToOperators(TokenTypes.Clone, function);
+                break;
+            case TokenTypes.New:
+                //TODO TINS-349 structural constraints
+                //not all classes return itself, some return null as well in error cases
+                //see https://wiki.php.net/rfc/internal_constructor_behaviour
+                //T -> T
+                collection = createUnaryTBindingCollection();
+                function = createFunctionType("new", collection, std.unaryParameterId);
+                function.manuallySimplified(set(T), 0, false);
+                addToOperators(TokenTypes.New, function);
+                break;
+            default:
+                break;
+        }
     }
 
-    private void defineAtAndCastOperator() {
-        //T -> T
-        IBindingCollection bindingCollection = createUnaryTBindingCollection();
-        IFunctionType function = symbolFactory.createFunctionType("@", bindingCollection, std.unaryParameterId);
-        function.manuallySimplified(set("T"), 0, false);
-        addToOperators(TokenTypes.At, function);
+    private void defineAtAndCastOperator(int operatorType) {
+        IBindingCollection bindingCollection;
+        IFunctionType function;
 
-        //Tlhs x mixed -> Treturn \ Treturn > Tlhs
-        bindingCollection = symbolFactory.createBindingCollection();
-        bindingCollection.addVariable(VAR_LHS, reference(T_LHS));
-        bindingCollection.addVariable(VAR_RHS, fixReference(T_RHS));
-        bindingCollection.addVariable(RETURN_VARIABLE_NAME, reference(T_RETURN));
-        bindingCollection.addLowerRefBound(T_RETURN, new TypeVariableReference(T_LHS));
-        bindingCollection.addUpperTypeBound(T_RHS, std.mixedTypeSymbol);
-        function = symbolFactory.createFunctionType("cast", bindingCollection, std.binaryParameterIds);
-        function.manuallySimplified(set(T_LHS), 0, false);
-        addToOperators(TokenTypes.CAST, function);
+        switch (operatorType) {
+            case TokenTypes.At:
+                //T -> T
+                bindingCollection = createUnaryTBindingCollection();
+                function = createFunctionType("@", bindingCollection, std.unaryParameterId);
+                function.manuallySimplified(set(T), 0, false);
+                addToOperators(TokenTypes.At, function);
+                break;
+            case TokenTypes.CAST:
+                //Tlhs x mixed -> Treturn \ Treturn > Tlhs
+                bindingCollection = symbolFactory.createBindingCollection();
+                bindingCollection.addVariable(VAR_LHS, reference(T_LHS));
+                bindingCollection.addVariable(VAR_RHS, fixReference(T_RHS));
+                bindingCollection.addVariable(RETURN_VARIABLE_NAME, reference(T_RETURN));
+                bindingCollection.addLowerRefBound(T_RETURN, new TypeVariableReference(T_LHS));
+                bindingCollection.addUpperTypeBound(T_RHS, std.mixedTypeSymbol);
+                function = createFunctionType("cast", bindingCollection, std.binaryParameterIds);
+                function.manuallySimplified(set(T_LHS), 0, false);
+                addToOperators(TokenTypes.CAST, function);
+                break;
+            default:
+                break;
+        }
     }
 
-    private void defineArrayAccessOperator() {
+    private void defineArrayAccessOperator(int operatorType) {
+        if (operatorType != TokenTypes.ARRAY_ACCESS) {
+            return;
+        }
+
         //array x (string | int) -> mixed
-        IUnionTypeSymbol stringOrInt = symbolFactory.createUnionTypeSymbol();
-        stringOrInt.addTypeSymbol(std.stringTypeSymbol);
-        stringOrInt.addTypeSymbol(std.intTypeSymbol);
+        IUnionTypeSymbol stringOrInt = std.unionTypePool.getUnion(std.stringTypeSymbol, std.intTypeSymbol);
         IBindingCollection bindingCollection = createFixBinaryBindingCollection();
         bindingCollection.addUpperTypeBound(T_LHS, std.arrayTypeSymbol);
         bindingCollection.addUpperTypeBound(T_RHS, stringOrInt);
         bindingCollection.addLowerTypeBound(T_RETURN, std.mixedTypeSymbol);
-        IFunctionType function = symbolFactory.createFunctionType("[]", bindingCollection, std.binaryParameterIds);
+        IFunctionType function = createFunctionType("[]", bindingCollection, std.binaryParameterIds);
         function.manuallySimplified(emptySet, 0, false);
         addToOperators(TokenTypes.ARRAY_ACCESS, function);
 
@@ -795,41 +948,61 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         bindingCollection.addUpperTypeBound(T_LHS, std.arrayTypeSymbol);
         bindingCollection.addUpperTypeBound(T_RHS, std.asIntTypeSymbol);
         bindingCollection.addLowerTypeBound(T_RETURN, std.mixedTypeSymbol);
-        function = symbolFactory.createFunctionType("[]", bindingCollection, std.binaryParameterIds);
+        function = createFunctionType("[]", bindingCollection, std.binaryParameterIds);
         function.manuallySimplified(emptySet, 0, true);
         addToOperators(TokenTypes.ARRAY_ACCESS, function);
     }
 
-    private void defineControlFlowOperators() {
-        //TODO rstoll TINS-391 - Introduce void as own type
-        //bool -> mixed
-        addToUnaryOperators(pair("if", TokenTypes.If), std.boolTypeSymbol, std.mixedTypeSymbol, false);
-        //{as bool} -> void
-        addToUnaryOperators(pair("if", TokenTypes.If), std.asBoolTypeSymbol, std.mixedTypeSymbol, true);
-
-        //TODO rstoll TINS-391 - Introduce void as own type
-        //bool -> mixed
-        addToUnaryOperators(pair("while", TokenTypes.While), std.boolTypeSymbol, std.mixedTypeSymbol, false);
-        //{as bool} -> void
-        addToUnaryOperators(pair("while", TokenTypes.While), std.asBoolTypeSymbol, std.mixedTypeSymbol, true);
 
-        //TODO rstoll TINS-391 - Introduce void as own type
-        //bool -> mixed
-        addToUnaryOperators(pair("do", TokenTypes.Do), std.boolTypeSymbol, std.mixedTypeSymbol, false);
-        //{as bool} -> void
-        addToUnaryOperators(pair("do", TokenTypes.Do), std.asBoolTypeSymbol, std.mixedTypeSymbol, true);
+    private void defineControlFlowOperators(int operatorType) {
+        switch (operatorType) {
+            case TokenTypes.If:
+                createConditionOperator(pair("if", operatorType));
+                break;
+            case TokenTypes.While:
+                createConditionOperator(pair("while", operatorType));
+                break;
+            case TokenTypes.Do:
+                createConditionOperator(pair("do", operatorType));
+                break;
+            case TokenTypes.For:
+                createConditionOperator(pair("for", operatorType));
+                break;
+            case TokenTypes.Foreach:
+                createForeachOperator();
+                break;
+            case TokenTypes.Switch:
+                //TODO rstoll TINS-391 - Introduce void as own type
+                //scalar -> mixed
+                addToUnaryOperators(pair("switch", TokenTypes.Switch),
+                        std.scalarTypeSymbol, std.mixedTypeSymbol, false);
+                break;
+            case TokenTypes.Throw:
+                //TODO rstoll TINS-394 introduce nothing as own type
+                // Exception -> mixed
+                ITypeSymbol exception = (ITypeSymbol) builtInSymbols.get("\\Exception");
+                addToUnaryOperators(pair("throw", TokenTypes.Throw), exception, std.mixedTypeSymbol, false);
+                break;
+            case TokenTypes.Catch:
+                createCatchOperator();
+                break;
+            default:
+                break;
+        }
+    }
 
+    private void createConditionOperator(Pair<String, Integer> operator) {
         //TODO rstoll TINS-391 - Introduce void as own type
         //bool -> mixed
-        addToUnaryOperators(pair("for", TokenTypes.For), std.boolTypeSymbol, std.mixedTypeSymbol, false);
+        addToUnaryOperators(operator, std.boolTypeSymbol, std.mixedTypeSymbol, false);
         //{as bool} -> void
-        addToUnaryOperators(pair("for", TokenTypes.For), std.asBoolTypeSymbol, std.mixedTypeSymbol, true);
+        addToUnaryOperators(operator, std.asBoolTypeSymbol, std.mixedTypeSymbol, true);
+    }
 
+    private void createForeachOperator() {
         //key and value are switched
         //array x mixed x (int|string) -> mixed
-        IUnionTypeSymbol intOrString = symbolFactory.createUnionTypeSymbol();
-        intOrString.addTypeSymbol(std.intTypeSymbol);
-        intOrString.addTypeSymbol(std.stringTypeSymbol);
+        IUnionTypeSymbol intOrString = std.unionTypePool.getUnion(std.intTypeSymbol, std.stringTypeSymbol);
 
         String varArr = "$arr";
         String varValue = "$value";
@@ -852,49 +1025,51 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         bindingCollection.addLowerTypeBound(tKey, intOrString);
         bindingCollection.addLowerTypeBound(T_RETURN, std.mixedTypeSymbol);
         IFunctionType function
-                = symbolFactory.createFunctionType("foreach", bindingCollection, Arrays.asList(arr, value, key));
+                = createFunctionType("foreach", bindingCollection, Arrays.asList(arr, value, key));
         Set<String> nonFixedTypeParameters = new HashSet<>(2);
         nonFixedTypeParameters.add(tValue);
         nonFixedTypeParameters.add(tKey);
         function.manuallySimplified(nonFixedTypeParameters, 0, false);
         addToOperators(TokenTypes.Foreach, function);
+    }
 
-        //TODO rstoll TINS-391 - Introduce void as own type
-        //scalar -> mixed
-        addToUnaryOperators(pair("switch", TokenTypes.Switch), std.scalarTypeSymbol, std.mixedTypeSymbol, false);
-
-        //TODO rstoll TINS-394 introduce nothing as own type
-        // Exception -> mixed
-        ITypeSymbol exception = (ITypeSymbol) builtInSymbols.get("\\Exception");
-        addToUnaryOperators(pair("throw", TokenTypes.Throw), exception, std.mixedTypeSymbol, false);
-
+    private void createCatchOperator() {
         //Tlhs x Trhs -> Trhs \ Trhs :> Tlhs
-        bindingCollection = symbolFactory.createBindingCollection();
+        IBindingCollection bindingCollection = symbolFactory.createBindingCollection();
         bindingCollection.addVariable(VAR_LHS, reference(T_LHS));
         bindingCollection.addVariable(VAR_RHS, reference(T_RHS));
         bindingCollection.addVariable(RETURN_VARIABLE_NAME, reference(T_RHS));
 
         bindingCollection.addLowerRefBound(T_RHS, reference(T_LHS));
-        function = symbolFactory.createFunctionType("catch", bindingCollection, std.binaryParameterIds);
+        IFunctionType function = createFunctionType("catch", bindingCollection, std.binaryParameterIds);
         function.manuallySimplified(set(T_LHS, T_RHS), 0, false);
         addToOperators(TokenTypes.Catch, function);
     }
 
-    private void defineGlobalFunctions() {
-        //TODO rstoll TINS-391 - Introduce void as own type
-        //string -> mixed
-        addToUnaryOperators(pair("echo", TokenTypes.Echo), std.stringTypeSymbol, std.mixedTypeSymbol, false);
-        //{as string} -> void
-        addToUnaryOperators(pair("echo", TokenTypes.Echo), std.asStringTypeSymbol, std.mixedTypeSymbol, true);
-
-        //TODO rstoll TINS-391 - Introduce void as own type
-        //int -> void
-        addToUnaryOperators(pair("exit", TokenTypes.Exit), std.intTypeSymbol, std.mixedTypeSymbol, false);
-        //TODO rstoll TINS-391 - Introduce void as own type
-        //string -> void
-        addToUnaryOperators(pair("exit", TokenTypes.Exit), std.stringTypeSymbol, std.mixedTypeSymbol, false);
-        //{as string} -> void
-        addToUnaryOperators(pair("exit", TokenTypes.Exit), std.asStringTypeSymbol, std.mixedTypeSymbol, true);
+    private void defineGlobalFunctions(int operatorType) {
+        switch (operatorType) {
+            case TokenTypes.Echo:
+                //TODO rstoll TINS-391 - Introduce void as own type
+                //string -> mixed
+                addToUnaryOperators(pair("echo", TokenTypes.Echo), std.stringTypeSymbol, std.mixedTypeSymbol, false);
+                //{as string} -> void
+                addToUnaryOperators(pair("echo", TokenTypes.Echo),
+                        std.asStringTypeSymbol, std.mixedTypeSymbol, true);
+                break;
+            case TokenTypes.Exit:
+                //TODO rstoll TINS-391 - Introduce void as own type
+                //int -> void
+                addToUnaryOperators(pair("exit", TokenTypes.Exit), std.intTypeSymbol, std.mixedTypeSymbol, false);
+                //TODO rstoll TINS-391 - Introduce void as own type
+                //string -> void
+                addToUnaryOperators(pair("exit", TokenTypes.Exit), std.stringTypeSymbol, std.mixedTypeSymbol, false);
+                //{as string} -> void
+                addToUnaryOperators(pair("exit", TokenTypes.Exit),
+                        std.asStringTypeSymbol, std.mixedTypeSymbol, true);
+                break;
+            default:
+                break;
+        }
     }
 
     private void addToBinaryOperators(
@@ -909,7 +1084,7 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         collection.addUpperTypeBound(T_RHS, rightBound);
         collection.addLowerTypeBound(T_RETURN, returnBound);
 
-        IFunctionType function = symbolFactory.createFunctionType(operator.first, collection, std.binaryParameterIds);
+        IFunctionType function = createFunctionType(operator.first, collection, std.binaryParameterIds);
         function.manuallySimplified(emptySet, 0, hasConvertibleParameterTypes);
         addToOperators(operator.second, function);
     }
@@ -924,14 +1099,14 @@ public class OperatorProvider extends AProvider implements IOperatorsProvider
         collection.addUpperTypeBound(T_EXPR, formalBound);
         collection.addLowerTypeBound(T_RETURN, returnBound);
 
-        IFunctionType function = symbolFactory.createFunctionType(operator.first, collection, std.unaryParameterId);
+        IFunctionType function = createFunctionType(operator.first, collection, std.unaryParameterId);
         function.manuallySimplified(emptySet, 0, hasConvertibleParameterTypes);
         addToOperators(operator.second, function);
     }
 
     private void addToOperators(int operatorType, IFunctionType functionTypeSymbol) {
         IMinimalMethodSymbol methodSymbol = builtInOperators.get(operatorType);
-        methodSymbol.getOverloads().add(functionTypeSymbol);
+        methodSymbol.getOverloads().add(intern(functionTypeSymbol));
     }
 
     private Set<String> set(String... typeVariables) {
@@ -0,0 +1,236 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.common.symbols.IPolymorphicTypeSymbol;
+import ch.tsphp.tinsphp.common.utils.ERelation;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A thread-safe, bounded cache from (operator, argument types) to the fixed overloads of the operator which can be
+ * applied to the argument types, see {@link ApplicableOverloadsDto}.
+ * <p/>
+ * Only fixed overloads (overloads without non-fixed type parameters, see {@link GroundOverload}) are considered since
+ * their applicability only depends on the argument types. The entries are spread over segments, each segment evicts
+ * its least recently used entry once it is full. Arguments are identified by identity, hence distinct types with the
+ * same absolute name do not share a result, and the result is only cached if all argument types are fixed.
+ * Arguments which consist of primitive types only are checked against the parameters with the
+ * {@link PrimitiveTypeLattice} and core types with the {@link CoreTypeRelations} before the type helper is asked.
+ */
+public class OverloadApplicationCache
+{
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+    private static final int NUMBER_OF_SEGMENTS = 16;
+
+    private final Core core;
+    private final ITypeHelper typeHelper;
+    private final List<Map<Key, ApplicableOverloadsDto>> segments;
+
+    public OverloadApplicationCache(Core theCore, ITypeHelper theTypeHelper) {
+        this(theCore, theTypeHelper, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public OverloadApplicationCache(Core theCore, ITypeHelper theTypeHelper, int maximumSize) {
+        if (maximumSize < NUMBER_OF_SEGMENTS) {
+            throw new IllegalArgumentException(
+                    "maximum size needs to be at least " + NUMBER_OF_SEGMENTS + ", was " + maximumSize);
+        }
+        core = theCore;
+        typeHelper = theTypeHelper;
+        final int segmentSize = maximumSize / NUMBER_OF_SEGMENTS;
+        segments = new ArrayList<>(NUMBER_OF_SEGMENTS);
+        for (int i = 0; i < NUMBER_OF_SEGMENTS; ++i) {
+            segments.add(new LinkedHashMap<Key, ApplicableOverloadsDto>(16, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, ApplicableOverloadsDto> eldest) {
+                    return size() > segmentSize;
+                }
+            });
+        }
+    }
+
+    /**
+     * Returns the fixed overloads of the given operator which can be applied to the given argument types or null if
+     * the given token type is not an operator.
+     */
+    public ApplicableOverloadsDto getApplicableOverloads(int operatorType, ITypeSymbol... argumentTypes) {
+        IMinimalMethodSymbol operator = core.getOperator(operatorType);
+        if (operator == null) {
+            return null;
+        }
+
+        for (ITypeSymbol argumentType : argumentTypes) {
+            if (argumentType instanceof IPolymorphicTypeSymbol && !((IPolymorphicTypeSymbol) argumentType).isFixed()) {
+                return computeApplicableOverloads(operatorType, operator, argumentTypes);
+            }
+        }
+
+        //the lookup key uses the given array, only a key which is put into the cache gets a copy
+        Key key = new Key(operatorType, argumentTypes);
+        Map<Key, ApplicableOverloadsDto> segment = segments.get(key.hashCode & (NUMBER_OF_SEGMENTS - 1));
+        ApplicableOverloadsDto dto;
+        synchronized (segment) {
+            dto = segment.get(key);
+        }
+        if (dto == null) {
+            //computed outside of the lock, concurrent misses compute the same result
+            dto = computeApplicableOverloads(operatorType, operator, argumentTypes);
+            Key entryKey = new Key(operatorType, argumentTypes.clone(), key.hashCode);
+            synchronized (segment) {
+                segment.put(entryKey, dto);
+            }
+        }
+        return dto;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<Key, ApplicableOverloadsDto> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private ApplicableOverloadsDto computeApplicableOverloads(
+            int operatorType, IMinimalMethodSymbol operator, ITypeSymbol[] argumentTypes) {
+        List<IFunctionType> withoutConversions = new ArrayList<>();
+        List<IFunctionType> withConversions = new ArrayList<>();
+        ITypeSymbol returnTypeWithoutConversions = null;
+        ITypeSymbol returnTypeWithConversions = null;
+        PrimitiveTypeLattice lattice = core.getPrimitiveTypeLattice();
+        CoreTypeRelations typeRelations = core.getTypeRelations();
+        int[] argumentMasks = new int[argumentTypes.length];
+        int[] argumentOrdinals = new int[argumentTypes.length];
+        for (int i = 0; i < argumentTypes.length; ++i) {
+            argumentMasks[i] = lattice.getMask(argumentTypes[i]);
+            argumentOrdinals[i] = typeRelations.getOrdinal(argumentTypes[i]);
+        }
+        List<GroundOverload> groundOverloads = core.getGroundOverloads(operatorType);
+        for (GroundOverload groundOverload : groundOverloads) {
+            ERelation relation = getRelation(groundOverload, argumentTypes, argumentMasks, argumentOrdinals);
+            if (relation == ERelation.HAS_RELATION) {
+                if (withoutConversions.isEmpty()) {
+                    returnTypeWithoutConversions = groundOverload.returnLowerBound;
+                }
+                withoutConversions.add(groundOverload.overload);
+            } else if (relation == ERelation.HAS_COERCIVE_RELATION) {
+                if (withConversions.isEmpty()) {
+                    returnTypeWithConversions = groundOverload.returnLowerBound;
+                }
+                withConversions.add(groundOverload.overload);
+            }
+        }
+
+        ITypeSymbol returnType = withoutConversions.isEmpty()
+                ? returnTypeWithConversions
+                : returnTypeWithoutConversions;
+        withoutConversions.addAll(withConversions);
+        boolean hasNonFixedOverloads = groundOverloads.size() != operator.getOverloads().size();
+        return new ApplicableOverloadsDto(
+                Collections.unmodifiableList(withoutConversions), returnType, hasNonFixedOverloads);
+    }
+
+    private ERelation getRelation(
+            GroundOverload groundOverload, ITypeSymbol[] argumentTypes, int[] argumentMasks, int[] argumentOrdinals) {
+        if (groundOverload.getNumberOfParameters() != argumentTypes.length) {
+            return ERelation.HAS_NO_RELATION;
+        }
+
+        ERelation result = ERelation.HAS_RELATION;
+        for (int i = 0; i < argumentTypes.length; ++i) {
+            ITypeSymbol upperBound = groundOverload.getParameterUpperBound(i);
+            if (upperBound != null && !isKnownSubtype(argumentMasks[i], argumentOrdinals[i], upperBound)) {
+                ERelation relation = typeHelper.isFirstSameOrSubTypeOfSecond(argumentTypes[i], upperBound).relation;
+                if (relation == ERelation.HAS_NO_RELATION) {
+                    return relation;
+                } else if (relation == ERelation.HAS_COERCIVE_RELATION) {
+                    result = relation;
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean isKnownSubtype(int argumentMask, int argumentOrdinal, ITypeSymbol upperBound) {
+        if (argumentMask != PrimitiveTypeLattice.NOT_PRIMITIVE) {
+            int upperBoundMask = core.getPrimitiveTypeLattice().getMask(upperBound);
+            if (upperBoundMask != PrimitiveTypeLattice.NOT_PRIMITIVE) {
+                return PrimitiveTypeLattice.isSameOrSubMask(argumentMask, upperBoundMask);
+            }
+        }
+        if (argumentOrdinal != CoreTypeRelations.NOT_A_CORE_TYPE) {
+            CoreTypeRelations typeRelations = core.getTypeRelations();
+            int upperBoundOrdinal = typeRelations.getOrdinal(upperBound);
+            return upperBoundOrdinal != CoreTypeRelations.NOT_A_CORE_TYPE
+                    && typeRelations.isSameOrSubType(argumentOrdinal, upperBoundOrdinal);
+        }
+        return false;
+    }
+
+    private static final class Key
+    {
+        private final int operatorType;
+        private final ITypeSymbol[] argumentTypes;
+        private final int hashCode;
+
+        Key(int theOperatorType, ITypeSymbol[] theArgumentTypes) {
+            this(theOperatorType, theArgumentTypes, hash(theOperatorType, theArgumentTypes));
+        }
+
+        Key(int theOperatorType, ITypeSymbol[] theArgumentTypes, int theHashCode) {
+            operatorType = theOperatorType;
+            argumentTypes = theArgumentTypes;
+            hashCode = theHashCode;
+        }
+
+        private static int hash(int operatorType, ITypeSymbol[] argumentTypes) {
+            int hash = operatorType;
+            for (ITypeSymbol argumentType : argumentTypes) {
+                hash = 31 * hash + System.identityHashCode(argumentType);
+            }
+            //spread the higher bits since the segment is chosen with the lower bits
+            return hash ^ (hash >>> 16);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            if (operatorType != other.operatorType || argumentTypes.length != other.argumentTypes.length) {
+                return false;
+            }
+            for (int i = 0; i < argumentTypes.length; ++i) {
+                if (argumentTypes[i] != other.argumentTypes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.symbols.IIntersectionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IUnionTypeSymbol;
+
+import static ch.tsphp.tinsphp.common.TinsPHPConstants.RETURN_VARIABLE_NAME;
+
+/**
+ * Looks up the bounds of the parameters and of the return variable of an overload, by id if the overload uses an
+ * {@link ImmutableBindingCollection} and by name otherwise.
+ */
+final class OverloadBounds
+{
+    private OverloadBounds() {
+    }
+
+    /**
+     * Returns the upper type bounds of the parameter at the given index or null if it has none.
+     */
+    static IIntersectionTypeSymbol getParameterUpperTypeBounds(IFunctionType overload, int parameterIndex) {
+        IBindingCollection bindingCollection = overload.getBindingCollection();
+        if (bindingCollection instanceof ImmutableBindingCollection) {
+            ImmutableBindingCollection collection = (ImmutableBindingCollection) bindingCollection;
+            return collection.getUpperTypeBounds(collection.getParameterTypeVariableId(parameterIndex));
+        }
+        String typeVariable = bindingCollection.getTypeVariable(
+                overload.getParameters().get(parameterIndex).getAbsoluteName());
+        return bindingCollection.hasUpperTypeBounds(typeVariable)
+                ? bindingCollection.getUpperTypeBounds(typeVariable)
+                : null;
+    }
+
+    /**
+     * Returns the lower type bounds of the return variable or null if it has none.
+     */
+    static IUnionTypeSymbol getReturnLowerTypeBounds(IFunctionType overload) {
+        IBindingCollection bindingCollection = overload.getBindingCollection();
+        if (bindingCollection instanceof ImmutableBindingCollection) {
+            ImmutableBindingCollection collection = (ImmutableBindingCollection) bindingCollection;
+            return collection.getLowerTypeBounds(collection.getReturnTypeVariableId());
+        }
+        return bindingCollection.getLowerTypeBounds(bindingCollection.getTypeVariable(RETURN_VARIABLE_NAME));
+    }
+}
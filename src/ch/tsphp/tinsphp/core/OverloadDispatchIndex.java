@@ -0,0 +1,124 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.inference.constraints.IVariable;
+import ch.tsphp.tinsphp.common.utils.ERelation;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Maps the kind of the first (or only) argument to the overloads which can possibly be applied.
+ * <p/>
+ * An overload is a candidate for a kind if its first parameter has no upper type bound or if a type of the kind is a
+ * subtype of the upper bound, conversions included. The candidates are hence a superset of the applicable overloads
+ * and keep the order of the overloads. Arguments of kind MIXED get all overloads.
+ */
+public class OverloadDispatchIndex
+{
+    private static final EArgumentKind[] KINDS = EArgumentKind.values();
+
+    private final ITypeHelper typeHelper;
+    private final List<IFunctionType> overloads;
+    private final List<List<IFunctionType>> candidates;
+    private final ITypeSymbol[] kindTypes;
+
+    public OverloadDispatchIndex(
+            Collection<IFunctionType> theOverloads,
+            ITypeHelper theTypeHelper,
+            StandardConstraintAndVariables std) {
+        typeHelper = theTypeHelper;
+        overloads = Collections.unmodifiableList(new ArrayList<>(theOverloads));
+        kindTypes = new ITypeSymbol[]{
+                std.nullTypeSymbol, std.boolTypeSymbol, std.intTypeSymbol, std.floatTypeSymbol,
+                std.stringTypeSymbol, std.arrayTypeSymbol
+        };
+        ITypeSymbol[][] kindMembers = new ITypeSymbol[][]{
+                {std.nullTypeSymbol}, {std.falseTypeSymbol, std.trueTypeSymbol}, {std.intTypeSymbol},
+                {std.floatTypeSymbol}, {std.stringTypeSymbol}, {std.arrayTypeSymbol}
+        };
+
+        candidates = new ArrayList<>(KINDS.length);
+        for (ITypeSymbol[] members : kindMembers) {
+            candidates.add(Collections.unmodifiableList(filter(members)));
+        }
+        candidates.add(overloads);
+    }
+
+    private List<IFunctionType> filter(ITypeSymbol[] members) {
+        List<IFunctionType> list = new ArrayList<>();
+        for (IFunctionType overload : overloads) {
+            if (canApply(overload, members)) {
+                list.add(overload);
+            }
+        }
+        return list;
+    }
+
+    private boolean canApply(IFunctionType overload, ITypeSymbol[] members) {
+        List<IVariable> parameters = overload.getParameters();
+        if (parameters.isEmpty()) {
+            return true;
+        }
+        ITypeSymbol upperBound = OverloadBounds.getParameterUpperTypeBounds(overload, 0);
+        if (upperBound == null) {
+            return true;
+        }
+        for (ITypeSymbol member : members) {
+            if (typeHelper.isFirstSameOrSubTypeOfSecond(member, upperBound).relation != ERelation.HAS_NO_RELATION) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<IFunctionType> getOverloads() {
+        return overloads;
+    }
+
+    public List<IFunctionType> getCandidates(EArgumentKind kind) {
+        return candidates.get(kind.ordinal());
+    }
+
+    /**
+     * Returns the overloads which can possibly be applied to a first argument of the given type.
+     */
+    public List<IFunctionType> getCandidates(ITypeSymbol argumentType) {
+        return candidates.get(getKind(argumentType).ordinal());
+    }
+
+    /**
+     * Returns the kind of the given type, MIXED if it belongs to none or more than one kind (e.g. nothing).
+     */
+    public EArgumentKind getKind(ITypeSymbol type) {
+        for (int i = 0; i < kindTypes.length; ++i) {
+            if (kindTypes[i] == type) {
+                return KINDS[i];
+            }
+        }
+
+        EArgumentKind kind = EArgumentKind.MIXED;
+        if (type != null) {
+            for (int i = 0; i < kindTypes.length; ++i) {
+                ERelation relation = typeHelper.isFirstSameOrSubTypeOfSecond(type, kindTypes[i], false).relation;
+                if (relation == ERelation.HAS_RELATION) {
+                    if (kind != EArgumentKind.MIXED) {
+                        return EArgumentKind.MIXED;
+                    }
+                    kind = KINDS[i];
+                }
+            }
+        }
+        return kind;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.utils.ERelation;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The overloads of a function or operator in topological order of their specificity, the most specific first.
+ * <p/>
+ * An overload dominates another if both have the same number of parameters, the upper bound of each parameter is a
+ * subtype of the corresponding upper bound of the other overload (without conversions, no upper bound counts as
+ * mixed) and the reverse is not the case. Once an overload was found to be applicable, the overloads it dominates do
+ * not need to be tested any more, e.g.:
+ * <pre>
+ * BitSet excluded = new BitSet();
+ * for (int i = 0; i &lt; order.size(); ++i) {
+ *     if (!excluded.get(i) &amp;&amp; isApplicable(order.getOverloads().get(i))) {
+ *         order.excludeDominated(i, excluded);
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * Overloads which are not related keep their original order.
+ */
+public class OverloadSpecificityOrder
+{
+    private final List<IFunctionType> overloads;
+    private final BitSet[] dominated;
+
+    public OverloadSpecificityOrder(
+            Collection<IFunctionType> theOverloads, ITypeHelper typeHelper, ITypeSymbol mixedTypeSymbol) {
+        List<IFunctionType> originalOrder = new ArrayList<>(theOverloads);
+        int size = originalOrder.size();
+        ITypeSymbol[][] bounds = new ITypeSymbol[size][];
+        for (int i = 0; i < size; ++i) {
+            bounds[i] = getParameterBounds(originalOrder.get(i), mixedTypeSymbol);
+        }
+
+        BitSet[] originalDominated = new BitSet[size];
+        for (int i = 0; i < size; ++i) {
+            originalDominated[i] = new BitSet(size);
+            for (int j = 0; j < size; ++j) {
+                if (i != j && isSubsumedBy(bounds[i], bounds[j], typeHelper)
+                        && !isSubsumedBy(bounds[j], bounds[i], typeHelper)) {
+                    originalDominated[i].set(j);
+                }
+            }
+        }
+
+        int[] order = sortTopologically(originalDominated);
+        int[] positions = new int[size];
+        for (int i = 0; i < size; ++i) {
+            positions[order[i]] = i;
+        }
+        List<IFunctionType> sortedOverloads = new ArrayList<>(size);
+        dominated = new BitSet[size];
+        for (int i = 0; i < size; ++i) {
+            sortedOverloads.add(originalOrder.get(order[i]));
+            BitSet originalSet = originalDominated[order[i]];
+            dominated[i] = new BitSet(size);
+            for (int j = originalSet.nextSetBit(0); j >= 0; j = originalSet.nextSetBit(j + 1)) {
+                dominated[i].set(positions[j]);
+            }
+        }
+        overloads = Collections.unmodifiableList(sortedOverloads);
+    }
+
+    private ITypeSymbol[] getParameterBounds(IFunctionType overload, ITypeSymbol mixedTypeSymbol) {
+        ITypeSymbol[] bounds = new ITypeSymbol[overload.getParameters().size()];
+        for (int i = 0; i < bounds.length; ++i) {
+            ITypeSymbol upperBound = OverloadBounds.getParameterUpperTypeBounds(overload, i);
+            bounds[i] = upperBound != null ? upperBound : mixedTypeSymbol;
+        }
+        return bounds;
+    }
+
+    private boolean isSubsumedBy(ITypeSymbol[] first, ITypeSymbol[] second, ITypeHelper typeHelper) {
+        if (first.length != second.length) {
+            return false;
+        }
+        for (int i = 0; i < first.length; ++i) {
+            if (typeHelper.isFirstSameOrSubTypeOfSecond(first[i], second[i], false).relation
+                    != ERelation.HAS_RELATION) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Kahn's algorithm which always picks the first remaining overload in the original order which is not dominated
+     * by another remaining overload, hence the original order is kept where possible.
+     */
+    private int[] sortTopologically(BitSet[] originalDominated) {
+        int size = originalDominated.length;
+        int[] numberOfDominators = new int[size];
+        for (BitSet set : originalDominated) {
+            for (int j = set.nextSetBit(0); j >= 0; j = set.nextSetBit(j + 1)) {
+                ++numberOfDominators[j];
+            }
+        }
+
+        int[] order = new int[size];
+        boolean[] isSorted = new boolean[size];
+        for (int position = 0; position < size; ++position) {
+            int next = 0;
+            while (next < size && (isSorted[next] || numberOfDominators[next] != 0)) {
+                ++next;
+            }
+            if (next == size) {
+                throw new IllegalStateException("the dominance relation of the overloads is cyclic");
+            }
+            order[position] = next;
+            isSorted[next] = true;
+            BitSet set = originalDominated[next];
+            for (int j = set.nextSetBit(0); j >= 0; j = set.nextSetBit(j + 1)) {
+                --numberOfDominators[j];
+            }
+        }
+        return order;
+    }
+
+    public int size() {
+        return overloads.size();
+    }
+
+    /**
+     * Returns the overloads in topological order, the most specific first.
+     */
+    public List<IFunctionType> getOverloads() {
+        return overloads;
+    }
+
+    /**
+     * Returns true if the overload at index first (in topological order) dominates the one at index second.
+     */
+    public boolean dominates(int first, int second) {
+        return dominated[first].get(second);
+    }
+
+    /**
+     * Sets the indices of the overloads dominated by the overload at the given index in the given BitSet.
+     */
+    public void excludeDominated(int index, BitSet excluded) {
+        excluded.or(dominated[index]);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The overloads of a function or operator split into two tiers, the overloads without convertible parameter types
+ * (exact tier) and the ones with convertible parameter types such as {as T} (convertible tier).
+ * <p/>
+ * The convertible overloads are more expensive to apply and are only required if no exact overload matches. Hence,
+ * the exact tier should be tried first, e.g.:
+ * <pre>
+ * List&lt;IFunctionType&gt; applicable = filterApplicable(tiers.getExactOverloads());
+ * if (applicable.isEmpty()) {
+ *     applicable = filterApplicable(tiers.getConvertibleOverloads());
+ * }
+ * </pre>
+ * Both tiers keep the original order of the overloads.
+ */
+public class OverloadTiers
+{
+    private final List<IFunctionType> exactOverloads;
+    private final List<IFunctionType> convertibleOverloads;
+
+    public OverloadTiers(Collection<IFunctionType> overloads) {
+        List<IFunctionType> exact = new ArrayList<>();
+        List<IFunctionType> convertible = new ArrayList<>();
+        for (IFunctionType overload : overloads) {
+            if (overload.hasConvertibleParameterTypes()) {
+                convertible.add(overload);
+            } else {
+                exact.add(overload);
+            }
+        }
+        exactOverloads = Collections.unmodifiableList(exact);
+        convertibleOverloads = Collections.unmodifiableList(convertible);
+    }
+
+    public List<IFunctionType> getExactOverloads() {
+        return exactOverloads;
+    }
+
+    public List<IFunctionType> getConvertibleOverloads() {
+        return convertibleOverloads;
+    }
+
+    public int size() {
+        return exactOverloads.size() + convertibleOverloads.size();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IArrayTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IIntersectionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IUnionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Encodes types which consist of primitive types only as bitmask, each leaf primitive type (nullType, falseType,
+ * trueType, int, float, string, array and resource) has its own bit.
+ * <p/>
+ * A union corresponds to the bitwise or of its members and an intersection to the bitwise and (the leaves are
+ * disjoint). Hence, a type is a subtype of another if its mask does not have any bit which the other does not have.
+ * The empty union has the mask {@link #NOTHING} and is thus a subtype of every primitive type. Types which are not (or
+ * not only) made of primitive types, including mixed and the primitive type nothing (which the type helper does not
+ * consider to be a subtype of other types), do not have a mask, see {@link #NOT_PRIMITIVE}.
+ * <p/>
+ * The masks of containers are cached by absolute name, which identifies the members of a container uniquely. The
+ * masks of the types of the given primitive types are precomputed.
+ */
+public class PrimitiveTypeLattice
+{
+    public static final int NOT_PRIMITIVE = -1;
+    public static final int NOTHING = 0;
+    public static final int NULL_TYPE = 1;
+    public static final int FALSE_TYPE = 1 << 1;
+    public static final int TRUE_TYPE = 1 << 2;
+    public static final int INT = 1 << 3;
+    public static final int FLOAT = 1 << 4;
+    public static final int STRING = 1 << 5;
+    public static final int ARRAY = 1 << 6;
+    public static final int RESOURCE = 1 << 7;
+
+    private final Map<ITypeSymbol, Integer> leaves = new IdentityHashMap<>();
+    private final ConcurrentMap<String, Integer> containerMasks = new ConcurrentHashMap<>();
+
+    public PrimitiveTypeLattice(Map<String, ITypeSymbol> primitiveTypes) {
+        addLeaf(primitiveTypes, PrimitiveTypeNames.NULL_TYPE, NULL_TYPE);
+        addLeaf(primitiveTypes, PrimitiveTypeNames.FALSE_TYPE, FALSE_TYPE);
+        addLeaf(primitiveTypes, PrimitiveTypeNames.TRUE_TYPE, TRUE_TYPE);
+        addLeaf(primitiveTypes, PrimitiveTypeNames.INT, INT);
+        addLeaf(primitiveTypes, PrimitiveTypeNames.FLOAT, FLOAT);
+        addLeaf(primitiveTypes, PrimitiveTypeNames.STRING, STRING);
+        addLeaf(primitiveTypes, PrimitiveTypeNames.ARRAY, ARRAY);
+        addLeaf(primitiveTypes, PrimitiveTypeNames.RESOURCE, RESOURCE);
+
+        for (ITypeSymbol typeSymbol : primitiveTypes.values()) {
+            getMask(typeSymbol);
+            if (typeSymbol instanceof IArrayTypeSymbol) {
+                getMask(((IArrayTypeSymbol) typeSymbol).getKeyTypeSymbol());
+            }
+        }
+    }
+
+    private void addLeaf(Map<String, ITypeSymbol> primitiveTypes, String name, int mask) {
+        ITypeSymbol typeSymbol = primitiveTypes.get(name);
+        if (typeSymbol != null) {
+            leaves.put(typeSymbol, mask);
+        }
+    }
+
+    /**
+     * Returns the mask of the given type or {@link #NOT_PRIMITIVE} if the type is not made of primitive types only.
+     */
+    public int getMask(ITypeSymbol typeSymbol) {
+        Integer mask = leaves.get(typeSymbol);
+        if (mask != null) {
+            return mask;
+        }
+        if (typeSymbol instanceof IUnionTypeSymbol || typeSymbol instanceof IIntersectionTypeSymbol) {
+            String absoluteName = typeSymbol.getAbsoluteName();
+            mask = containerMasks.get(absoluteName);
+            if (mask == null) {
+                mask = calculateMask(typeSymbol);
+                if (mask != NOT_PRIMITIVE) {
+                    containerMasks.putIfAbsent(absoluteName, mask);
+                }
+            }
+            return mask;
+        }
+        return NOT_PRIMITIVE;
+    }
+
+    private int calculateMask(ITypeSymbol typeSymbol) {
+        if (typeSymbol instanceof IUnionTypeSymbol) {
+            int mask = NOTHING;
+            for (ITypeSymbol member : ((IUnionTypeSymbol) typeSymbol).getTypeSymbols().values()) {
+                int memberMask = getMask(member);
+                if (memberMask == NOT_PRIMITIVE) {
+                    return NOT_PRIMITIVE;
+                }
+                mask |= memberMask;
+            }
+            return mask;
+        }
+
+        Map<String, ITypeSymbol> members = ((IIntersectionTypeSymbol) typeSymbol).getTypeSymbols();
+        if (members.isEmpty()) {
+            //an empty intersection is mixed
+            return NOT_PRIMITIVE;
+        }
+        int mask = ~NOTHING;
+        for (ITypeSymbol member : members.values()) {
+            int memberMask = getMask(member);
+            if (memberMask == NOT_PRIMITIVE) {
+                return NOT_PRIMITIVE;
+            }
+            mask &= memberMask;
+        }
+        //the type helper does not treat an intersection of disjoint types like the empty union
+        return mask != NOTHING ? mask : NOT_PRIMITIVE;
+    }
+
+    /**
+     * Indicates whether the type of the first mask is the same or a subtype of the type of the second mask, both
+     * masks need to be primitive.
+     */
+    public static boolean isSameOrSubMask(int firstMask, int secondMask) {
+        return (firstMask & ~secondMask) == 0;
+    }
+
+    /**
+     * Returns the mask of the union of the types of the given masks, both masks need to be primitive.
+     */
+    public static int unionMask(int firstMask, int secondMask) {
+        return firstMask | secondMask;
+    }
+}
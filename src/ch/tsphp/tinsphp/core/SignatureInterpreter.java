@@ -0,0 +1,296 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.inference.constraints.IVariable;
+import ch.tsphp.tinsphp.common.symbols.IConvertibleTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static ch.tsphp.tinsphp.common.TinsPHPConstants.RETURN_VARIABLE_NAME;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_EXPR;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_LHS;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_RETURN;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_RHS;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.VAR_EXPR;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.VAR_LHS;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.VAR_RHS;
+
+/**
+ * Defines the overloads of a function based on signatures in the notation used in the comments of the providers,
+ * e.g. {@code int x int -> int}.
+ * <p/>
+ * A definition consists of a header followed by the signatures of the overloads:
+ * <pre>
+ * header      := name | name '(' parameter (', ' parameter)* ')'
+ * signature   := ['~'] parameters ' -> ' type [' \ ' constraint (', ' constraint)*]
+ * parameters  := '()' | type (' x ' type)*
+ * type        := primitiveType | typeVariable | '{as ' type '}' | '(' type (' | ' type)* ')'
+ * constraint  := typeVariable ' <: ' type
+ * </pre>
+ * Type variables start with a capital T. A type variable as return type is not fixed and a type variable as
+ * parameter type leaves the parameter unbounded. The leading ~ marks an overload with convertible parameter types.
+ * <p/>
+ * Unary functions use $expr and binary functions $lhs, $rhs as parameters, other functions need to name their
+ * parameters in the header.
+ */
+public class SignatureInterpreter extends AProvider
+{
+    private static final String CONVERTIBLE = "~";
+    private static final String ARROW = " -> ";
+    private static final String WHERE = " \\ ";
+    private static final String SUBTYPE = " <: ";
+    private static final String AS = "{as ";
+
+    private final ConcurrentMap<String, ITypeSymbol> types = new ConcurrentHashMap<>();
+
+    public SignatureInterpreter(
+            ISymbolFactory theSymbolFactory,
+            ITypeHelper theTypeHelper,
+            StandardConstraintAndVariables standardConstraintAndVariables) {
+        super(theSymbolFactory, theTypeHelper, standardConstraintAndVariables);
+
+        types.put(PrimitiveTypeNames.NULL_TYPE, std.nullTypeSymbol);
+        types.put(PrimitiveTypeNames.FALSE_TYPE, std.falseTypeSymbol);
+        types.put(PrimitiveTypeNames.TRUE_TYPE, std.trueTypeSymbol);
+        types.put(PrimitiveTypeNames.BOOL, std.boolTypeSymbol);
+        types.put(PrimitiveTypeNames.INT, std.intTypeSymbol);
+        types.put(PrimitiveTypeNames.FLOAT, std.floatTypeSymbol);
+        types.put(PrimitiveTypeNames.NUM, std.numTypeSymbol);
+        types.put(PrimitiveTypeNames.STRING, std.stringTypeSymbol);
+        types.put(PrimitiveTypeNames.SCALAR, std.scalarTypeSymbol);
+        types.put(PrimitiveTypeNames.ARRAY, std.arrayTypeSymbol);
+        types.put(PrimitiveTypeNames.MIXED, std.mixedTypeSymbol);
+        types.put("{as bool}", std.asBoolTypeSymbol);
+        types.put("{as int}", std.asIntTypeSymbol);
+        types.put("{as float}", std.asFloatTypeSymbol);
+        types.put("{as num}", std.asNumTypeSymbol);
+        types.put("{as string}", std.asStringTypeSymbol);
+        types.put("(array | {as int})", std.arrayOrAsInt);
+        types.put("(falseType | int)", std.intOrFalse);
+        types.put("(falseType | float)", std.floatOrFalse);
+        types.put("(falseType | num)", std.numOrFalse);
+    }
+
+    /**
+     * Returns the name of the function of the given header, e.g. substr for {@code substr($string, $start, $length)}.
+     */
+    public String getFunctionName(String header) {
+        int index = header.indexOf('(');
+        return index == -1 ? header : header.substring(0, index);
+    }
+
+    /**
+     * Adds an overload to the given method symbol per signature, definition[0] is the header.
+     */
+    public void defineOverloads(IMinimalMethodSymbol methodSymbol, String[] definition) {
+        String header = definition[0];
+        String name = getFunctionName(header);
+        List<String> parameterNames = null;
+        if (!name.equals(header)) {
+            parameterNames = Arrays.asList(header.substring(name.length() + 1, header.length() - 1).split(", "));
+        }
+
+        List<IVariable> parameters = null;
+        for (int i = 1; i < definition.length; ++i) {
+            String signature = definition[i];
+            boolean hasConvertibleParameterTypes = signature.startsWith(CONVERTIBLE);
+            if (hasConvertibleParameterTypes) {
+                signature = signature.substring(CONVERTIBLE.length());
+            }
+            int arrowIndex = signature.indexOf(ARROW);
+            if (arrowIndex == -1) {
+                throw new IllegalArgumentException("\"" + definition[i] + "\" of " + name + " has no return type.");
+            }
+            String parameterTypes = signature.substring(0, arrowIndex);
+            List<String> parameterTypeList = parameterTypes.equals("()")
+                    ? Collections.<String>emptyList()
+                    : Arrays.asList(parameterTypes.split(" x "));
+
+            if (parameters == null) {
+                parameterNames = getParameterNames(name, parameterNames, parameterTypeList.size());
+                parameters = createParameters(parameterNames);
+            } else if (parameters.size() != parameterTypeList.size()) {
+                throw new IllegalArgumentException("\"" + definition[i] + "\" of " + name
+                        + " has a different number of parameters than the first overload.");
+            }
+
+            String returnTypeAndConstraints = signature.substring(arrowIndex + ARROW.length());
+            IFunctionType function = createFunctionType(
+                    name, parameters, parameterNames, parameterTypeList, returnTypeAndConstraints);
+            function.manuallySimplified(getNonFixedTypeParameters(function), 0, hasConvertibleParameterTypes);
+            methodSymbol.getOverloads().add(intern(function));
+        }
+    }
+
+    private List<String> getParameterNames(String name, List<String> parameterNames, int numberOfParameters) {
+        List<String> names = parameterNames;
+        if (names == null) {
+            switch (numberOfParameters) {
+                case 0:
+                    names = Collections.emptyList();
+                    break;
+                case 1:
+                    names = Arrays.asList(VAR_EXPR);
+                    break;
+                case 2:
+                    names = Arrays.asList(VAR_LHS, VAR_RHS);
+                    break;
+                default:
+                    throw new IllegalArgumentException(name + " needs to name its parameters in the header.");
+            }
+        } else if (names.size() != numberOfParameters) {
+            throw new IllegalArgumentException(
+                    "the header of " + name + " does not specify the same number of parameters as its overloads.");
+        }
+        return names;
+    }
+
+    private List<IVariable> createParameters(List<String> parameterNames) {
+        List<IVariable> parameters;
+        if (parameterNames.size() == 1 && parameterNames.get(0).equals(VAR_EXPR)) {
+            parameters = std.unaryParameterId;
+        } else if (parameterNames.equals(Arrays.asList(VAR_LHS, VAR_RHS))) {
+            parameters = std.binaryParameterIds;
+        } else {
+            parameters = new ArrayList<>(parameterNames.size());
+            for (String parameterName : parameterNames) {
+                parameters.add(symbolFactory.createVariable(parameterName));
+            }
+        }
+        return parameters;
+    }
+
+    private String getTypeVariable(List<String> parameterNames, int index) {
+        String typeVariable;
+        String parameterName = parameterNames.get(index);
+        if (parameterName.equals(VAR_EXPR)) {
+            typeVariable = T_EXPR;
+        } else if (parameterName.equals(VAR_LHS)) {
+            typeVariable = T_LHS;
+        } else if (parameterName.equals(VAR_RHS)) {
+            typeVariable = T_RHS;
+        } else {
+            typeVariable = "T" + (index + 1);
+        }
+        return typeVariable;
+    }
+
+    private IFunctionType createFunctionType(String name, List<IVariable> parameters, List<String> parameterNames,
+            List<String> parameterTypes, String returnTypeAndConstraints) {
+        String returnType = returnTypeAndConstraints;
+        String[] constraints = new String[0];
+        int whereIndex = returnTypeAndConstraints.indexOf(WHERE);
+        if (whereIndex != -1) {
+            returnType = returnTypeAndConstraints.substring(0, whereIndex);
+            constraints = returnTypeAndConstraints.substring(whereIndex + WHERE.length()).split(", ");
+        }
+
+        IBindingCollection collection = symbolFactory.createBindingCollection();
+        String[] typeVariables = new String[parameterTypes.size()];
+        for (int i = 0; i < typeVariables.length; ++i) {
+            String parameterType = parameterTypes.get(i);
+            typeVariables[i] = isTypeVariable(parameterType) ? parameterType : getTypeVariable(parameterNames, i);
+            collection.addVariable(parameterNames.get(i), fixReference(typeVariables[i]));
+        }
+        boolean isReturnTypeVariable = isTypeVariable(returnType);
+        if (isReturnTypeVariable) {
+            collection.addVariable(RETURN_VARIABLE_NAME, reference(returnType));
+        } else {
+            collection.addVariable(RETURN_VARIABLE_NAME, fixReference(T_RETURN));
+        }
+
+        for (String constraint : constraints) {
+            String[] typeVariableAndType = constraint.split(SUBTYPE);
+            collection.addUpperTypeBound(typeVariableAndType[0], parseType(typeVariableAndType[1], collection));
+        }
+        for (int i = 0; i < typeVariables.length; ++i) {
+            String parameterType = parameterTypes.get(i);
+            if (!isTypeVariable(parameterType)) {
+                collection.addUpperTypeBound(typeVariables[i], parseType(parameterType, collection));
+            }
+        }
+        if (!isReturnTypeVariable) {
+            collection.addLowerTypeBound(T_RETURN, parseType(returnType, collection));
+        }
+        return createFunctionType(name, collection, parameters);
+    }
+
+    private Set<String> getNonFixedTypeParameters(IFunctionType function) {
+        Set<String> nonFixedTypeParameters = Collections.emptySet();
+        IBindingCollection collection = function.getBindingCollection();
+        String returnTypeVariable = collection.getTypeVariable(RETURN_VARIABLE_NAME);
+        if (!collection.getTypeVariableReference(RETURN_VARIABLE_NAME).hasFixedType()) {
+            nonFixedTypeParameters = new HashSet<>(1);
+            nonFixedTypeParameters.add(returnTypeVariable);
+        }
+        return nonFixedTypeParameters;
+    }
+
+    private boolean isTypeVariable(String type) {
+        return type.charAt(0) == 'T';
+    }
+
+    private ITypeSymbol parseType(String type, IBindingCollection collection) {
+        ITypeSymbol typeSymbol = types.get(type);
+        if (typeSymbol == null) {
+            if (type.startsWith(AS) && type.endsWith("}")) {
+                typeSymbol = parseConvertibleType(type.substring(AS.length(), type.length() - 1), collection);
+            } else if (type.startsWith("(") && type.endsWith(")")) {
+                typeSymbol = parseUnionType(type.substring(1, type.length() - 1), collection);
+            } else {
+                throw new IllegalArgumentException(type + " is not a known type.");
+            }
+        }
+        return typeSymbol;
+    }
+
+    private ITypeSymbol parseConvertibleType(String type, IBindingCollection collection) {
+        IConvertibleTypeSymbol convertibleTypeSymbol = symbolFactory.createConvertibleTypeSymbol();
+        if (isTypeVariable(type)) {
+            collection.bind(convertibleTypeSymbol, Arrays.asList(type));
+        } else {
+            ITypeSymbol typeSymbol = parseType(type, collection);
+            convertibleTypeSymbol.addLowerTypeBound(typeSymbol);
+            convertibleTypeSymbol.addUpperTypeBound(typeSymbol);
+            convertibleTypeSymbol = cache(AS + type + "}", convertibleTypeSymbol);
+        }
+        return convertibleTypeSymbol;
+    }
+
+    private ITypeSymbol parseUnionType(String types, IBindingCollection collection) {
+        String[] members = types.split(" \\| ");
+        ITypeSymbol[] typeSymbols = new ITypeSymbol[members.length];
+        for (int i = 0; i < members.length; ++i) {
+            if (isTypeVariable(members[i])) {
+                throw new IllegalArgumentException("type variables are not supported in union types.");
+            }
+            typeSymbols[i] = parseType(members[i], collection);
+        }
+        return cache("(" + types + ")", std.unionTypePool.getUnion(typeSymbols));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <TType extends ITypeSymbol> TType cache(String type, TType typeSymbol) {
+        ITypeSymbol cachedTypeSymbol = types.putIfAbsent(type, typeSymbol);
+        return cachedTypeSymbol != null ? (TType) cachedTypeSymbol : typeSymbol;
+    }
+}
@@ -24,6 +24,7 @@ public class StandardConstraintAndVariables
     public static final String T_RHS = "Trhs";
     public static final String T_RETURN = "Treturn";
     public static final String T_EXPR = "Texpr";
+    public static final String T = "T";
     public static final String VAR_LHS = "$lhs";
     public static final String VAR_RHS = "$rhs";
     public static final String VAR_EXPR = "$expr";
@@ -57,6 +58,10 @@ public class StandardConstraintAndVariables
     public final IVariable rhs;
     public final IVariable expr;
 
+    public final FunctionTypePool functionTypePool;
+    public final VariableIdPool variableIdPool = new VariableIdPool();
+    public final UnionTypePool unionTypePool;
+
     public StandardConstraintAndVariables(ISymbolFactory symbolFactory, Map<String, ITypeSymbol> primitiveType) {
         nullTypeSymbol = primitiveType.get(PrimitiveTypeNames.NULL_TYPE);
         falseTypeSymbol = primitiveType.get(PrimitiveTypeNames.FALSE_TYPE);
@@ -69,6 +74,8 @@ public class StandardConstraintAndVariables
         scalarTypeSymbol = primitiveType.get(PrimitiveTypeNames.SCALAR);
         arrayTypeSymbol = primitiveType.get(PrimitiveTypeNames.ARRAY);
         mixedTypeSymbol = primitiveType.get(PrimitiveTypeNames.MIXED);
+        unionTypePool = new UnionTypePool(symbolFactory, primitiveType);
+        functionTypePool = new FunctionTypePool(symbolFactory);
 
         asBoolTypeSymbol = symbolFactory.createConvertibleTypeSymbol();
         asBoolTypeSymbol.addLowerTypeBound(boolTypeSymbol);
@@ -90,21 +97,10 @@ public class StandardConstraintAndVariables
         asStringTypeSymbol.addLowerTypeBound(stringTypeSymbol);
         asStringTypeSymbol.addUpperTypeBound(stringTypeSymbol);
 
-        arrayOrAsInt = symbolFactory.createUnionTypeSymbol();
-        arrayOrAsInt.addTypeSymbol(arrayTypeSymbol);
-        arrayOrAsInt.addTypeSymbol(asIntTypeSymbol);
-
-        intOrFalse = symbolFactory.createUnionTypeSymbol();
-        intOrFalse.addTypeSymbol(intTypeSymbol);
-        intOrFalse.addTypeSymbol(falseTypeSymbol);
-
-        floatOrFalse = symbolFactory.createUnionTypeSymbol();
-        floatOrFalse.addTypeSymbol(floatTypeSymbol);
-        floatOrFalse.addTypeSymbol(falseTypeSymbol);
-
-        numOrFalse = symbolFactory.createUnionTypeSymbol();
-        numOrFalse.addTypeSymbol(numTypeSymbol);
-        numOrFalse.addTypeSymbol(falseTypeSymbol);
+        arrayOrAsInt = unionTypePool.getUnion(arrayTypeSymbol, asIntTypeSymbol);
+        intOrFalse = unionTypePool.getUnion(intTypeSymbol, falseTypeSymbol);
+        floatOrFalse = unionTypePool.getUnion(floatTypeSymbol, falseTypeSymbol);
+        numOrFalse = unionTypePool.getUnion(numTypeSymbol, falseTypeSymbol);
 
         lhs = symbolFactory.createVariable(VAR_LHS);
         rhs = symbolFactory.createVariable(VAR_RHS);
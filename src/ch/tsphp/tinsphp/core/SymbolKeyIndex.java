@@ -0,0 +1,242 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A read-only index of symbol keys (e.g. \strlen()) which can be queried with a key split into two parts, such as
+ * the name of a namespace scope and an identifier, without joining them, case-sensitively as well as
+ * case-insensitively.
+ * <p/>
+ * Keys are stored with open addressing and linear probing, positioned by their case-folded hash. The exact hash is
+ * stored next to the case-folded one. Both hashes of a split key are computed from the characters of its parts and
+ * equal the ones of the joined key; candidates are compared part by part. Hence, a lookup neither joins nor
+ * lowercases anything and does not allocate, regardless of whether it hits or misses.
+ * <p/>
+ * Before the table is probed, the case-folded hash is checked against a Bloom filter over the case-folded hashes of
+ * all keys. Most queries are for identifiers which are not core symbols and are rejected by the filter already.
+ * <p/>
+ * Optionally, the number of rejected, found and not found queries are counted, see {@link #getStatistics()}. Counting
+ * is off by default, the counters are shared by all threads which use the index and would be contended on the hot
+ * path otherwise.
+ */
+final class SymbolKeyIndex
+{
+    private static final int BITS_PER_KEY = 16;
+    private static final int NUMBER_OF_FILTER_BITS = 3;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final int[] foldedHashes;
+    private final int mask;
+    private final long[] filter;
+    private final int filterMask;
+    //null if lookups are not counted
+    private final Counters counters;
+
+    SymbolKeyIndex(Collection<String> theKeys) {
+        this(theKeys, false);
+    }
+
+    SymbolKeyIndex(Collection<String> theKeys, boolean countLookups) {
+        counters = countLookups ? new Counters() : null;
+        int capacity = 2;
+        //at most half full, there is hence always an empty slot which terminates a probe
+        while (capacity < theKeys.size() * 2) {
+            capacity <<= 1;
+        }
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        foldedHashes = new int[capacity];
+        mask = capacity - 1;
+        for (String key : theKeys) {
+            int foldedHash = foldedHash(0, key);
+            int index = spread(foldedHash) & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            hashes[index] = key.hashCode();
+            foldedHashes[index] = foldedHash;
+        }
+
+        int numberOfBits = Long.SIZE;
+        while (numberOfBits < theKeys.size() * BITS_PER_KEY) {
+            numberOfBits <<= 1;
+        }
+        filter = new long[numberOfBits / Long.SIZE];
+        filterMask = numberOfBits - 1;
+        for (int i = 0; i < capacity; ++i) {
+            if (keys[i] != null) {
+                addToFilter(foldedHashes[i]);
+            }
+        }
+    }
+
+    private void addToFilter(int foldedHash) {
+        int bit = spread(foldedHash);
+        int step = getFilterStep(foldedHash);
+        for (int i = 0; i < NUMBER_OF_FILTER_BITS; ++i) {
+            filter[(bit & filterMask) >>> 6] |= 1L << bit;
+            bit += step;
+        }
+    }
+
+    /**
+     * Returns false if no key has the given case-folded hash, true if a key might have it.
+     */
+    private boolean mightContain(int foldedHash) {
+        int bit = spread(foldedHash);
+        int step = getFilterStep(foldedHash);
+        for (int i = 0; i < NUMBER_OF_FILTER_BITS; ++i) {
+            if ((filter[(bit & filterMask) >>> 6] & (1L << bit)) == 0) {
+                if (counters != null) {
+                    counters.numberOfRejections.incrementAndGet();
+                }
+                return false;
+            }
+            bit += step;
+        }
+        return true;
+    }
+
+    /**
+     * The filter bits of a hash are b, b + step, b + 2 * step etc., where b is the spread hash and the step is derived
+     * from a second, independent mix of the hash (double hashing). The step is odd so that the bits are distinct.
+     */
+    private static int getFilterStep(int foldedHash) {
+        return spread(foldedHash * GOLDEN_RATIO) | 1;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Same as {@link String#hashCode()} but over the case-folded characters, continued from the given hash.
+     */
+    private static int foldedHash(int hash, String part) {
+        int foldedHash = hash;
+        int length = part.length();
+        for (int i = 0; i < length; ++i) {
+            foldedHash = 31 * foldedHash + fold(part.charAt(i));
+        }
+        return foldedHash;
+    }
+
+    /**
+     * Folds the given character such that characters which {@link String#regionMatches(boolean, int, String, int,
+     * int)} considers to be equal when ignoring case are folded to the same character.
+     */
+    private static char fold(char character) {
+        return Character.toLowerCase(Character.toUpperCase(character));
+    }
+
+    /**
+     * Returns the stored key which is equal to first + second or null if there is none (or if a part is null).
+     */
+    String get(String first, String second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        int hash = first.hashCode();
+        int secondLength = second.length();
+        for (int i = 0; i < secondLength; ++i) {
+            hash = 31 * hash + second.charAt(i);
+        }
+
+        int foldedHash = foldedHash(foldedHash(0, first), second);
+        if (!mightContain(foldedHash)) {
+            return null;
+        }
+
+        int index = spread(foldedHash) & mask;
+        String key = keys[index];
+        while (key != null) {
+            if (hashes[index] == hash && matches(key, first, second, false)) {
+                count(key);
+                return key;
+            }
+            index = (index + 1) & mask;
+            key = keys[index];
+        }
+        count(null);
+        return null;
+    }
+
+    /**
+     * Returns the stored key which is equal to first + second when ignoring case or null if there is none (or if a
+     * part is null). If several stored keys only differ in case, then the one with the same case is preferred and
+     * otherwise the first one which was stored.
+     */
+    String getCaseInsensitive(String first, String second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        int foldedHash = foldedHash(foldedHash(0, first), second);
+        if (!mightContain(foldedHash)) {
+            return null;
+        }
+
+        String result = null;
+        int index = spread(foldedHash) & mask;
+        String key = keys[index];
+        while (key != null) {
+            if (foldedHashes[index] == foldedHash && matches(key, first, second, true)) {
+                if (matches(key, first, second, false)) {
+                    count(key);
+                    return key;
+                }
+                if (result == null) {
+                    result = key;
+                }
+            }
+            index = (index + 1) & mask;
+            key = keys[index];
+        }
+        count(result);
+        return result;
+    }
+
+    /**
+     * Counts a query which passed the filter, as hit if a key was found and as false positive otherwise.
+     */
+    private void count(String result) {
+        if (counters != null) {
+            (result != null ? counters.numberOfHits : counters.numberOfFalsePositives).incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of rejected, found and not found queries or null if lookups are not counted.
+     */
+    SymbolLookupStatisticsDto getStatistics() {
+        if (counters == null) {
+            return null;
+        }
+        return new SymbolLookupStatisticsDto(
+                counters.numberOfRejections.get(), counters.numberOfHits.get(), counters.numberOfFalsePositives.get());
+    }
+
+    private boolean matches(String key, String first, String second, boolean ignoreCase) {
+        int firstLength = first.length();
+        int secondLength = second.length();
+        return key.length() == firstLength + secondLength
+                && key.regionMatches(ignoreCase, 0, first, 0, firstLength)
+                && key.regionMatches(ignoreCase, firstLength, second, 0, secondLength);
+    }
+
+    private static final class Counters
+    {
+        private final AtomicLong numberOfRejections = new AtomicLong();
+        private final AtomicLong numberOfHits = new AtomicLong();
+        private final AtomicLong numberOfFalsePositives = new AtomicLong();
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+/**
+ * The number of symbol lookups of a {@link CoreSymbolResolver} by outcome.
+ * <p/>
+ * numberOfRejections is the number of lookups which the Bloom filter rejected without probing the index (certainly
+ * not a core symbol), numberOfHits the number of lookups which found a symbol and numberOfFalsePositives the number of
+ * lookups which passed the filter but did not find a symbol. The rejection rate is hence numberOfRejections divided by
+ * numberOfLookups and the false positive rate numberOfFalsePositives divided by the number of misses.
+ */
+public final class SymbolLookupStatisticsDto
+{
+    public final long numberOfLookups;
+    public final long numberOfRejections;
+    public final long numberOfHits;
+    public final long numberOfFalsePositives;
+
+    public SymbolLookupStatisticsDto(long theNumberOfRejections, long theNumberOfHits, long theNumberOfFalsePositives) {
+        numberOfRejections = theNumberOfRejections;
+        numberOfHits = theNumberOfHits;
+        numberOfFalsePositives = theNumberOfFalsePositives;
+        numberOfLookups = theNumberOfRejections + theNumberOfHits + theNumberOfFalsePositives;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns consecutive ordinals to types in the order in which they are added.
+ * <p/>
+ * Types are identified by identity first and by absolute name second, hence structurally equal types created
+ * elsewhere (e.g. unions during inference) have the ordinal of the added type with the same absolute name.
+ * <p/>
+ * There is one assignment per core: {@link ConversionsProvider} assigns ordinals to the convertible types and
+ * {@link CoreTypeRelations} extends a copy of it with the remaining core types, so that an ordinal denotes the same
+ * type in both. Types are only added during construction of the owner, the assignment does not change afterwards.
+ */
+public final class TypeOrdinals
+{
+    public static final int NO_ORDINAL = -1;
+
+    private final List<ITypeSymbol> typeSymbols;
+    private final Map<ITypeSymbol, Integer> typeOrdinals;
+    private final Map<String, Integer> nameOrdinals;
+
+    TypeOrdinals() {
+        typeSymbols = new ArrayList<>();
+        typeOrdinals = new IdentityHashMap<>();
+        nameOrdinals = new HashMap<>();
+    }
+
+    /**
+     * Creates an assignment which starts with the ordinals of the given one.
+     */
+    TypeOrdinals(TypeOrdinals prefix) {
+        typeSymbols = new ArrayList<>(prefix.typeSymbols);
+        typeOrdinals = new IdentityHashMap<>(prefix.typeOrdinals);
+        nameOrdinals = new HashMap<>(prefix.nameOrdinals);
+    }
+
+    /**
+     * Assigns the next ordinal to the given type unless a type with the same absolute name has one already.
+     */
+    void add(ITypeSymbol typeSymbol) {
+        if (!typeOrdinals.containsKey(typeSymbol)) {
+            Integer ordinal = nameOrdinals.get(typeSymbol.getAbsoluteName());
+            if (ordinal == null) {
+                ordinal = typeSymbols.size();
+                typeSymbols.add(typeSymbol);
+                nameOrdinals.put(typeSymbol.getAbsoluteName(), ordinal);
+            }
+            typeOrdinals.put(typeSymbol, ordinal);
+        }
+    }
+
+    /**
+     * Returns the ordinal of the given type or {@link #NO_ORDINAL} if it was not added.
+     */
+    public int getOrdinal(ITypeSymbol typeSymbol) {
+        Integer ordinal = typeOrdinals.get(typeSymbol);
+        if (ordinal == null) {
+            ordinal = nameOrdinals.get(typeSymbol.getAbsoluteName());
+        }
+        return ordinal != null ? ordinal : NO_ORDINAL;
+    }
+
+    public ITypeSymbol getTypeSymbol(int ordinal) {
+        return typeSymbols.get(ordinal);
+    }
+
+    public int size() {
+        return typeSymbols.size();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IArrayTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
+import ch.tsphp.tinsphp.common.symbols.IUnionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonicalises the unions used by the core, i.e. returns one shared union per distinct set of members.
+ * <p/>
+ * Unions are looked up by the sorted absolute names of the given members and, on a miss, by the absolute name of the
+ * created union so that a union is shared even if it was requested with different but equivalent members (e.g.
+ * (num | falseType) and (int | float | falseType)). The unions of the given primitive types (bool, num, scalar and
+ * the key type of array) are registered up front.
+ * <p/>
+ * Pooled unions are shared between operators, functions and the primitive types but they are not frozen: they are
+ * the plain unions of the symbol factory (some of them are the primitive types themselves) and
+ * {@link IUnionTypeSymbol#addTypeSymbol(ITypeSymbol)} still changes them. Callers which need a modified union have
+ * to copy it first, changing a pooled union changes every operator and function using it.
+ */
+public class UnionTypePool
+{
+    private final ISymbolFactory symbolFactory;
+    private final ConcurrentMap<String, IUnionTypeSymbol> unions = new ConcurrentHashMap<>();
+
+    public UnionTypePool(ISymbolFactory theSymbolFactory, Map<String, ITypeSymbol> primitiveTypes) {
+        symbolFactory = theSymbolFactory;
+        for (ITypeSymbol typeSymbol : primitiveTypes.values()) {
+            if (typeSymbol instanceof IUnionTypeSymbol) {
+                intern((IUnionTypeSymbol) typeSymbol);
+            }
+        }
+        ITypeSymbol arrayTypeSymbol = primitiveTypes.get(PrimitiveTypeNames.ARRAY);
+        if (arrayTypeSymbol instanceof IArrayTypeSymbol) {
+            ITypeSymbol keyTypeSymbol = ((IArrayTypeSymbol) arrayTypeSymbol).getKeyTypeSymbol();
+            if (keyTypeSymbol instanceof IUnionTypeSymbol) {
+                intern((IUnionTypeSymbol) keyTypeSymbol);
+            }
+        }
+    }
+
+    /**
+     * Returns the pooled union of the given types, the union is created if it is the first of its kind.
+     */
+    public IUnionTypeSymbol getUnion(ITypeSymbol... typeSymbols) {
+        String key = getKey(typeSymbols);
+        IUnionTypeSymbol unionTypeSymbol = unions.get(key);
+        if (unionTypeSymbol == null) {
+            unionTypeSymbol = symbolFactory.createUnionTypeSymbol();
+            for (ITypeSymbol typeSymbol : typeSymbols) {
+                unionTypeSymbol.addTypeSymbol(typeSymbol);
+            }
+            unionTypeSymbol = intern(unionTypeSymbol);
+            IUnionTypeSymbol existing = unions.putIfAbsent(key, unionTypeSymbol);
+            if (existing != null) {
+                unionTypeSymbol = existing;
+            }
+        }
+        return unionTypeSymbol;
+    }
+
+    /**
+     * Returns the pooled union with the same members as the given one or the given one if it is the first of its kind.
+     */
+    public IUnionTypeSymbol intern(IUnionTypeSymbol unionTypeSymbol) {
+        IUnionTypeSymbol existing = unions.putIfAbsent(unionTypeSymbol.getAbsoluteName(), unionTypeSymbol);
+        return existing != null ? existing : unionTypeSymbol;
+    }
+
+    public int size() {
+        return unions.size();
+    }
+
+    private String getKey(ITypeSymbol[] typeSymbols) {
+        String[] names = new String[typeSymbols.length];
+        for (int i = 0; i < typeSymbols.length; ++i) {
+            names[i] = typeSymbols[i].getAbsoluteName();
+        }
+        Arrays.sort(names);
+        StringBuilder key = new StringBuilder("(");
+        for (int i = 0; i < names.length; ++i) {
+            if (i > 0) {
+                key.append(" | ");
+            }
+            key.append(names[i]);
+        }
+        return key.append(')').toString();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Assigns dense int ids to the names of variables and type variables used in core signatures so that bounds can be
+ * stored and looked up in arrays indexed by id, the names remain for display only.
+ * <p/>
+ * Ids are assigned in the order in which the names are seen first, see {@link ImmutableBindingCollection}.
+ */
+public class VariableIdPool
+{
+    private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    /**
+     * Returns the id of the given name, the next free id is assigned if the name was not seen before.
+     */
+    public int getId(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            synchronized (names) {
+                id = ids.get(name);
+                if (id == null) {
+                    id = names.size();
+                    names.add(name);
+                    ids.put(name, id);
+                }
+            }
+        }
+        return id;
+    }
+
+    public String getName(int id) {
+        synchronized (names) {
+            return names.get(id);
+        }
+    }
+
+    public int size() {
+        synchronized (names) {
+            return names.size();
+        }
+    }
+}
@@ -11,7 +11,6 @@ import ch.tsphp.common.symbols.ITypeSymbol;
 import ch.tsphp.tinsphp.common.ICore;
 import ch.tsphp.tinsphp.common.config.ICoreInitialiser;
 import ch.tsphp.tinsphp.common.config.ISymbolsInitialiser;
-import ch.tsphp.tinsphp.common.core.IConversionsProvider;
 import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
 import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
 import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
@@ -20,6 +19,7 @@ import ch.tsphp.tinsphp.core.BuiltInSuperGlobalSymbolsProvider;
 import ch.tsphp.tinsphp.core.ConversionsProvider;
 import ch.tsphp.tinsphp.core.Core;
 import ch.tsphp.tinsphp.core.CoreSymbolResolver;
+import ch.tsphp.tinsphp.core.CoreTypeRelations;
 import ch.tsphp.tinsphp.core.GeneratorHelper;
 import ch.tsphp.tinsphp.core.IGeneratorHelper;
 import ch.tsphp.tinsphp.core.IOperatorsProvider;
@@ -44,11 +44,12 @@ public class HardCodedCoreInitialiser implements ICoreInitialiser
         Map<String, ITypeSymbol> primitiveTypes = new PrimitiveTypesProvider(symbolFactory).getTypes();
         symbolFactory.setMixedTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.MIXED));
 
-        IConversionsProvider conversionsProvider = new ConversionsProvider(primitiveTypes);
+        ConversionsProvider conversionsProvider = new ConversionsProvider(primitiveTypes);
         typeHelper.setConversionsProvider(conversionsProvider);
 
-        IGeneratorHelper generatorHelper = new GeneratorHelper(astHelper, symbolFactory, primitiveTypes);
         StandardConstraintAndVariables std = new StandardConstraintAndVariables(symbolFactory, primitiveTypes);
+        IGeneratorHelper generatorHelper = new GeneratorHelper(
+                astHelper, symbolFactory, primitiveTypes, std.unionTypePool);
 
         ISymbolProvider builtInSymbolProvider = new BuiltInSymbolsProvider(
                 generatorHelper, symbolFactory, typeHelper, std);
@@ -60,7 +61,10 @@ public class HardCodedCoreInitialiser implements ICoreInitialiser
 
         IOperatorsProvider operatorsProvider = new OperatorProvider(
                 symbolFactory, typeHelper, std, builtInSymbolProvider.getSymbols());
-        core = new Core(primitiveTypes, operatorsProvider.getOperators());
+        CoreTypeRelations typeRelations = new CoreTypeRelations(typeHelper, conversionsProvider,
+                CoreTypeRelations.getCoreTypes(primitiveTypes, std, builtInSymbolProvider.getSymbols()));
+        core = new Core(primitiveTypes, operatorsProvider.getOperators(), builtInSymbolProvider.getSymbols(),
+                typeRelations, typeHelper, std);
     }
 
     @Override
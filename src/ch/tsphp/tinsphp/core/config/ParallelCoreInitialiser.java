@@ -0,0 +1,198 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.config;
+
+import ch.tsphp.common.IAstHelper;
+import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.ICore;
+import ch.tsphp.tinsphp.common.config.ICoreInitialiser;
+import ch.tsphp.tinsphp.common.config.ISymbolsInitialiser;
+import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+import ch.tsphp.tinsphp.common.utils.Pair;
+import ch.tsphp.tinsphp.core.BuiltInSuperGlobalSymbolsProvider;
+import ch.tsphp.tinsphp.core.ConversionsProvider;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.CoreSymbolResolver;
+import ch.tsphp.tinsphp.core.CoreTypeRelations;
+import ch.tsphp.tinsphp.core.GeneratorHelper;
+import ch.tsphp.tinsphp.core.OperatorProvider;
+import ch.tsphp.tinsphp.core.PrimitiveTypesProvider;
+import ch.tsphp.tinsphp.core.StandardConstraintAndVariables;
+import ch.tsphp.tinsphp.core.gen.BuiltInSymbolsProvider;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static ch.tsphp.tinsphp.common.utils.Pair.pair;
+
+/**
+ * Builds the same core as {@link HardCodedCoreInitialiser} but defines all operators and built-in symbols up front,
+ * where independent providers are built concurrently on a fork-join pool.
+ * <p/>
+ * Phases:
+ * <ol>
+ * <li>primitive types and conversions - everything else depends on them</li>
+ * <li>standard constraints and built-in classes - the operators depend on \Exception</li>
+ * <li>built-in functions, operators and super globals - concurrently</li>
+ * </ol>
+ * The wall-clock time of each phase (and of each concurrent task) is available via {@link #getPhaseTimes()}.
+ */
+public class ParallelCoreInitialiser implements ICoreInitialiser
+{
+    public static final String PHASE_PRIMITIVE_TYPES = "primitive types and conversions";
+    public static final String PHASE_BUILT_IN_CLASSES = "standard constraints and built-in classes";
+    public static final String PHASE_BUILT_IN_FUNCTIONS = "built-in functions";
+    public static final String PHASE_OPERATORS = "operators";
+    public static final String PHASE_SUPER_GLOBALS = "super globals";
+    public static final String PHASE_CONCURRENT = "concurrent phase";
+    public static final String PHASE_TOTAL = "total";
+
+    private final ISymbolResolver coreSymbolResolver;
+    private final ICore core;
+    private final Map<String, Long> phaseTimes = Collections.synchronizedMap(new LinkedHashMap<String, Long>());
+
+    public ParallelCoreInitialiser(IAstHelper astHelper, ISymbolsInitialiser symbolsInitialiser) {
+        this(astHelper, symbolsInitialiser, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelCoreInitialiser(IAstHelper astHelper, ISymbolsInitialiser symbolsInitialiser, int parallelism) {
+        this(astHelper, symbolsInitialiser, new ForkJoinPool(parallelism), true);
+    }
+
+    public ParallelCoreInitialiser(IAstHelper astHelper, ISymbolsInitialiser symbolsInitialiser, ForkJoinPool pool) {
+        this(astHelper, symbolsInitialiser, pool, false);
+    }
+
+    private ParallelCoreInitialiser(
+            IAstHelper astHelper, ISymbolsInitialiser symbolsInitialiser, ForkJoinPool pool, boolean isOwnPool) {
+        try {
+            long start = System.nanoTime();
+            Pair<ICore, ISymbolResolver> pair = initialise(astHelper, symbolsInitialiser, pool);
+            phaseTimes.put(PHASE_TOTAL, System.nanoTime() - start);
+            core = pair.first;
+            coreSymbolResolver = pair.second;
+        } finally {
+            if (isOwnPool) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private Pair<ICore, ISymbolResolver> initialise(
+            final IAstHelper astHelper, ISymbolsInitialiser symbolsInitialiser, ForkJoinPool pool) {
+        final ISymbolFactory symbolFactory = symbolsInitialiser.getSymbolFactory();
+        final ITypeHelper typeHelper = symbolsInitialiser.getTypeHelper();
+
+        long start = System.nanoTime();
+        final Map<String, ITypeSymbol> primitiveTypes = new PrimitiveTypesProvider(symbolFactory).getTypes();
+        symbolFactory.setMixedTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.MIXED));
+        final ConversionsProvider conversionsProvider = new ConversionsProvider(primitiveTypes);
+        //created up front so that the time is attributed to this phase rather than to the first concurrent user
+        conversionsProvider.getImplicitConversions();
+        conversionsProvider.getExplicitConversions();
+        typeHelper.setConversionsProvider(conversionsProvider);
+        phaseTimes.put(PHASE_PRIMITIVE_TYPES, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        ForkJoinTask<Map<String, ISymbol>> superGlobalsTask = pool.submit(
+                timed(PHASE_SUPER_GLOBALS, new Callable<Map<String, ISymbol>>()
+                {
+                    @Override
+                    public Map<String, ISymbol> call() {
+                        return new BuiltInSuperGlobalSymbolsProvider(astHelper, symbolFactory, primitiveTypes)
+                                .getSymbols();
+                    }
+                }));
+
+        final StandardConstraintAndVariables std = new StandardConstraintAndVariables(symbolFactory, primitiveTypes);
+        final Map<String, ISymbol> builtInSymbols = new BuiltInSymbolsProvider(
+                new GeneratorHelper(astHelper, symbolFactory, primitiveTypes, std.unionTypePool),
+                symbolFactory, typeHelper, std)
+                .getSymbols();
+        phaseTimes.put(PHASE_BUILT_IN_CLASSES, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        ForkJoinTask<Map<String, ISymbol>> builtInFunctionsTask = pool.submit(
+                timed(PHASE_BUILT_IN_FUNCTIONS, new Callable<Map<String, ISymbol>>()
+                {
+                    @Override
+                    public Map<String, ISymbol> call() {
+                        for (Map.Entry<String, ISymbol> entry : builtInSymbols.entrySet()) {
+                            entry.getValue();
+                        }
+                        return builtInSymbols;
+                    }
+                }));
+        ForkJoinTask<Map<Integer, IMinimalMethodSymbol>> operatorsTask = pool.submit(
+                timed(PHASE_OPERATORS, new Callable<Map<Integer, IMinimalMethodSymbol>>()
+                {
+                    @Override
+                    public Map<Integer, IMinimalMethodSymbol> call() {
+                        Map<Integer, IMinimalMethodSymbol> operators = new OperatorProvider(
+                                symbolFactory, typeHelper, std, builtInSymbols).getOperators();
+                        for (Map.Entry<Integer, IMinimalMethodSymbol> entry : operators.entrySet()) {
+                            entry.getValue();
+                        }
+                        return operators;
+                    }
+                }));
+
+        ISymbolResolver symbolResolver = new CoreSymbolResolver(builtInFunctionsTask.join(), superGlobalsTask.join());
+        Map<Integer, IMinimalMethodSymbol> operators = operatorsTask.join();
+        CoreTypeRelations typeRelations = new CoreTypeRelations(typeHelper, conversionsProvider,
+                CoreTypeRelations.getCoreTypes(primitiveTypes, std, builtInSymbols));
+        ICore theCore = new Core(primitiveTypes, operators, builtInSymbols, typeRelations, typeHelper, std);
+        phaseTimes.put(PHASE_CONCURRENT, System.nanoTime() - start);
+        return pair(theCore, symbolResolver);
+    }
+
+    private <T> Callable<T> timed(final String phase, final Callable<T> callable) {
+        return new Callable<T>()
+        {
+            @Override
+            public T call() throws Exception {
+                long start = System.nanoTime();
+                T result = callable.call();
+                phaseTimes.put(phase, System.nanoTime() - start);
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Returns the wall-clock time in nanoseconds per phase. The concurrent tasks are reported individually as well.
+     */
+    public Map<String, Long> getPhaseTimes() {
+        synchronized (phaseTimes) {
+            return new LinkedHashMap<>(phaseTimes);
+        }
+    }
+
+    @Override
+    public ICore getCore() {
+        return core;
+    }
+
+    @Override
+    public ISymbolResolver getCoreSymbolResolver() {
+        return coreSymbolResolver;
+    }
+
+    @Override
+    public void reset() {
+        //nothing to reset in the core component
+    }
+}
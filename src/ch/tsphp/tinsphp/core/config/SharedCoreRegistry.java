@@ -0,0 +1,208 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.config;
+
+import ch.tsphp.common.IAstHelper;
+import ch.tsphp.tinsphp.common.ICore;
+import ch.tsphp.tinsphp.common.config.ICoreInitialiser;
+import ch.tsphp.tinsphp.common.config.ISymbolsInitialiser;
+import ch.tsphp.tinsphp.common.core.IConversionsProvider;
+import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.core.Core;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Builds the core once per configuration and hands out the same core and core symbol resolver to every compilation
+ * session with this configuration.
+ * <p/>
+ * The configuration is identified by the class of the {@link ISymbolsInitialiser} or by a key the caller supplies,
+ * sessions with different symbols initialiser instances hence share the core. The symbols initialiser of a session is
+ * wired to the shared core (mixed type symbol and conversions) each time a session retrieves it.
+ * <p/>
+ * The shared core is fully defined before it is published, its maps are unmodifiable and {@link
+ * ICoreInitialiser#reset()} does not touch it. Hence nothing is mutated per session, provided the sessions do not
+ * modify the returned symbols themselves, and the core can be used by several sessions concurrently.
+ * <p/>
+ * Lifetime: the keys are weakly referenced, a shared core is kept until {@link #unregister(Object)} is called for its
+ * key or until its key is no longer strongly reachable. A class key stays reachable as long as its class loader,
+ * which means in most applications as long as the application runs. Hence, there is one core per configuration and
+ * not one per session.
+ */
+public class SharedCoreRegistry
+{
+    private static final SharedCoreRegistry INSTANCE = new SharedCoreRegistry();
+
+    private final Map<Object, FutureTask<SharedCoreInitialiser>> initialisers = new WeakHashMap<>();
+
+    public static SharedCoreRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the shared core initialiser for the class of the given symbols initialiser and builds it on the first
+     * call.
+     *
+     * @see #getCoreInitialiser(Object, IAstHelper, ISymbolsInitialiser)
+     */
+    public ICoreInitialiser getCoreInitialiser(IAstHelper astHelper, ISymbolsInitialiser symbolsInitialiser) {
+        return getCoreInitialiser(symbolsInitialiser.getClass(), astHelper, symbolsInitialiser);
+    }
+
+    /**
+     * Returns the shared core initialiser for the given configuration key and builds it on the first call.
+     * <p/>
+     * Concurrent first calls wait for the same build. The given astHelper is only used for the first call, the given
+     * symbols initialiser is used to build the core on the first call and is wired to the shared core on each call.
+     */
+    public ICoreInitialiser getCoreInitialiser(
+            Object configurationKey, final IAstHelper astHelper, final ISymbolsInitialiser symbolsInitialiser) {
+        FutureTask<SharedCoreInitialiser> future;
+        FutureTask<SharedCoreInitialiser> newFuture = null;
+        synchronized (initialisers) {
+            future = initialisers.get(configurationKey);
+            if (future == null) {
+                newFuture = new FutureTask<>(new Callable<SharedCoreInitialiser>()
+                {
+                    @Override
+                    public SharedCoreInitialiser call() {
+                        return createSharedInitialiser(astHelper, symbolsInitialiser);
+                    }
+                });
+                initialisers.put(configurationKey, newFuture);
+                future = newFuture;
+            }
+        }
+        //the core is built outside of the lock, other configurations shall not wait for it
+        if (newFuture != null) {
+            newFuture.run();
+        }
+        SharedCoreInitialiser initialiser = getResult(configurationKey, future);
+        initialiser.wire(symbolsInitialiser);
+        return initialiser;
+    }
+
+    private SharedCoreInitialiser getResult(Object configurationKey, FutureTask<SharedCoreInitialiser> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    //a later call shall try again
+                    synchronized (initialisers) {
+                        if (initialisers.get(configurationKey) == future) {
+                            initialisers.remove(configurationKey);
+                        }
+                    }
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException("could not initialise the shared core", cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns true if a shared core was already built (or is being built) for the given configuration key.
+     */
+    public boolean isRegistered(Object configurationKey) {
+        synchronized (initialisers) {
+            return initialisers.containsKey(configurationKey);
+        }
+    }
+
+    /**
+     * Removes the shared core of the given configuration key, sessions which already retrieved it can continue to use
+     * it and the next session builds a new one.
+     */
+    public void unregister(Object configurationKey) {
+        synchronized (initialisers) {
+            initialisers.remove(configurationKey);
+        }
+    }
+
+    private static SharedCoreInitialiser createSharedInitialiser(
+            IAstHelper astHelper, ISymbolsInitialiser symbolsInitialiser) {
+        //the parallel initialiser defines all operators and built-in symbols up front, lazy definitions on first
+        //access must not happen once the core is shared between sessions
+        ICoreInitialiser initialiser = new ParallelCoreInitialiser(astHelper, symbolsInitialiser);
+        Core core = (Core) initialiser.getCore();
+        Core sharedCore = new Core(
+                Collections.unmodifiableMap(core.getPrimitiveTypes()),
+                Collections.unmodifiableMap(core.getOperators()),
+                Collections.unmodifiableMap(core.getBuiltInSymbols()),
+                core.getTypeRelations(),
+                symbolsInitialiser.getTypeHelper(),
+                core.getStandardConstraintAndVariables());
+        //the structures derived from the overloads are published up front as well
+        for (Integer tokenType : sharedCore.getOperators().keySet()) {
+            sharedCore.getOperator(tokenType);
+        }
+        for (String key : sharedCore.getBuiltInSymbols().keySet()) {
+            sharedCore.getSpecificityOrder(key);
+        }
+        return new SharedCoreInitialiser(sharedCore, initialiser.getCoreSymbolResolver(),
+                core.getTypeRelations().getConversionsProvider());
+    }
+
+    private static final class SharedCoreInitialiser implements ICoreInitialiser
+    {
+        private final ICore core;
+        private final ISymbolResolver coreSymbolResolver;
+        private final IConversionsProvider conversionsProvider;
+
+        private SharedCoreInitialiser(
+                ICore theCore, ISymbolResolver theCoreSymbolResolver, IConversionsProvider theConversionsProvider) {
+            core = theCore;
+            coreSymbolResolver = theCoreSymbolResolver;
+            conversionsProvider = theConversionsProvider;
+        }
+
+        /**
+         * Lets the given symbols initialiser use the primitive types and conversions of the shared core, as the core
+         * initialisers do for the symbols initialiser they are created with.
+         */
+        private void wire(ISymbolsInitialiser symbolsInitialiser) {
+            symbolsInitialiser.getSymbolFactory().setMixedTypeSymbol(
+                    core.getPrimitiveTypes().get(PrimitiveTypeNames.MIXED));
+            symbolsInitialiser.getTypeHelper().setConversionsProvider(conversionsProvider);
+        }
+
+        @Override
+        public ICore getCore() {
+            return core;
+        }
+
+        @Override
+        public ISymbolResolver getCoreSymbolResolver() {
+            return coreSymbolResolver;
+        }
+
+        @Override
+        public void reset() {
+            //the shared core is immutable, there is nothing to reset per session
+        }
+    }
+}
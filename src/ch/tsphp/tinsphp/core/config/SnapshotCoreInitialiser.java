@@ -0,0 +1,90 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.config;
+
+import ch.tsphp.common.IAstHelper;
+import ch.tsphp.tinsphp.common.ICore;
+import ch.tsphp.tinsphp.common.config.ICoreInitialiser;
+import ch.tsphp.tinsphp.common.config.ISymbolsInitialiser;
+import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
+import ch.tsphp.tinsphp.common.utils.Pair;
+import ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat;
+import ch.tsphp.tinsphp.core.snapshot.CoreSnapshotReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Initialises the core from the snapshot created by the (opt-in) snapshot target of the build and falls back to
+ * {@link HardCodedCoreInitialiser} if the snapshot is missing, stale or corrupt.
+ */
+public class SnapshotCoreInitialiser implements ICoreInitialiser
+{
+    private final ISymbolResolver coreSymbolResolver;
+    private final ICore core;
+    private final boolean wasLoadedFromSnapshot;
+
+    public SnapshotCoreInitialiser(IAstHelper astHelper, ISymbolsInitialiser symbolsInitialiser) {
+        this(astHelper, symbolsInitialiser,
+                SnapshotCoreInitialiser.class.getClassLoader().getResourceAsStream(CoreSnapshotFormat.RESOURCE_NAME));
+    }
+
+    public SnapshotCoreInitialiser(
+            IAstHelper astHelper, ISymbolsInitialiser symbolsInitialiser, InputStream snapshot) {
+        Pair<ICore, ISymbolResolver> pair = null;
+        if (snapshot != null) {
+            pair = load(astHelper, symbolsInitialiser, snapshot);
+        }
+
+        wasLoadedFromSnapshot = pair != null;
+        if (wasLoadedFromSnapshot) {
+            core = pair.first;
+            coreSymbolResolver = pair.second;
+        } else {
+            ICoreInitialiser fallback = new HardCodedCoreInitialiser(astHelper, symbolsInitialiser);
+            core = fallback.getCore();
+            coreSymbolResolver = fallback.getCoreSymbolResolver();
+        }
+    }
+
+    @SuppressWarnings("checkstyle:illegalcatch")
+    private static Pair<ICore, ISymbolResolver> load(
+            IAstHelper astHelper, ISymbolsInitialiser symbolsInitialiser, InputStream snapshot) {
+        CoreSnapshotReader reader = new CoreSnapshotReader(
+                astHelper, symbolsInitialiser.getSymbolFactory(), symbolsInitialiser.getTypeHelper());
+        try {
+            return reader.read(snapshot);
+        } catch (IOException | RuntimeException ex) {
+            return null;
+        } finally {
+            try {
+                snapshot.close();
+            } catch (IOException ex) {
+                //nothing we could do about it
+            }
+        }
+    }
+
+    public boolean wasLoadedFromSnapshot() {
+        return wasLoadedFromSnapshot;
+    }
+
+    @Override
+    public ICore getCore() {
+        return core;
+    }
+
+    @Override
+    public ISymbolResolver getCoreSymbolResolver() {
+        return coreSymbolResolver;
+    }
+
+    @Override
+    public void reset() {
+        //nothing to reset in the core component
+    }
+}
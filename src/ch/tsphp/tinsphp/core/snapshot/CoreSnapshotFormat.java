@@ -0,0 +1,128 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.snapshot;
+
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.zip.CRC32;
+
+/**
+ * Constants shared by {@link CoreSnapshotWriter} and {@link CoreSnapshotReader}.
+ */
+public final class CoreSnapshotFormat
+{
+    public static final String RESOURCE_NAME = "ch/tsphp/tinsphp/core/snapshot/core.snapshot";
+
+    public static final int MAGIC = 0x54494E53;
+    public static final short VERSION = 2;
+
+    public static final byte KIND_CLASS = 0;
+    public static final byte KIND_CONSTANT = 1;
+    public static final byte KIND_FUNCTION = 2;
+
+    public static final byte TYPE_REFERENCE = 0;
+    public static final byte TYPE_PRIMITIVE = 1;
+    public static final byte TYPE_UNION = 2;
+    public static final byte TYPE_INTERSECTION = 3;
+    public static final byte TYPE_CONVERTIBLE = 4;
+    public static final byte TYPE_BOUND_CONVERTIBLE = 5;
+    public static final byte TYPE_CLASS = 6;
+
+    public static final short NEW_STRING = -1;
+
+    public static final byte VARIABLE_REFERENCE = 0;
+    public static final byte VARIABLE_DEFINITION = 1;
+
+    public static final byte FUNCTION_REFERENCE = 0;
+    public static final byte FUNCTION_DEFINITION = 1;
+
+    //a snapshot is stale as soon as one of the classes which define the core changed. Names instead of class
+    // literals are used on purpose, the classes shall not be loaded when the snapshot is used.
+    private static final String[] SOURCES = new String[]{
+            "ch/tsphp/tinsphp/core/AProvider.class",
+            "ch/tsphp/tinsphp/core/BuiltInSuperGlobalSymbolsProvider.class",
+            "ch/tsphp/tinsphp/core/ConversionsProvider.class",
+            "ch/tsphp/tinsphp/core/FunctionTypePool.class",
+            "ch/tsphp/tinsphp/core/GeneratorHelper.class",
+            "ch/tsphp/tinsphp/core/ImmutableBindingCollection.class",
+            "ch/tsphp/tinsphp/core/OperatorProvider.class",
+            "ch/tsphp/tinsphp/core/PrimitiveTypesProvider.class",
+            "ch/tsphp/tinsphp/core/SignatureInterpreter.class",
+            "ch/tsphp/tinsphp/core/StandardConstraintAndVariables.class",
+            "ch/tsphp/tinsphp/core/TypeOrdinals.class",
+            "ch/tsphp/tinsphp/core/UnionTypePool.class",
+            "ch/tsphp/tinsphp/core/VariableIdPool.class",
+            "ch/tsphp/tinsphp/core/gen/BuiltInSymbolsProvider.class",
+            "ch/tsphp/tinsphp/core/snapshot/CoreSnapshotReader.class",
+            "ch/tsphp/tinsphp/core/snapshot/CoreSnapshotWriter.class"
+    };
+
+    //the libraries whose classes (symbol factory, function types, type variable references etc.) create the objects
+    // which are serialised, identified by one of their classes. The whole jar is part of the fingerprint.
+    private static final String[] DEPENDENCIES = new String[]{
+            "ch/tsphp/tinsphp/common/inference/constraints/TypeVariableReference.class",
+            "ch/tsphp/tinsphp/symbols/SymbolFactory.class"
+    };
+
+    private static volatile Long fingerprint;
+
+    private CoreSnapshotFormat() {
+    }
+
+    public static long computeFingerprint() throws IOException {
+        //the classes cannot change while the JVM is running, hence it is enough to compute it once
+        Long result = fingerprint;
+        if (result == null) {
+            result = computeCrcOfSources();
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    private static long computeCrcOfSources() throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(VERSION);
+        byte[] buffer = new byte[4096];
+        ClassLoader classLoader = CoreSnapshotFormat.class.getClassLoader();
+        for (String resourceName : SOURCES) {
+            update(crc, buffer, getResource(classLoader, resourceName));
+        }
+        for (String resourceName : DEPENDENCIES) {
+            URL url = getResource(classLoader, resourceName);
+            URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                url = ((JarURLConnection) connection).getJarFileURL();
+            }
+            update(crc, buffer, url);
+        }
+        return crc.getValue();
+    }
+
+    private static URL getResource(ClassLoader classLoader, String resourceName) throws IOException {
+        URL url = classLoader.getResource(resourceName);
+        if (url == null) {
+            throw new IOException("could not find " + resourceName);
+        }
+        return url;
+    }
+
+    private static void update(CRC32 crc, byte[] buffer, URL url) throws IOException {
+        InputStream inputStream = url.openStream();
+        try {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+}
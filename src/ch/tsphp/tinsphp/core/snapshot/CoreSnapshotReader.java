@@ -0,0 +1,380 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.snapshot;
+
+import ch.tsphp.common.IAstHelper;
+import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.ICore;
+import ch.tsphp.tinsphp.common.inference.constraints.FixedTypeVariableReference;
+import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.inference.constraints.IVariable;
+import ch.tsphp.tinsphp.common.inference.constraints.TypeVariableReference;
+import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
+import ch.tsphp.tinsphp.common.symbols.IClassTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IContainerTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IConvertibleTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+import ch.tsphp.tinsphp.common.utils.Pair;
+import ch.tsphp.tinsphp.core.BuiltInSuperGlobalSymbolsProvider;
+import ch.tsphp.tinsphp.core.ConversionsProvider;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.CoreSymbolResolver;
+import ch.tsphp.tinsphp.core.CoreTypeRelations;
+import ch.tsphp.tinsphp.core.GeneratorHelper;
+import ch.tsphp.tinsphp.core.IGeneratorHelper;
+import ch.tsphp.tinsphp.core.ImmutableBindingCollection;
+import ch.tsphp.tinsphp.core.PrimitiveTypesProvider;
+import ch.tsphp.tinsphp.core.StandardConstraintAndVariables;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static ch.tsphp.tinsphp.common.utils.Pair.pair;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.FUNCTION_REFERENCE;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.KIND_CLASS;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.KIND_CONSTANT;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.KIND_FUNCTION;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.NEW_STRING;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_BOUND_CONVERTIBLE;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_CLASS;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_CONVERTIBLE;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_INTERSECTION;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_PRIMITIVE;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_REFERENCE;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_UNION;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.VARIABLE_DEFINITION;
+
+/**
+ * Replays a snapshot written by {@link CoreSnapshotWriter} through the given {@link ISymbolFactory}.
+ * <p/>
+ * The header is validated before anything else happens, a stale or foreign snapshot results in an IOException.
+ */
+public class CoreSnapshotReader
+{
+    private final IAstHelper astHelper;
+    private final ISymbolFactory symbolFactory;
+    private final ITypeHelper typeHelper;
+
+    private final List<ITypeSymbol> readTypes = new ArrayList<>();
+    private final List<IVariable> readVariables = new ArrayList<>();
+    private final List<IFunctionType> readFunctions = new ArrayList<>();
+    private final List<String> readStrings = new ArrayList<>();
+    private final Map<String, IClassTypeSymbol> classes = new HashMap<>();
+    private Map<String, ITypeSymbol> primitiveTypes;
+    private StandardConstraintAndVariables std;
+    private DataInputStream in;
+
+    public CoreSnapshotReader(IAstHelper theAstHelper, ISymbolFactory theSymbolFactory, ITypeHelper theTypeHelper) {
+        astHelper = theAstHelper;
+        symbolFactory = theSymbolFactory;
+        typeHelper = theTypeHelper;
+    }
+
+    public Pair<ICore, ISymbolResolver> read(InputStream inputStream) throws IOException {
+        readTypes.clear();
+        readVariables.clear();
+        readFunctions.clear();
+        readStrings.clear();
+        classes.clear();
+        in = new DataInputStream(new BufferedInputStream(inputStream));
+        checkHeader();
+
+        primitiveTypes = new PrimitiveTypesProvider(symbolFactory).getTypes();
+        symbolFactory.setMixedTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.MIXED));
+
+        ITypeSymbol[][] implicitCastings = readCastings();
+        ITypeSymbol[][] explicitCastings = readCastings();
+        ConversionsProvider conversionsProvider
+                = new ConversionsProvider(primitiveTypes, implicitCastings, explicitCastings);
+        typeHelper.setConversionsProvider(conversionsProvider);
+        std = new StandardConstraintAndVariables(symbolFactory, primitiveTypes);
+
+        Map<String, ISymbol> builtInSymbols = readBuiltInSymbols();
+        Map<String, ISymbol> superGlobals
+                = new BuiltInSuperGlobalSymbolsProvider(astHelper, symbolFactory, primitiveTypes).getSymbols();
+        ISymbolResolver coreSymbolResolver = new CoreSymbolResolver(builtInSymbols, superGlobals);
+
+        Map<Integer, IMinimalMethodSymbol> operators = readOperators();
+        CoreTypeRelations typeRelations = new CoreTypeRelations(typeHelper, conversionsProvider,
+                CoreTypeRelations.getCoreTypes(primitiveTypes, std, builtInSymbols));
+        ICore core = new Core(primitiveTypes, operators, builtInSymbols, typeRelations, typeHelper, std);
+        return pair(core, coreSymbolResolver);
+    }
+
+    private void checkHeader() throws IOException {
+        if (in.readInt() != CoreSnapshotFormat.MAGIC) {
+            throw new IOException("not a core snapshot");
+        }
+        if (in.readShort() != CoreSnapshotFormat.VERSION) {
+            throw new IOException("unsupported core snapshot version");
+        }
+        if (in.readLong() != CoreSnapshotFormat.computeFingerprint()) {
+            throw new IOException("core snapshot is stale");
+        }
+    }
+
+    private ITypeSymbol[][] readCastings() throws IOException {
+        int size = in.readShort();
+        ITypeSymbol[][] castings = new ITypeSymbol[size][];
+        for (int i = 0; i < size; ++i) {
+            castings[i] = new ITypeSymbol[]{readType(null), readType(null)};
+        }
+        return castings;
+    }
+
+    private Map<String, ISymbol> readBuiltInSymbols() throws IOException {
+        IGeneratorHelper generatorHelper = new GeneratorHelper(astHelper, symbolFactory, primitiveTypes);
+        int size = in.readShort();
+        Map<String, ISymbol> symbols = new HashMap<>(size * 2);
+        for (int i = 0; i < size; ++i) {
+            byte kind = in.readByte();
+            String key = readString();
+            String name = readString();
+            switch (kind) {
+                case KIND_CLASS:
+                    symbols.put(key, readClass(generatorHelper, key, name));
+                    break;
+                case KIND_CONSTANT:
+                    symbols.put(key, generatorHelper.createConstant(name, readType(null)));
+                    break;
+                case KIND_FUNCTION:
+                    IMinimalMethodSymbol methodSymbol = symbolFactory.createMinimalMethodSymbol(name);
+                    readOverloads(methodSymbol.getOverloads());
+                    symbols.put(key, methodSymbol);
+                    break;
+                default:
+                    throw new IOException("unknown symbol kind " + kind);
+            }
+        }
+        return symbols;
+    }
+
+    private IClassTypeSymbol readClass(IGeneratorHelper generatorHelper, String key, String name)
+            throws IOException {
+        IClassTypeSymbol classTypeSymbol = generatorHelper.createClass(name);
+        String parentKey = readString();
+        if (!parentKey.isEmpty()) {
+            IClassTypeSymbol parent = getClass(parentKey);
+            classTypeSymbol.setParent(parent);
+            classTypeSymbol.addParentTypeSymbol(parent);
+        }
+        int numberOfMethods = in.readShort();
+        for (int i = 0; i < numberOfMethods; ++i) {
+            String methodName = readString();
+            generatorHelper.defineMethod(classTypeSymbol, methodName, readType(null));
+        }
+        classes.put(key, classTypeSymbol);
+        return classTypeSymbol;
+    }
+
+    private IClassTypeSymbol getClass(String key) throws IOException {
+        IClassTypeSymbol classTypeSymbol = classes.get(key);
+        if (classTypeSymbol == null) {
+            throw new IOException("class " + key + " was referenced before it was defined");
+        }
+        return classTypeSymbol;
+    }
+
+    private Map<Integer, IMinimalMethodSymbol> readOperators() throws IOException {
+        int size = in.readShort();
+        Map<Integer, IMinimalMethodSymbol> operators = new HashMap<>(size * 2);
+        for (int i = 0; i < size; ++i) {
+            int tokenType = in.readShort();
+            IMinimalMethodSymbol methodSymbol = symbolFactory.createMinimalMethodSymbol(readString());
+            readOverloads(methodSymbol.getOverloads());
+            operators.put(tokenType, methodSymbol);
+        }
+        return operators;
+    }
+
+    private void readOverloads(Collection<IFunctionType> overloads) throws IOException {
+        int size = in.readShort();
+        for (int i = 0; i < size; ++i) {
+            overloads.add(readFunctionType());
+        }
+    }
+
+    private IFunctionType readFunctionType() throws IOException {
+        if (in.readByte() == FUNCTION_REFERENCE) {
+            return readFunctions.get(in.readShort());
+        }
+        String name = readString();
+
+        int numberOfParameters = in.readByte();
+        IVariable[] parameters = new IVariable[numberOfParameters];
+        for (int i = 0; i < numberOfParameters; ++i) {
+            parameters[i] = readVariable();
+        }
+
+        IBindingCollection bindingCollection = symbolFactory.createBindingCollection();
+        int numberOfVariables = in.readByte();
+        for (int i = 0; i < numberOfVariables; ++i) {
+            String variableId = readString();
+            String typeVariable = readString();
+            boolean isFixed = in.readBoolean();
+            TypeVariableReference reference = new TypeVariableReference(typeVariable);
+            bindingCollection.addVariable(variableId, isFixed ? new FixedTypeVariableReference(reference) : reference);
+        }
+
+        int numberOfBoundConvertibles = in.readByte();
+        Map<String, IConvertibleTypeSymbol> boundConvertibles = new HashMap<>(numberOfBoundConvertibles * 2);
+        for (int i = 0; i < numberOfBoundConvertibles; ++i) {
+            String typeVariable = readString();
+            IConvertibleTypeSymbol convertibleTypeSymbol = symbolFactory.createConvertibleTypeSymbol();
+            bindingCollection.bind(convertibleTypeSymbol, Arrays.asList(typeVariable));
+            boundConvertibles.put(typeVariable, convertibleTypeSymbol);
+        }
+
+        int numberOfTypeVariables = in.readByte();
+        for (int i = 0; i < numberOfTypeVariables; ++i) {
+            String typeVariable = readString();
+            int numberOfUpperBounds = in.readByte();
+            for (int j = 0; j < numberOfUpperBounds; ++j) {
+                bindingCollection.addUpperTypeBound(typeVariable, readType(boundConvertibles));
+            }
+            int numberOfLowerBounds = in.readByte();
+            for (int j = 0; j < numberOfLowerBounds; ++j) {
+                bindingCollection.addLowerTypeBound(typeVariable, readType(boundConvertibles));
+            }
+            int numberOfRefBounds = in.readByte();
+            for (int j = 0; j < numberOfRefBounds; ++j) {
+                bindingCollection.addLowerRefBound(typeVariable, new TypeVariableReference(readString()));
+            }
+        }
+
+        int numberOfNonFixedTypeParameters = in.readByte();
+        Set<String> nonFixedTypeParameters = new HashSet<>(numberOfNonFixedTypeParameters * 2);
+        for (int i = 0; i < numberOfNonFixedTypeParameters; ++i) {
+            nonFixedTypeParameters.add(readString());
+        }
+        boolean hasConvertibleParameterTypes = in.readBoolean();
+
+        List<IVariable> parameterList = Arrays.asList(parameters);
+        IBindingCollection immutableCollection
+                = ImmutableBindingCollection.copyOf(bindingCollection, parameterList, std.variableIdPool);
+        IFunctionType function = symbolFactory.createFunctionType(name, immutableCollection, parameterList);
+        function.manuallySimplified(nonFixedTypeParameters, 0, hasConvertibleParameterTypes);
+        //structurally identical function types share their binding collection as in the hard-coded core
+        function = std.functionTypePool.intern(function);
+        readFunctions.add(function);
+        return function;
+    }
+
+    private ITypeSymbol readType(Map<String, IConvertibleTypeSymbol> boundConvertibles) throws IOException {
+        byte tag = in.readByte();
+        ITypeSymbol typeSymbol;
+        boolean isShareable = true;
+        switch (tag) {
+            case TYPE_REFERENCE:
+                return readTypes.get(in.readShort());
+            case TYPE_PRIMITIVE:
+                String primitiveTypeName = readString();
+                typeSymbol = primitiveTypes.get(primitiveTypeName);
+                if (typeSymbol == null) {
+                    throw new IOException("unknown primitive type " + primitiveTypeName);
+                }
+                break;
+            case TYPE_UNION:
+                typeSymbol = readContainer(symbolFactory.createUnionTypeSymbol(), boundConvertibles);
+                isShareable = !containsBoundConvertible((IContainerTypeSymbol) typeSymbol);
+                break;
+            case TYPE_INTERSECTION:
+                typeSymbol = readContainer(symbolFactory.createIntersectionTypeSymbol(), boundConvertibles);
+                isShareable = !containsBoundConvertible((IContainerTypeSymbol) typeSymbol);
+                break;
+            case TYPE_CONVERTIBLE:
+                IConvertibleTypeSymbol convertibleTypeSymbol = symbolFactory.createConvertibleTypeSymbol();
+                int numberOfLowerBounds = in.readByte();
+                for (int i = 0; i < numberOfLowerBounds; ++i) {
+                    convertibleTypeSymbol.addLowerTypeBound(readType(boundConvertibles));
+                }
+                int numberOfUpperBounds = in.readByte();
+                for (int i = 0; i < numberOfUpperBounds; ++i) {
+                    convertibleTypeSymbol.addUpperTypeBound(readType(boundConvertibles));
+                }
+                typeSymbol = convertibleTypeSymbol;
+                break;
+            case TYPE_BOUND_CONVERTIBLE:
+                String typeVariable = readString();
+                typeSymbol = boundConvertibles != null ? boundConvertibles.get(typeVariable) : null;
+                if (typeSymbol == null) {
+                    throw new IOException("convertible type bound to " + typeVariable + " was not declared");
+                }
+                isShareable = false;
+                break;
+            case TYPE_CLASS:
+                typeSymbol = getClass(readString());
+                break;
+            default:
+                throw new IOException("unknown type tag " + tag);
+        }
+
+        if (isShareable) {
+            readTypes.add(typeSymbol);
+        }
+        return typeSymbol;
+    }
+
+    private ITypeSymbol readContainer(
+            IContainerTypeSymbol container, Map<String, IConvertibleTypeSymbol> boundConvertibles)
+            throws IOException {
+        int size = in.readByte();
+        for (int i = 0; i < size; ++i) {
+            container.addTypeSymbol(readType(boundConvertibles));
+        }
+        return container;
+    }
+
+    private boolean containsBoundConvertible(IContainerTypeSymbol container) {
+        for (ITypeSymbol typeSymbol : container.getTypeSymbols().values()) {
+            if (typeSymbol instanceof IConvertibleTypeSymbol && ((IConvertibleTypeSymbol) typeSymbol).wasBound()
+                    || typeSymbol instanceof IContainerTypeSymbol
+                    && containsBoundConvertible((IContainerTypeSymbol) typeSymbol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String readString() throws IOException {
+        short index = in.readShort();
+        String string;
+        if (index == NEW_STRING) {
+            string = in.readUTF();
+            readStrings.add(string);
+        } else {
+            string = readStrings.get(index);
+        }
+        return string;
+    }
+
+    private IVariable readVariable() throws IOException {
+        IVariable variable;
+        if (in.readByte() == VARIABLE_DEFINITION) {
+            variable = symbolFactory.createVariable(readString());
+            readVariables.add(variable);
+        } else {
+            variable = readVariables.get(in.readShort());
+        }
+        return variable;
+    }
+}
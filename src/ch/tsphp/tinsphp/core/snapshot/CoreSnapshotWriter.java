@@ -0,0 +1,454 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.snapshot;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.IAstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.IConversionMethod;
+import ch.tsphp.tinsphp.common.config.ISymbolsInitialiser;
+import ch.tsphp.tinsphp.common.core.IConversionsProvider;
+import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.inference.constraints.ITypeVariableReference;
+import ch.tsphp.tinsphp.common.inference.constraints.IVariable;
+import ch.tsphp.tinsphp.common.symbols.IClassTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IContainerTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IConvertibleTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IIntersectionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IMethodSymbol;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
+import ch.tsphp.tinsphp.common.symbols.IUnionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IVariableSymbol;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+import ch.tsphp.tinsphp.common.utils.Pair;
+import ch.tsphp.tinsphp.core.ConversionsProvider;
+import ch.tsphp.tinsphp.core.GeneratorHelper;
+import ch.tsphp.tinsphp.core.OperatorProvider;
+import ch.tsphp.tinsphp.core.PrimitiveTypesProvider;
+import ch.tsphp.tinsphp.core.StandardConstraintAndVariables;
+import ch.tsphp.tinsphp.core.gen.BuiltInSymbolsProvider;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.FUNCTION_DEFINITION;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.FUNCTION_REFERENCE;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.KIND_CLASS;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.KIND_CONSTANT;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.KIND_FUNCTION;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.NEW_STRING;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_BOUND_CONVERTIBLE;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_CLASS;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_CONVERTIBLE;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_INTERSECTION;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_PRIMITIVE;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_REFERENCE;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.TYPE_UNION;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.VARIABLE_DEFINITION;
+import static ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat.VARIABLE_REFERENCE;
+
+/**
+ * Writes the signature image of the hard-coded core (conversions, built-in symbols and operators) in a compact binary
+ * form which can be replayed by {@link CoreSnapshotReader}.
+ * <p/>
+ * Strings, variables, function types and shared types (primitive types, the convertible and union types of
+ * {@link StandardConstraintAndVariables} etc.) are written only once and referenced by index afterwards, so that the
+ * replayed core shares them as well.
+ */
+public class CoreSnapshotWriter
+{
+    private final Map<String, ITypeSymbol> primitiveTypes;
+    private final Map<ITypeSymbol, String> primitiveTypeNames = new IdentityHashMap<>();
+    private final Map<ITypeSymbol, Integer> writtenTypes = new IdentityHashMap<>();
+    private final Map<IVariable, Integer> writtenVariables = new IdentityHashMap<>();
+    private final Map<IFunctionType, Integer> writtenFunctions = new IdentityHashMap<>();
+    private final Map<String, Integer> writtenStrings = new HashMap<>();
+    private final Map<ITypeSymbol, String> classKeys = new IdentityHashMap<>();
+    private DataOutputStream out;
+
+    public CoreSnapshotWriter(Map<String, ITypeSymbol> thePrimitiveTypes) {
+        primitiveTypes = thePrimitiveTypes;
+        for (Map.Entry<String, ITypeSymbol> entry : primitiveTypes.entrySet()) {
+            primitiveTypeNames.put(entry.getValue(), entry.getKey());
+        }
+    }
+
+    public void write(
+            OutputStream outputStream,
+            IConversionsProvider conversionsProvider,
+            Map<String, ISymbol> builtInSymbols,
+            Map<Integer, IMinimalMethodSymbol> operators) throws IOException {
+
+        writtenTypes.clear();
+        writtenVariables.clear();
+        writtenFunctions.clear();
+        writtenStrings.clear();
+        classKeys.clear();
+        out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(CoreSnapshotFormat.MAGIC);
+        out.writeShort(CoreSnapshotFormat.VERSION);
+        out.writeLong(CoreSnapshotFormat.computeFingerprint());
+
+        writeConversions(conversionsProvider.getImplicitConversions());
+        writeConversions(conversionsProvider.getExplicitConversions());
+        writeBuiltInSymbols(builtInSymbols);
+        writeOperators(operators);
+        out.flush();
+    }
+
+    private void writeConversions(Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> conversions)
+            throws IOException {
+        List<ITypeSymbol[]> castings = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> entry
+                : new TreeMap<>(conversions).entrySet()) {
+            ITypeSymbol from = primitiveTypes.get(entry.getKey());
+            if (from == null) {
+                throw new IllegalArgumentException("conversions from non-primitive type " + entry.getKey()
+                        + " are not supported.");
+            }
+            for (Pair<ITypeSymbol, IConversionMethod> to : new TreeMap<>(entry.getValue()).values()) {
+                castings.add(new ITypeSymbol[]{from, to.first});
+            }
+        }
+        out.writeShort(castings.size());
+        for (ITypeSymbol[] fromTo : castings) {
+            writeType(fromTo[0], null);
+            writeType(fromTo[1], null);
+        }
+    }
+
+    private void writeBuiltInSymbols(Map<String, ISymbol> builtInSymbols) throws IOException {
+        //classes need to be written first since functions and operators might refer to them
+        Set<IClassTypeSymbol> classes = new LinkedHashSet<>();
+        Map<String, ISymbol> sortedSymbols = new TreeMap<>(builtInSymbols);
+        for (Map.Entry<String, ISymbol> entry : sortedSymbols.entrySet()) {
+            if (entry.getValue() instanceof IClassTypeSymbol) {
+                classKeys.put((IClassTypeSymbol) entry.getValue(), entry.getKey());
+            }
+        }
+        for (ISymbol symbol : sortedSymbols.values()) {
+            if (symbol instanceof IClassTypeSymbol) {
+                addParentsFirst(classes, (IClassTypeSymbol) symbol);
+            }
+        }
+
+        out.writeShort(builtInSymbols.size());
+        for (IClassTypeSymbol classTypeSymbol : classes) {
+            writeClass(classTypeSymbol);
+        }
+        for (Map.Entry<String, ISymbol> entry : sortedSymbols.entrySet()) {
+            ISymbol symbol = entry.getValue();
+            if (symbol instanceof IMinimalMethodSymbol) {
+                out.writeByte(KIND_FUNCTION);
+                writeString(entry.getKey());
+                writeString(symbol.getName());
+                writeOverloads(((IMinimalMethodSymbol) symbol).getOverloads());
+            } else if (symbol instanceof IVariableSymbol) {
+                out.writeByte(KIND_CONSTANT);
+                writeString(entry.getKey());
+                writeString(symbol.getName());
+                writeType(symbol.getType(), null);
+            } else if (!(symbol instanceof IClassTypeSymbol)) {
+                throw new IllegalArgumentException("built-in symbol " + entry.getKey() + " is not supported.");
+            }
+        }
+    }
+
+    private void addParentsFirst(Set<IClassTypeSymbol> classes, IClassTypeSymbol classTypeSymbol) {
+        IClassTypeSymbol parent = classTypeSymbol.getParent();
+        if (parent != null) {
+            addParentsFirst(classes, parent);
+        }
+        classes.add(classTypeSymbol);
+    }
+
+    private void writeClass(IClassTypeSymbol classTypeSymbol) throws IOException {
+        out.writeByte(KIND_CLASS);
+        writeString(getClassKey(classTypeSymbol));
+        writeString(classTypeSymbol.getName());
+        IClassTypeSymbol parent = classTypeSymbol.getParent();
+        writeString(parent != null ? getClassKey(parent) : "");
+
+        List<IMethodSymbol> methods = new ArrayList<>();
+        for (List<ISymbol> symbols : new TreeMap<>(classTypeSymbol.getSymbols()).values()) {
+            for (ISymbol symbol : symbols) {
+                if (!(symbol instanceof IMethodSymbol)) {
+                    throw new IllegalArgumentException("member " + symbol.getName() + " of built-in class "
+                            + classTypeSymbol.getAbsoluteName() + " is not supported.");
+                }
+                methods.add((IMethodSymbol) symbol);
+            }
+        }
+        out.writeShort(methods.size());
+        for (IMethodSymbol method : methods) {
+            writeString(method.getName());
+            writeType(method.getType(), null);
+        }
+    }
+
+    private String getClassKey(ITypeSymbol classTypeSymbol) {
+        String key = classKeys.get(classTypeSymbol);
+        if (key == null) {
+            throw new IllegalArgumentException("class " + classTypeSymbol.getAbsoluteName()
+                    + " is not a built-in symbol.");
+        }
+        return key;
+    }
+
+    private void writeOperators(Map<Integer, IMinimalMethodSymbol> operators) throws IOException {
+        out.writeShort(operators.size());
+        for (Map.Entry<Integer, IMinimalMethodSymbol> entry : new TreeMap<>(operators).entrySet()) {
+            out.writeShort(entry.getKey());
+            writeString(entry.getValue().getName());
+            writeOverloads(entry.getValue().getOverloads());
+        }
+    }
+
+    private void writeOverloads(Collection<IFunctionType> overloads) throws IOException {
+        out.writeShort(overloads.size());
+        for (IFunctionType overload : overloads) {
+            writeFunctionType(overload);
+        }
+    }
+
+    private void writeFunctionType(IFunctionType function) throws IOException {
+        //a function type which is an overload of several symbols is written only once
+        Integer index = writtenFunctions.get(function);
+        if (index != null) {
+            out.writeByte(FUNCTION_REFERENCE);
+            out.writeShort(index);
+            return;
+        }
+        out.writeByte(FUNCTION_DEFINITION);
+        writtenFunctions.put(function, writtenFunctions.size());
+
+        IBindingCollection bindingCollection = function.getBindingCollection();
+        writeString(function.getName());
+
+        List<IVariable> parameters = function.getParameters();
+        out.writeByte(parameters.size());
+        for (IVariable parameter : parameters) {
+            writeVariable(parameter);
+        }
+
+        Set<String> boundTypeVariables = new LinkedHashSet<>();
+        List<String> typeVariables = new ArrayList<>();
+        for (String typeVariable : collectTypeVariables(bindingCollection)) {
+            typeVariables.add(typeVariable);
+            if (bindingCollection.hasUpperTypeBounds(typeVariable)) {
+                collectBoundConvertibles(boundTypeVariables, bindingCollection.getUpperTypeBounds(typeVariable));
+            }
+            if (bindingCollection.hasLowerTypeBounds(typeVariable)) {
+                collectBoundConvertibles(boundTypeVariables, bindingCollection.getLowerTypeBounds(typeVariable));
+            }
+        }
+
+        Set<String> variableIds = new TreeSet<>(bindingCollection.getVariableIds());
+        out.writeByte(variableIds.size());
+        for (String variableId : variableIds) {
+            ITypeVariableReference reference = bindingCollection.getTypeVariableReference(variableId);
+            writeString(variableId);
+            writeString(reference.getTypeVariable());
+            out.writeBoolean(reference.hasFixedType());
+        }
+
+        //bound convertible types need to be bound before any bound is added
+        out.writeByte(boundTypeVariables.size());
+        for (String typeVariable : boundTypeVariables) {
+            writeString(typeVariable);
+        }
+
+        out.writeByte(typeVariables.size());
+        for (String typeVariable : typeVariables) {
+            writeString(typeVariable);
+            writeBounds(bindingCollection.hasUpperTypeBounds(typeVariable)
+                    ? bindingCollection.getUpperTypeBounds(typeVariable) : null, boundTypeVariables);
+            writeBounds(bindingCollection.hasLowerTypeBounds(typeVariable)
+                    ? bindingCollection.getLowerTypeBounds(typeVariable) : null, boundTypeVariables);
+            if (bindingCollection.hasLowerRefBounds(typeVariable)) {
+                Set<String> refBounds = new TreeSet<>(bindingCollection.getLowerRefBounds(typeVariable));
+                out.writeByte(refBounds.size());
+                for (String refBound : refBounds) {
+                    writeString(refBound);
+                }
+            } else {
+                out.writeByte(0);
+            }
+        }
+
+        Set<String> nonFixedTypeParameters = function.getNonFixedTypeParameters();
+        out.writeByte(nonFixedTypeParameters.size());
+        for (String typeParameter : new TreeSet<>(nonFixedTypeParameters)) {
+            writeString(typeParameter);
+        }
+        out.writeBoolean(function.hasConvertibleParameterTypes());
+    }
+
+    private Set<String> collectTypeVariables(IBindingCollection bindingCollection) {
+        Set<String> typeVariables = new TreeSet<>();
+        for (String variableId : bindingCollection.getVariableIds()) {
+            typeVariables.add(bindingCollection.getTypeVariable(variableId));
+        }
+        return typeVariables;
+    }
+
+    private void collectBoundConvertibles(Set<String> boundTypeVariables, IContainerTypeSymbol container) {
+        for (ITypeSymbol typeSymbol : container.getTypeSymbols().values()) {
+            if (typeSymbol instanceof IConvertibleTypeSymbol && ((IConvertibleTypeSymbol) typeSymbol).wasBound()) {
+                boundTypeVariables.add(((IConvertibleTypeSymbol) typeSymbol).getTypeVariable());
+            } else if (typeSymbol instanceof IContainerTypeSymbol) {
+                collectBoundConvertibles(boundTypeVariables, (IContainerTypeSymbol) typeSymbol);
+            }
+        }
+    }
+
+    private void writeBounds(IContainerTypeSymbol bounds, Set<String> boundTypeVariables) throws IOException {
+        if (bounds == null) {
+            out.writeByte(0);
+        } else {
+            Collection<ITypeSymbol> typeSymbols = bounds.getTypeSymbols().values();
+            out.writeByte(typeSymbols.size());
+            for (ITypeSymbol typeSymbol : typeSymbols) {
+                writeType(typeSymbol, boundTypeVariables);
+            }
+        }
+    }
+
+    private void writeType(ITypeSymbol typeSymbol, Set<String> boundTypeVariables) throws IOException {
+        Integer index = writtenTypes.get(typeSymbol);
+        if (index != null) {
+            out.writeByte(TYPE_REFERENCE);
+            out.writeShort(index);
+            return;
+        }
+
+        boolean isShareable = true;
+        if (primitiveTypeNames.containsKey(typeSymbol)) {
+            out.writeByte(TYPE_PRIMITIVE);
+            writeString(primitiveTypeNames.get(typeSymbol));
+        } else if (typeSymbol instanceof IConvertibleTypeSymbol) {
+            IConvertibleTypeSymbol convertibleTypeSymbol = (IConvertibleTypeSymbol) typeSymbol;
+            if (convertibleTypeSymbol.wasBound()) {
+                if (boundTypeVariables == null
+                        || !boundTypeVariables.contains(convertibleTypeSymbol.getTypeVariable())) {
+                    throw new IllegalArgumentException("bound convertible type " + typeSymbol.getAbsoluteName()
+                            + " outside of a function type is not supported.");
+                }
+                isShareable = false;
+                out.writeByte(TYPE_BOUND_CONVERTIBLE);
+                writeString(convertibleTypeSymbol.getTypeVariable());
+            } else {
+                out.writeByte(TYPE_CONVERTIBLE);
+                writeBounds(convertibleTypeSymbol.hasLowerTypeBounds()
+                        ? convertibleTypeSymbol.getLowerTypeBounds() : null, boundTypeVariables);
+                writeBounds(convertibleTypeSymbol.hasUpperTypeBounds()
+                        ? convertibleTypeSymbol.getUpperTypeBounds() : null, boundTypeVariables);
+            }
+        } else if (typeSymbol instanceof IUnionTypeSymbol || typeSymbol instanceof IIntersectionTypeSymbol) {
+            IContainerTypeSymbol container = (IContainerTypeSymbol) typeSymbol;
+            isShareable = !containsBoundConvertible(container);
+            out.writeByte(typeSymbol instanceof IUnionTypeSymbol ? TYPE_UNION : TYPE_INTERSECTION);
+            writeBounds(container, boundTypeVariables);
+        } else if (typeSymbol instanceof IClassTypeSymbol) {
+            out.writeByte(TYPE_CLASS);
+            writeString(getClassKey(typeSymbol));
+        } else {
+            throw new IllegalArgumentException("type " + typeSymbol.getAbsoluteName() + " is not supported.");
+        }
+
+        if (isShareable) {
+            writtenTypes.put(typeSymbol, writtenTypes.size());
+        }
+    }
+
+    private boolean containsBoundConvertible(IContainerTypeSymbol container) {
+        Set<String> boundTypeVariables = new LinkedHashSet<>();
+        collectBoundConvertibles(boundTypeVariables, container);
+        return !boundTypeVariables.isEmpty();
+    }
+
+    private void writeString(String string) throws IOException {
+        Integer index = writtenStrings.get(string);
+        if (index != null) {
+            out.writeShort(index);
+        } else {
+            out.writeShort(NEW_STRING);
+            out.writeUTF(string);
+            writtenStrings.put(string, writtenStrings.size());
+        }
+    }
+
+    private void writeVariable(IVariable variable) throws IOException {
+        Integer index = writtenVariables.get(variable);
+        if (index != null) {
+            out.writeByte(VARIABLE_REFERENCE);
+            out.writeShort(index);
+        } else {
+            out.writeByte(VARIABLE_DEFINITION);
+            writeString(variable.getAbsoluteName());
+            writtenVariables.put(variable, writtenVariables.size());
+        }
+    }
+
+    /**
+     * Writes the snapshot of the hard-coded core to the file given as first argument. The second argument is the
+     * fully qualified name of the {@link ISymbolsInitialiser} which shall be used during the creation.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("usage: CoreSnapshotWriter <output file> <symbols initialiser class>");
+        }
+
+        ISymbolsInitialiser symbolsInitialiser
+                = (ISymbolsInitialiser) Class.forName(args[1]).getConstructor().newInstance();
+        IAstHelper astHelper = new AstHelper(new TSPHPAstAdaptor());
+        ISymbolFactory symbolFactory = symbolsInitialiser.getSymbolFactory();
+        ITypeHelper typeHelper = symbolsInitialiser.getTypeHelper();
+
+        Map<String, ITypeSymbol> primitiveTypes = new PrimitiveTypesProvider(symbolFactory).getTypes();
+        symbolFactory.setMixedTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.MIXED));
+        IConversionsProvider conversionsProvider = new ConversionsProvider(primitiveTypes);
+        typeHelper.setConversionsProvider(conversionsProvider);
+        StandardConstraintAndVariables std = new StandardConstraintAndVariables(symbolFactory, primitiveTypes);
+        Map<String, ISymbol> builtInSymbols = new BuiltInSymbolsProvider(
+                new GeneratorHelper(astHelper, symbolFactory, primitiveTypes), symbolFactory, typeHelper, std)
+                .getSymbols();
+        Map<Integer, IMinimalMethodSymbol> operators = new OperatorProvider(
+                symbolFactory, typeHelper, std, builtInSymbols).getOperators();
+
+        File file = new File(args[0]);
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("could not create " + parent);
+        }
+        OutputStream outputStream = new FileOutputStream(file);
+        try {
+            new CoreSnapshotWriter(primitiveTypes).write(outputStream, conversionsProvider, builtInSymbols, operators);
+        } finally {
+            outputStream.close();
+        }
+    }
+}
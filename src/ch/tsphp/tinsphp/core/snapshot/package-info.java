@@ -0,0 +1,11 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+/**
+ * Contains the writer and reader of the binary core snapshot which is created by the snapshot target of the build
+ * and replayed at start up.
+ */
+package ch.tsphp.tinsphp.core.snapshot;
@@ -7,10 +7,12 @@
 package ch.tsphp.tinsphp.core.test.integration;
 
 import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
 import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
 import ch.tsphp.tinsphp.common.utils.ITypeHelper;
 import ch.tsphp.tinsphp.core.IGeneratorHelper;
 import ch.tsphp.tinsphp.core.ISymbolProvider;
+import ch.tsphp.tinsphp.core.LazyMap;
 import ch.tsphp.tinsphp.core.StandardConstraintAndVariables;
 import ch.tsphp.tinsphp.core.gen.BuiltInSymbolsProvider;
 import ch.tsphp.tinsphp.core.test.integration.testutils.ATest;
@@ -41,6 +43,31 @@ public class BuiltInSymbolsProviderTest extends ATest
         assertThat(result2.size(), is(backup.size()));
     }
 
+    @Test
+    public void getSymbols_ContainsKey_DoesNotDefineFunction() {
+        //no arrange necessary
+
+        ISymbolProvider provider = createBuiltInSymbolsProvider();
+        Map<String, ISymbol> symbols = provider.getSymbols();
+        boolean result = symbols.containsKey("\\strlen()");
+
+        assertThat(result, is(true));
+        assertThat(((LazyMap<String, ISymbol>) symbols).isInitialised("\\strlen()"), is(false));
+    }
+
+    @Test
+    public void getSymbols_GetFunction_DefinesOnlyThisFunction() {
+        //no arrange necessary
+
+        ISymbolProvider provider = createBuiltInSymbolsProvider();
+        Map<String, ISymbol> symbols = provider.getSymbols();
+        IMinimalMethodSymbol result = (IMinimalMethodSymbol) symbols.get("\\abs()");
+
+        assertThat(result.getOverloads().size(), is(4));
+        assertThat(((LazyMap<String, ISymbol>) symbols).isInitialised("\\abs()"), is(true));
+        assertThat(((LazyMap<String, ISymbol>) symbols).isInitialised("\\substr()"), is(false));
+    }
+
     private BuiltInSymbolsProvider createBuiltInSymbolsProvider() {
         return createBuiltInSymbolsProvider(
                 createGenerator(astHelper, symbolFactory, primitiveTypes),
@@ -9,7 +9,9 @@ package ch.tsphp.tinsphp.core.test.integration;
 import ch.tsphp.common.symbols.ITypeSymbol;
 import ch.tsphp.tinsphp.common.IConversionMethod;
 import ch.tsphp.tinsphp.common.core.IConversionsProvider;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
 import ch.tsphp.tinsphp.common.utils.Pair;
+import ch.tsphp.tinsphp.core.ConversionsProvider;
 import ch.tsphp.tinsphp.core.test.integration.testutils.ATest;
 import org.junit.Test;
 
@@ -20,6 +22,8 @@ import static org.hamcrest.CoreMatchers.everyItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIn.isIn;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
 
 public class ConversionsProviderTest extends ATest
 {
@@ -72,6 +76,83 @@ public class ConversionsProviderTest extends ATest
         assertThat(result2.size(), is(backup.size()));
     }
 
+    @Test
+    public void getImplicitConversions_GivenCastings_UsesThoseInsteadOfHardCoded() {
+        ITypeSymbol intType = primitiveTypes.get(PrimitiveTypeNames.INT);
+        ITypeSymbol stringType = primitiveTypes.get(PrimitiveTypeNames.STRING);
+        ITypeSymbol[][] castings = new ITypeSymbol[][]{{intType, stringType}};
+
+        IConversionsProvider provider = new ConversionsProvider(primitiveTypes, castings, new ITypeSymbol[0][]);
+        Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> result = provider.getImplicitConversions();
+
+        assertThat(result.size(), is(1));
+        assertThat(result.get(PrimitiveTypeNames.INT).get(PrimitiveTypeNames.STRING).first, is(stringType));
+        assertThat(provider.getExplicitConversions().size(), is(0));
+    }
+
+    @Test
+    public void getImplicitConversion_IntToFloat_ReturnsConversionToFloat() {
+        ITypeSymbol intType = primitiveTypes.get(PrimitiveTypeNames.INT);
+        ITypeSymbol floatType = primitiveTypes.get(PrimitiveTypeNames.FLOAT);
+
+        ConversionsProvider provider = new ConversionsProvider(primitiveTypes);
+        Pair<ITypeSymbol, IConversionMethod> result = provider.getImplicitConversion(intType, floatType);
+
+        assertThat(result.first, is(floatType));
+        assertThat(provider.getImplicitConversion(floatType, intType), is(nullValue()));
+    }
+
+    @Test
+    public void getExplicitConversion_ByOrdinals_SameAsByTypes() {
+        ITypeSymbol stringType = primitiveTypes.get(PrimitiveTypeNames.STRING);
+        ITypeSymbol numType = primitiveTypes.get(PrimitiveTypeNames.NUM);
+
+        ConversionsProvider provider = new ConversionsProvider(primitiveTypes);
+        Pair<ITypeSymbol, IConversionMethod> result = provider.getExplicitConversion(
+                provider.getOrdinal(stringType), provider.getOrdinal(numType));
+
+        assertThat(result, is(provider.getExplicitConversion(stringType, numType)));
+        assertThat(result.first, is(numType));
+    }
+
+    @Test
+    public void getExplicitConversion_NonConvertibleType_ReturnsNull() {
+        ITypeSymbol intType = primitiveTypes.get(PrimitiveTypeNames.INT);
+        ITypeSymbol typeSymbol = symbolFactory.createConvertibleTypeSymbol();
+
+        ConversionsProvider provider = new ConversionsProvider(primitiveTypes);
+        Pair<ITypeSymbol, IConversionMethod> result = provider.getExplicitConversion(typeSymbol, intType);
+
+        assertThat(provider.getOrdinal(typeSymbol), is(ConversionsProvider.NOT_CONVERTIBLE_TYPE));
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void getExplicitConversions_Standard_SameAsTable() {
+        //no arrange necessary
+
+        ConversionsProvider provider = new ConversionsProvider(primitiveTypes);
+        Map<String, Map<String, Pair<ITypeSymbol, IConversionMethod>>> result = provider.getExplicitConversions();
+
+        int numberOfConversions = 0;
+        for (int from = 0; from < provider.getNumberOfTypes(); ++from) {
+            for (int to = 0; to < provider.getNumberOfTypes(); ++to) {
+                Pair<ITypeSymbol, IConversionMethod> conversion = provider.getExplicitConversion(from, to);
+                if (conversion != null) {
+                    ++numberOfConversions;
+                    String fromName = provider.getTypeSymbol(from).getAbsoluteName();
+                    String toName = provider.getTypeSymbol(to).getAbsoluteName();
+                    assertThat(result.get(fromName).get(toName), is(sameInstance(conversion)));
+                }
+            }
+        }
+        int numberOfEntries = 0;
+        for (Map<String, Pair<ITypeSymbol, IConversionMethod>> conversions : result.values()) {
+            numberOfEntries += conversions.size();
+        }
+        assertThat(numberOfEntries, is(numberOfConversions));
+    }
+
     private IConversionsProvider createConversionsProvider() {
         return createConversionsProvider(primitiveTypes);
     }
@@ -0,0 +1,222 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
+import ch.tsphp.tinsphp.common.symbols.IUnionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.common.utils.ERelation;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+import ch.tsphp.tinsphp.core.ConversionsProvider;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.CoreTypeRelations;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class CoreTypeRelationsTest
+{
+    private HardCodedSymbolsInitialiser symbolsInitialiser;
+    private Map<String, ITypeSymbol> primitiveTypes;
+    private CoreTypeRelations typeRelations;
+
+    @Before
+    public void setUp() {
+        symbolsInitialiser = new HardCodedSymbolsInitialiser();
+        Core core = (Core) new HardCodedCoreInitialiser(new AstHelper(new TSPHPAstAdaptor()), symbolsInitialiser)
+                .getCore();
+        primitiveTypes = core.getPrimitiveTypes();
+        typeRelations = core.getTypeRelations();
+    }
+
+    @Test
+    public void getOrdinal_PrimitiveTypesAndBuiltInClasses_AreCoreTypes() {
+        //no arrange necessary
+
+        //no act necessary
+
+        for (ITypeSymbol typeSymbol : primitiveTypes.values()) {
+            int ordinal = typeRelations.getOrdinal(typeSymbol);
+            assertThat(typeSymbol.getAbsoluteName(), ordinal, is(not(CoreTypeRelations.NOT_A_CORE_TYPE)));
+            assertThat(typeRelations.getTypeSymbol(ordinal), is(typeSymbol));
+        }
+        assertThat(getOrdinal("Exception"), is(not(CoreTypeRelations.NOT_A_CORE_TYPE)));
+        assertThat(getOrdinal("ErrorException"), is(not(CoreTypeRelations.NOT_A_CORE_TYPE)));
+    }
+
+    @Test
+    public void getOrdinal_ConvertibleTypes_SameOrdinalAsInConversionsProvider() {
+        ConversionsProvider conversionsProvider = typeRelations.getConversionsProvider();
+
+        //no act necessary
+
+        for (int i = 0; i < conversionsProvider.getNumberOfTypes(); ++i) {
+            ITypeSymbol typeSymbol = conversionsProvider.getTypeSymbol(i);
+            assertThat(typeSymbol.getAbsoluteName(), typeRelations.getOrdinal(typeSymbol), is(i));
+        }
+        for (ITypeSymbol typeSymbol : primitiveTypes.values()) {
+            assertThat(typeSymbol.getAbsoluteName(), conversionsProvider.getOrdinal(typeSymbol),
+                    is(typeRelations.getOrdinal(typeSymbol)));
+        }
+    }
+
+    @Test
+    public void getOrdinal_StructurallyEqualUnion_ReturnsOrdinalOfCoreType() {
+        IUnionTypeSymbol unionTypeSymbol = getSymbolFactory().createUnionTypeSymbol();
+        unionTypeSymbol.addTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.FLOAT));
+        unionTypeSymbol.addTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.INT));
+
+        int result = typeRelations.getOrdinal(unionTypeSymbol);
+
+        assertThat(result, is(typeRelations.getOrdinal(primitiveTypes.get(PrimitiveTypeNames.NUM))));
+    }
+
+    @Test
+    public void getOrdinal_NonCoreType_ReturnsNotACoreType() {
+        IUnionTypeSymbol unionTypeSymbol = getSymbolFactory().createUnionTypeSymbol();
+        unionTypeSymbol.addTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.ARRAY));
+        unionTypeSymbol.addTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.RESOURCE));
+
+        int result = typeRelations.getOrdinal(unionTypeSymbol);
+
+        assertThat(result, is(CoreTypeRelations.NOT_A_CORE_TYPE));
+    }
+
+    @Test
+    public void isSameOrSubType_AllCoreTypes_AgreesWithTypeHelper() {
+        ITypeHelper typeHelper = symbolsInitialiser.getTypeHelper();
+
+        //no act necessary
+
+        for (int i = 0; i < typeRelations.size(); ++i) {
+            for (int j = 0; j < typeRelations.size(); ++j) {
+                ITypeSymbol first = typeRelations.getTypeSymbol(i);
+                ITypeSymbol second = typeRelations.getTypeSymbol(j);
+                ERelation relation = typeHelper.isFirstSameOrSubTypeOfSecond(first, second, false).relation;
+                assertThat(first.getAbsoluteName() + " <: " + second.getAbsoluteName(),
+                        typeRelations.isSameOrSubType(i, j), is(i == j || relation == ERelation.HAS_RELATION));
+            }
+        }
+    }
+
+    @Test
+    public void isSameOrSubType_ErrorExceptionAndException_IsTransitiveUpToMixed() {
+        int errorException = getOrdinal("ErrorException");
+        int exception = getOrdinal("Exception");
+        int mixed = getOrdinal(PrimitiveTypeNames.MIXED);
+
+        //no act necessary
+
+        assertThat(typeRelations.isSameOrSubType(errorException, exception), is(true));
+        assertThat(typeRelations.isSameOrSubType(errorException, mixed), is(true));
+        assertThat(typeRelations.isSameOrSubType(exception, errorException), is(false));
+    }
+
+    @Test
+    public void hasImplicitConversion_IntToFloat_ReturnsTrue() {
+        int intOrdinal = getOrdinal(PrimitiveTypeNames.INT);
+        int floatOrdinal = getOrdinal(PrimitiveTypeNames.FLOAT);
+
+        boolean result = typeRelations.hasImplicitConversion(intOrdinal, floatOrdinal);
+
+        assertThat(result, is(true));
+        assertThat(typeRelations.hasImplicitConversion(floatOrdinal, intOrdinal), is(false));
+    }
+
+    @Test
+    public void hasExplicitConversion_StringToNumAndNumToString_OnlyStringToNum() {
+        int stringOrdinal = getOrdinal(PrimitiveTypeNames.STRING);
+        int numOrdinal = typeRelations.getOrdinal(primitiveTypes.get(PrimitiveTypeNames.NUM));
+
+        boolean result = typeRelations.hasExplicitConversion(stringOrdinal, numOrdinal);
+
+        assertThat(result, is(true));
+        assertThat(typeRelations.hasExplicitConversion(numOrdinal, stringOrdinal), is(false));
+    }
+
+    @Test
+    public void getConversionCost_SubType_ReturnsZero() {
+        int intOrdinal = getOrdinal(PrimitiveTypeNames.INT);
+        int numOrdinal = typeRelations.getOrdinal(primitiveTypes.get(PrimitiveTypeNames.NUM));
+
+        int result = typeRelations.getConversionCost(intOrdinal, numOrdinal);
+
+        assertThat(result, is(0));
+    }
+
+    @Test
+    public void getConversionCost_IntToFloat_ReturnsImplicitCost() {
+        int intOrdinal = getOrdinal(PrimitiveTypeNames.INT);
+        int floatOrdinal = getOrdinal(PrimitiveTypeNames.FLOAT);
+
+        int result = typeRelations.getConversionCost(intOrdinal, floatOrdinal);
+
+        assertThat(result, is(CoreTypeRelations.IMPLICIT_CONVERSION_COST));
+        assertThat(typeRelations.getConversionStep(intOrdinal, floatOrdinal), is(floatOrdinal));
+    }
+
+    @Test
+    public void getConversionCost_FalseTypeToNum_ExplicitToIntFollowedBySubtype() {
+        int falseOrdinal = getOrdinal(PrimitiveTypeNames.FALSE_TYPE);
+        int intOrdinal = getOrdinal(PrimitiveTypeNames.INT);
+        int numOrdinal = typeRelations.getOrdinal(primitiveTypes.get(PrimitiveTypeNames.NUM));
+
+        int result = typeRelations.getConversionCost(falseOrdinal, numOrdinal);
+
+        assertThat(result, is(CoreTypeRelations.EXPLICIT_CONVERSION_COST));
+        assertThat(typeRelations.getConversionStep(falseOrdinal, numOrdinal), is(intOrdinal));
+        assertThat(typeRelations.getConversionStep(intOrdinal, numOrdinal), is(numOrdinal));
+    }
+
+    @Test
+    public void getConversionCost_NullTypeToFloat_ExplicitToIntFollowedByImplicitToFloat() {
+        int nullOrdinal = getOrdinal(PrimitiveTypeNames.NULL_TYPE);
+        int intOrdinal = getOrdinal(PrimitiveTypeNames.INT);
+        int floatOrdinal = getOrdinal(PrimitiveTypeNames.FLOAT);
+
+        int result = typeRelations.getConversionCost(nullOrdinal, floatOrdinal);
+
+        assertThat(result,
+                is(CoreTypeRelations.EXPLICIT_CONVERSION_COST + CoreTypeRelations.IMPLICIT_CONVERSION_COST));
+        assertThat(typeRelations.getConversionStep(nullOrdinal, floatOrdinal), is(intOrdinal));
+    }
+
+    @Test
+    public void getConversionCost_MixedToResource_ReturnsNoConversion() {
+        int mixedOrdinal = getOrdinal(PrimitiveTypeNames.MIXED);
+        int resourceOrdinal = getOrdinal(PrimitiveTypeNames.RESOURCE);
+
+        int result = typeRelations.getConversionCost(mixedOrdinal, resourceOrdinal);
+
+        assertThat(result, is(CoreTypeRelations.NO_CONVERSION));
+        assertThat(typeRelations.getConversionStep(mixedOrdinal, resourceOrdinal),
+                is(CoreTypeRelations.NOT_A_CORE_TYPE));
+    }
+
+    private int getOrdinal(String name) {
+        for (int i = 0; i < typeRelations.size(); ++i) {
+            if (typeRelations.getTypeSymbol(i).getAbsoluteName().equals(name)) {
+                return i;
+            }
+        }
+        return CoreTypeRelations.NOT_A_CORE_TYPE;
+    }
+
+    private ISymbolFactory getSymbolFactory() {
+        return symbolsInitialiser.getSymbolFactory();
+    }
+}
@@ -22,6 +22,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsEmptyCollection.empty;
 import static org.hamcrest.collection.IsIterableContainingInAnyOrder.containsInAnyOrder;
 import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -185,6 +186,18 @@ public class GeneratorHelperTest extends ATest
                 containsInAnyOrder("nullType", "trueType", "falseType", "int", "float", "string", "array", "resource"));
     }
 
+    @Test
+    public void createUnionTypeSymbolFromPrimitive_SameTypesTwice_ReturnsSameInstance() {
+        IGeneratorHelper helper = createGenerator();
+
+        IUnionTypeSymbol result1 = helper.createUnionTypeSymbolFromPrimitives(
+                PrimitiveTypeNames.STRING, PrimitiveTypeNames.NULL_TYPE);
+        IUnionTypeSymbol result2 = helper.createUnionTypeSymbolFromPrimitives(
+                PrimitiveTypeNames.NULL_TYPE, PrimitiveTypeNames.STRING);
+
+        assertThat(result1, sameInstance(result2));
+    }
+
     private IGeneratorHelper createGenerator() {
         return createGenerator(astHelper, symbolFactory, primitiveTypes);
     }
@@ -0,0 +1,143 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.GroundOverload;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class GroundOverloadTest
+{
+    private Core core;
+
+    @Before
+    public void setUp() {
+        core = (Core) new HardCodedCoreInitialiser(
+                new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser()).getCore();
+    }
+
+    @Test
+    public void getGroundOverloads_Plus_ReturnsFixedOverloadsWithTheirBounds() {
+        //no arrange necessary
+
+        List<GroundOverload> result = core.getGroundOverloads(TokenTypes.Plus);
+
+        assertThat(result.size(), is(3));
+        GroundOverload intOverload = result.get(0);
+        assertThat(intOverload.overload.getSignature(), is("int x int -> int"));
+        assertThat(intOverload.getNumberOfParameters(), is(2));
+        assertThat(intOverload.getParameterUpperBound(0).getAbsoluteName(), is("int"));
+        assertThat(intOverload.getParameterUpperBound(1).getAbsoluteName(), is("int"));
+        assertThat(intOverload.returnLowerBound.getAbsoluteName(), is("int"));
+    }
+
+    @Test
+    public void getGroundOverloads_Plus_SkipsOverloadsWithNonFixedTypeParameters() {
+        //no arrange necessary
+
+        List<GroundOverload> result = core.getGroundOverloads(TokenTypes.Plus);
+
+        int numberOfNonGround = 0;
+        for (IFunctionType overload : core.getOperator(TokenTypes.Plus).getOverloads()) {
+            if (!GroundOverload.isGround(overload)) {
+                ++numberOfNonGround;
+            }
+        }
+        assertThat(numberOfNonGround > 0, is(true));
+        assertThat(result.size() + numberOfNonGround, is(core.getOperator(TokenTypes.Plus).getOverloads().size()));
+        for (GroundOverload groundOverload : result) {
+            assertThat(groundOverload.overload.getNonFixedTypeParameters().isEmpty(), is(true));
+        }
+    }
+
+    @Test
+    public void getGroundOverloads_CalledTwice_ReturnsSameList() {
+        //no arrange necessary
+
+        List<GroundOverload> result1 = core.getGroundOverloads(TokenTypes.Dot);
+        List<GroundOverload> result2 = core.getGroundOverloads(TokenTypes.Dot);
+
+        assertThat(result1, is(sameInstance(result2)));
+    }
+
+    @Test
+    public void getGroundOverloads_NotAnOperator_ReturnsNull() {
+        //no arrange necessary
+
+        List<GroundOverload> result = core.getGroundOverloads(TokenTypes.Identifier);
+
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void getGroundOverloads_BuiltInFunction_ReturnsFixedOverloadsWithTheirBounds() {
+        //no arrange necessary
+
+        List<GroundOverload> result = core.getGroundOverloads("\\abs()");
+
+        assertThat(result.size(), is(3));
+        GroundOverload intOverload = result.get(0);
+        assertThat(intOverload.overload.getSignature(), is("int -> int"));
+        assertThat(intOverload.getNumberOfParameters(), is(1));
+        assertThat(intOverload.getParameterUpperBound(0).getAbsoluteName(), is("int"));
+        assertThat(intOverload.returnLowerBound.getAbsoluteName(), is("int"));
+    }
+
+    @Test
+    public void getGroundOverloads_BuiltInFunctionCalledTwice_ReturnsSameList() {
+        //no arrange necessary
+
+        List<GroundOverload> result1 = core.getGroundOverloads("\\strlen()");
+        List<GroundOverload> result2 = core.getGroundOverloads("\\strlen()");
+
+        assertThat(result1, is(sameInstance(result2)));
+    }
+
+    @Test
+    public void getGroundOverloads_Constant_ReturnsNull() {
+        //no arrange necessary
+
+        List<GroundOverload> result = core.getGroundOverloads("\\E_ALL#");
+
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void getGroundOverloads_UnknownFunction_ReturnsNull() {
+        //no arrange necessary
+
+        List<GroundOverload> result = core.getGroundOverloads("\\nonExisting()");
+
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_NonGroundOverload_ThrowsIllegalArgumentException() {
+        IFunctionType nonGround = null;
+        for (IFunctionType overload : core.getOperator(TokenTypes.PRE_INCREMENT).getOverloads()) {
+            if (!overload.getNonFixedTypeParameters().isEmpty()) {
+                nonGround = overload;
+            }
+        }
+
+        new GroundOverload(nonGround);
+    }
+}
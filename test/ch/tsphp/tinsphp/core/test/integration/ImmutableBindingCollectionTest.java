@@ -0,0 +1,145 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.FixedTypeVariableReference;
+import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.inference.constraints.IVariable;
+import ch.tsphp.tinsphp.common.inference.constraints.TypeVariableReference;
+import ch.tsphp.tinsphp.common.symbols.IConvertibleTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.common.symbols.IParametricTypeSymbol;
+import ch.tsphp.tinsphp.core.ImmutableBindingCollection;
+import ch.tsphp.tinsphp.core.test.integration.testutils.AOperatorProviderTest;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static ch.tsphp.tinsphp.common.TinsPHPConstants.RETURN_VARIABLE_NAME;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_EXPR;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_LHS;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_RETURN;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.VAR_LHS;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.VAR_RHS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ImmutableBindingCollectionTest extends AOperatorProviderTest
+{
+    @Test
+    public void copyOf_VariablesAndBounds_AreCopied() {
+        IBindingCollection source = symbolFactory.createBindingCollection();
+        source.addVariable("$lhs", new FixedTypeVariableReference(new TypeVariableReference("Tlhs")));
+        source.addVariable("$rhs", new TypeVariableReference("Trhs"));
+        source.addVariable(RETURN_VARIABLE_NAME, new TypeVariableReference("Tlhs"));
+        source.addUpperTypeBound("Tlhs", std.numTypeSymbol);
+        source.addLowerTypeBound("Tlhs", std.intTypeSymbol);
+        source.addLowerRefBound("Tlhs", new TypeVariableReference("Trhs"));
+
+        IBindingCollection result = freeze(source);
+
+        assertThat(result.getVariableIds(), containsInAnyOrder("$lhs", "$rhs", RETURN_VARIABLE_NAME));
+        assertThat(result.getVariableIds("Tlhs"), containsInAnyOrder("$lhs", RETURN_VARIABLE_NAME));
+        assertThat(result.getTypeVariable("$rhs"), is("Trhs"));
+        assertThat(result.getTypeVariableReference("$lhs").hasFixedType(), is(true));
+        assertThat(result.getUpperTypeBounds("Tlhs"), is(sameInstance(source.getUpperTypeBounds("Tlhs"))));
+        assertThat(result.getLowerTypeBounds("Tlhs"), is(sameInstance(source.getLowerTypeBounds("Tlhs"))));
+        assertThat(result.getLowerRefBounds("Tlhs"), containsInAnyOrder("Trhs"));
+        assertThat(result.getUpperRefBounds("Trhs"), containsInAnyOrder("Tlhs"));
+        assertThat(result.hasLowerBounds("Tunknown"), is(false));
+        assertThat(result.getLowerBoundConstraintIds("Tlhs"), is(source.getLowerBoundConstraintIds("Tlhs")));
+        assertThat(result.getTypeVariableReference("$unknown"), is(nullValue()));
+    }
+
+    @Test
+    public void copyOf_BoundConvertibleType_IsReboundToCopy() {
+        IBindingCollection source = symbolFactory.createBindingCollection();
+        source.addVariable("$expr", new FixedTypeVariableReference(new TypeVariableReference("Texpr")));
+        source.addVariable(RETURN_VARIABLE_NAME, new TypeVariableReference("T"));
+        IConvertibleTypeSymbol asT = symbolFactory.createConvertibleTypeSymbol();
+        source.bind(asT, Arrays.asList("T"));
+        source.addUpperTypeBound("Texpr", asT);
+        source.addUpperTypeBound("T", std.numTypeSymbol);
+
+        IBindingCollection result = freeze(source);
+
+        assertThat(asT.getBindingCollection(), is(sameInstance(result)));
+        assertThat(asT.getUpperTypeBounds(), is(sameInstance(result.getUpperTypeBounds("T"))));
+    }
+
+    @Test
+    public void copyOf_WithParameters_LooksUpBoundsById() {
+        IBindingCollection source = symbolFactory.createBindingCollection();
+        source.addVariable(VAR_LHS, new FixedTypeVariableReference(new TypeVariableReference(T_LHS)));
+        source.addVariable(VAR_RHS, new FixedTypeVariableReference(new TypeVariableReference("Tfoo")));
+        source.addVariable(RETURN_VARIABLE_NAME, new FixedTypeVariableReference(new TypeVariableReference(T_RETURN)));
+        source.addUpperTypeBound("Tfoo", std.intTypeSymbol);
+        source.addLowerTypeBound(T_RETURN, std.floatTypeSymbol);
+
+        ImmutableBindingCollection result
+                = ImmutableBindingCollection.copyOf(source, std.binaryParameterIds, std.variableIdPool);
+
+        assertThat(result.getNumberOfParameters(), is(2));
+        assertThat(result.getParameterTypeVariableId(0), is(std.variableIdPool.getId(T_LHS)));
+        assertThat(result.getParameterTypeVariableId(1), is(std.variableIdPool.getId("Tfoo")));
+        assertThat(result.getReturnTypeVariableId(), is(std.variableIdPool.getId(T_RETURN)));
+        assertThat(result.hasUpperTypeBounds(std.variableIdPool.getId(T_LHS)), is(false));
+        assertThat(result.getUpperTypeBounds(result.getParameterTypeVariableId(1)),
+                is(sameInstance(result.getUpperTypeBounds("Tfoo"))));
+        assertThat(result.getLowerTypeBounds(std.variableIdPool.getId(T_RETURN)),
+                is(sameInstance(result.getLowerTypeBounds(T_RETURN))));
+        assertThat(result.getLowerTypeBounds(std.variableIdPool.getId(T_EXPR)), is(nullValue()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void copyOf_ParameterNotInCollection_ThrowsIllegalArgumentException() {
+        IBindingCollection source = symbolFactory.createBindingCollection();
+        source.addVariable(VAR_LHS, new TypeVariableReference(T_LHS));
+
+        ImmutableBindingCollection.copyOf(source, std.binaryParameterIds, std.variableIdPool);
+
+        //assert in annotation
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addLowerTypeBound_CopiedCollection_ThrowsUnsupportedOperationException() {
+        IBindingCollection source = symbolFactory.createBindingCollection();
+        source.addVariable("$expr", new TypeVariableReference("T"));
+        IBindingCollection collection = freeze(source);
+
+        collection.addLowerTypeBound("T", std.intTypeSymbol);
+
+        //assert in annotation
+    }
+
+    @Test
+    public void getOverloads_Operators_UseImmutableBindingCollections() {
+        //no arrange necessary
+
+        Map<Integer, IMinimalMethodSymbol> operators = createOperatorProvider().getOperators();
+
+        for (IFunctionType overload : operators.get(TokenTypes.Plus).getOverloads()) {
+            assertThat(overload.getBindingCollection(), instanceOf(ImmutableBindingCollection.class));
+        }
+        IFunctionType assign = operators.get(TokenTypes.Assign).getOverloads().iterator().next();
+        IFunctionType copy = assign.copy(new ArrayList<IParametricTypeSymbol>());
+        assertThat(copy.getSignature(), is("Tlhs x Trhs -> Tlhs \\ Trhs <: Tlhs"));
+    }
+
+    private ImmutableBindingCollection freeze(IBindingCollection source) {
+        return ImmutableBindingCollection.copyOf(source, Collections.<IVariable>emptyList(), std.variableIdPool);
+    }
+}
@@ -6,16 +6,24 @@
 
 package ch.tsphp.tinsphp.core.test.integration;
 
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
 import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
 import ch.tsphp.tinsphp.core.IOperatorsProvider;
+import ch.tsphp.tinsphp.core.LazyMap;
 import ch.tsphp.tinsphp.core.test.integration.testutils.AOperatorProviderTest;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.everyItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIn.isIn;
 
@@ -34,4 +42,78 @@ public class OperatorProviderTest extends AOperatorProviderTest
         assertThat(result2.entrySet(), everyItem(isIn(backup.entrySet())));
         assertThat(result2.size(), is(backup.size()));
     }
+
+    @Test
+    public void getOperators_GetSingleOperator_DefinesOnlyThisOperator() {
+        //no arrange necessary
+
+        IOperatorsProvider provider = createOperatorProvider();
+        Map<Integer, IMinimalMethodSymbol> operators = provider.getOperators();
+        IMinimalMethodSymbol result = operators.get(TokenTypes.Plus);
+
+        assertThat(result.getOverloads().size(), is(4));
+        LazyMap<Integer, IMinimalMethodSymbol> lazyMap = (LazyMap<Integer, IMinimalMethodSymbol>) operators;
+        assertThat(lazyMap.isInitialised(TokenTypes.Plus), is(true));
+        assertThat(lazyMap.isInitialised(TokenTypes.Minus), is(false));
+        assertThat(lazyMap.isInitialised(TokenTypes.PlusAssign), is(false));
+    }
+
+    @Test
+    public void getOperators_DefinedInReverseOrder_SameSignaturesAsIteration() {
+        //no arrange necessary
+
+        Map<Integer, IMinimalMethodSymbol> expected = createOperatorProvider().getOperators();
+        Map<Integer, IMinimalMethodSymbol> result = createOperatorProvider().getOperators();
+        List<Integer> operatorTypes = new ArrayList<>(result.keySet());
+        Collections.sort(operatorTypes, Collections.reverseOrder());
+        for (Integer operatorType : operatorTypes) {
+            result.get(operatorType);
+        }
+
+        assertThat(result.size(), is(expected.size()));
+        for (Map.Entry<Integer, IMinimalMethodSymbol> entry : expected.entrySet()) {
+            assertThat(getSignatures(result.get(entry.getKey())), is(getSignatures(entry.getValue())));
+        }
+    }
+
+    @Test
+    public void getOperators_ComparisonOperators_ShareBindingCollectionButKeepTheirNames() {
+        //no arrange necessary
+
+        Map<Integer, IMinimalMethodSymbol> operators = createOperatorProvider().getOperators();
+        IFunctionType equal = operators.get(TokenTypes.Equal).getOverloads().iterator().next();
+        IFunctionType greaterThan = operators.get(TokenTypes.GreaterThan).getOverloads().iterator().next();
+        IFunctionType instanceOf = operators.get(TokenTypes.Instanceof).getOverloads().iterator().next();
+
+        assertThat(equal.getBindingCollection(), sameInstance(greaterThan.getBindingCollection()));
+        assertThat(equal.getBindingCollection(), sameInstance(instanceOf.getBindingCollection()));
+        assertThat(equal.getName(), is("=="));
+        assertThat(greaterThan.getName(), is(">"));
+        assertThat(instanceOf.getName(), is("instanceof"));
+    }
+
+    @Test
+    public void getOperators_OperatorWithSameSignaturesDefinedFirst_OverloadsKeepTheirNames() {
+        Map<Integer, IMinimalMethodSymbol> operators = createOperatorProvider().getOperators();
+        operators.get(TokenTypes.BitwiseAndAssign).getOverloads();
+        operators.get(TokenTypes.LogicXorWeak).getOverloads();
+
+        Collection<IFunctionType> plusAssign = operators.get(TokenTypes.PlusAssign).getOverloads();
+        Collection<IFunctionType> orWeak = operators.get(TokenTypes.LogicOrWeak).getOverloads();
+
+        for (IFunctionType overload : plusAssign) {
+            assertThat(overload.getSignature(), overload.getName(), is("+="));
+        }
+        for (IFunctionType overload : orWeak) {
+            assertThat(overload.getSignature(), overload.getName(), is("or"));
+        }
+    }
+
+    private List<String> getSignatures(IMinimalMethodSymbol methodSymbol) {
+        List<String> signatures = new ArrayList<>();
+        for (IFunctionType overload : methodSymbol.getOverloads()) {
+            signatures.add(overload.getSignature());
+        }
+        return signatures;
+    }
 }
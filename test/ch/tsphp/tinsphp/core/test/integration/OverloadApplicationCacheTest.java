@@ -0,0 +1,197 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.symbols.IUnionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.core.ApplicableOverloadsDto;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.OverloadApplicationCache;
+import ch.tsphp.tinsphp.core.config.ParallelCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class OverloadApplicationCacheTest
+{
+    private Core core;
+    private HardCodedSymbolsInitialiser symbolsInitialiser;
+    private Map<String, ITypeSymbol> primitiveTypes;
+
+    @Before
+    public void setUp() {
+        symbolsInitialiser = new HardCodedSymbolsInitialiser();
+        //the parallel initialiser defines all operators up front
+        core = (Core) new ParallelCoreInitialiser(new AstHelper(new TSPHPAstAdaptor()), symbolsInitialiser).getCore();
+        primitiveTypes = core.getPrimitiveTypes();
+    }
+
+    @Test
+    public void getApplicableOverloads_PlusIntInt_ReturnsExactBeforeConvertingOverload() {
+        ITypeSymbol intType = primitiveTypes.get(PrimitiveTypeNames.INT);
+
+        ApplicableOverloadsDto result = createCache().getApplicableOverloads(TokenTypes.Plus, intType, intType);
+
+        assertThat(getSignatures(result.overloads), contains("int x int -> int", "float x float -> float"));
+        assertThat(result.returnType.getAbsoluteName(), is("int"));
+        assertThat(result.hasNonFixedOverloads, is(true));
+    }
+
+    @Test
+    public void getApplicableOverloads_DotStringString_ReturnsBothOverloads() {
+        ITypeSymbol stringType = primitiveTypes.get(PrimitiveTypeNames.STRING);
+
+        ApplicableOverloadsDto result = createCache().getApplicableOverloads(TokenTypes.Dot, stringType, stringType);
+
+        assertThat(getSignatures(result.overloads), contains(
+                "string x string -> string", "{as string} x {as string} -> string"));
+        assertThat(result.returnType.getAbsoluteName(), is("string"));
+        assertThat(result.hasNonFixedOverloads, is(false));
+    }
+
+    @Test
+    public void getApplicableOverloads_PlusArrayInt_ReturnsNoOverloads() {
+        ITypeSymbol arrayType = primitiveTypes.get(PrimitiveTypeNames.ARRAY);
+        ITypeSymbol intType = primitiveTypes.get(PrimitiveTypeNames.INT);
+
+        ApplicableOverloadsDto result = createCache().getApplicableOverloads(TokenTypes.Plus, arrayType, intType);
+
+        assertThat(result.overloads, is(empty()));
+        assertThat(result.returnType, is(nullValue()));
+    }
+
+    @Test
+    public void getApplicableOverloads_SecondCall_ReturnsCachedResult() {
+        ITypeSymbol intType = primitiveTypes.get(PrimitiveTypeNames.INT);
+        OverloadApplicationCache cache = createCache();
+
+        ApplicableOverloadsDto result1 = cache.getApplicableOverloads(TokenTypes.Minus, intType, intType);
+        ApplicableOverloadsDto result2 = cache.getApplicableOverloads(TokenTypes.Minus, intType, intType);
+
+        assertThat(result1, sameInstance(result2));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void getApplicableOverloads_DistinctTypesWithSameName_CachedSeparately() {
+        IUnionTypeSymbol numType1 = createNumUnion();
+        IUnionTypeSymbol numType2 = createNumUnion();
+        OverloadApplicationCache cache = createCache();
+
+        ApplicableOverloadsDto result1 = cache.getApplicableOverloads(TokenTypes.Minus, numType1, numType1);
+        ApplicableOverloadsDto result2 = cache.getApplicableOverloads(TokenTypes.Minus, numType2, numType2);
+
+        assertThat(result1, not(sameInstance(result2)));
+        assertThat(getSignatures(result2.overloads), is(getSignatures(result1.overloads)));
+        assertThat(cache.size(), is(2));
+    }
+
+    @Test
+    public void getApplicableOverloads_NotAnOperator_ReturnsNull() {
+        ITypeSymbol intType = primitiveTypes.get(PrimitiveTypeNames.INT);
+
+        ApplicableOverloadsDto result = createCache().getApplicableOverloads(TokenTypes.Identifier, intType);
+
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void getApplicableOverloads_MoreEntriesThanMaximumSize_EvictsEntries() {
+        OverloadApplicationCache cache = createCache(16);
+        String[] typeNames = {
+                PrimitiveTypeNames.NULL_TYPE, PrimitiveTypeNames.BOOL, PrimitiveTypeNames.INT,
+                PrimitiveTypeNames.FLOAT, PrimitiveTypeNames.STRING, PrimitiveTypeNames.ARRAY
+        };
+
+        for (String left : typeNames) {
+            for (String right : typeNames) {
+                cache.getApplicableOverloads(TokenTypes.Plus, primitiveTypes.get(left), primitiveTypes.get(right));
+            }
+        }
+
+        assertThat(cache.size(), lessThanOrEqualTo(16));
+    }
+
+    @Test
+    public void getApplicableOverloads_ConcurrentCalls_AllGetSameOverloads() throws Exception {
+        final OverloadApplicationCache cache = createCache();
+        final ITypeSymbol floatType = primitiveTypes.get(PrimitiveTypeNames.FLOAT);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<ApplicableOverloadsDto>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 64; ++i) {
+                futures.add(executorService.submit(new Callable<ApplicableOverloadsDto>()
+                {
+                    @Override
+                    public ApplicableOverloadsDto call() {
+                        return cache.getApplicableOverloads(TokenTypes.Multiply, floatType, floatType);
+                    }
+                }));
+            }
+            for (Future<ApplicableOverloadsDto> future : futures) {
+                assertThat(getSignatures(future.get().overloads), contains("float x float -> float"));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_MaximumSizeSmallerThanNumberOfSegments_ThrowsIllegalArgumentException() {
+        //no arrange necessary
+
+        createCache(15);
+
+        //assert in annotation
+    }
+
+    private IUnionTypeSymbol createNumUnion() {
+        IUnionTypeSymbol unionTypeSymbol = symbolsInitialiser.getSymbolFactory().createUnionTypeSymbol();
+        unionTypeSymbol.addTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.INT));
+        unionTypeSymbol.addTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.FLOAT));
+        return unionTypeSymbol;
+    }
+
+    private OverloadApplicationCache createCache() {
+        return new OverloadApplicationCache(core, symbolsInitialiser.getTypeHelper());
+    }
+
+    private OverloadApplicationCache createCache(int maximumSize) {
+        return new OverloadApplicationCache(core, symbolsInitialiser.getTypeHelper(), maximumSize);
+    }
+
+    private List<String> getSignatures(List<IFunctionType> overloads) {
+        List<String> signatures = new ArrayList<>();
+        for (IFunctionType overload : overloads) {
+            signatures.add(overload.getSignature());
+        }
+        return signatures;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.EArgumentKind;
+import ch.tsphp.tinsphp.core.OverloadDispatchIndex;
+import ch.tsphp.tinsphp.core.test.integration.testutils.AOperatorProviderTest;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class OverloadDispatchIndexTest extends AOperatorProviderTest
+{
+    @Test
+    public void getCandidates_PlusAndInt_ReturnsNumericOverloadsOnly() {
+        //no arrange necessary
+
+        OverloadDispatchIndex index = createCore().getDispatchIndex(TokenTypes.Plus);
+        List<IFunctionType> result = index.getCandidates(std.intTypeSymbol);
+
+        assertThat(getSignatures(result), contains(
+                "int x int -> int",
+                "float x float -> float",
+                "{as T} x {as T} -> T \\ T <: (float | int)"));
+    }
+
+    @Test
+    public void getCandidates_PlusAndArray_ReturnsArrayOverloadOnly() {
+        //no arrange necessary
+
+        OverloadDispatchIndex index = createCore().getDispatchIndex(TokenTypes.Plus);
+        List<IFunctionType> result = index.getCandidates(EArgumentKind.ARRAY);
+
+        assertThat(getSignatures(result), contains("array x array -> array"));
+    }
+
+    @Test
+    public void getCandidates_BitwiseOrAndString_ReturnsConvertibleAndStringOverload() {
+        //no arrange necessary
+
+        OverloadDispatchIndex index = createCore().getDispatchIndex(TokenTypes.BitwiseOr);
+        List<IFunctionType> result = index.getCandidates(std.stringTypeSymbol);
+
+        assertThat(getSignatures(result), contains(
+                "(array | {as int}) x (array | {as int}) -> int",
+                "string x string -> string"));
+    }
+
+    @Test
+    public void getCandidates_LogicNotAndFalse_ReturnsBothOverloads() {
+        //no arrange necessary
+
+        OverloadDispatchIndex index = createCore().getDispatchIndex(TokenTypes.LogicNot);
+        List<IFunctionType> result = index.getCandidates(std.falseTypeSymbol);
+
+        assertThat(result, is(index.getOverloads()));
+    }
+
+    @Test
+    public void getCandidates_Mixed_ReturnsAllOverloads() {
+        //no arrange necessary
+
+        OverloadDispatchIndex index = createCore().getDispatchIndex(TokenTypes.Plus);
+        List<IFunctionType> result = index.getCandidates(std.mixedTypeSymbol);
+
+        assertThat(result.size(), is(4));
+        assertThat(result, is(index.getOverloads()));
+    }
+
+    @Test
+    public void getKind_VariousTypes_ReturnsCorrespondingKind() {
+        //no arrange necessary
+
+        OverloadDispatchIndex index = createCore().getDispatchIndex(TokenTypes.Plus);
+
+        assertThat(index.getKind(std.nullTypeSymbol), is(EArgumentKind.NULL));
+        assertThat(index.getKind(std.trueTypeSymbol), is(EArgumentKind.BOOL));
+        assertThat(index.getKind(std.boolTypeSymbol), is(EArgumentKind.BOOL));
+        assertThat(index.getKind(std.floatTypeSymbol), is(EArgumentKind.FLOAT));
+        assertThat(index.getKind(std.numTypeSymbol), is(EArgumentKind.MIXED));
+        assertThat(index.getKind(std.asIntTypeSymbol), is(EArgumentKind.MIXED));
+        assertThat(index.getKind(std.mixedTypeSymbol), is(EArgumentKind.MIXED));
+        assertThat(index.getKind(null), is(EArgumentKind.MIXED));
+    }
+
+    @Test
+    public void getDispatchIndex_SecondCall_ReturnsSameIndex() {
+        Core core = createCore();
+
+        OverloadDispatchIndex result1 = core.getDispatchIndex(TokenTypes.Minus);
+        OverloadDispatchIndex result2 = core.getDispatchIndex(TokenTypes.Minus);
+
+        assertThat(result1, sameInstance(result2));
+    }
+
+    @Test
+    public void getDispatchIndex_NotAnOperator_ReturnsNull() {
+        //no arrange necessary
+
+        OverloadDispatchIndex result = createCore().getDispatchIndex(TokenTypes.Identifier);
+
+        assertThat(result, is(nullValue()));
+    }
+
+    private List<String> getSignatures(List<IFunctionType> overloads) {
+        List<String> signatures = new ArrayList<>();
+        for (IFunctionType overload : overloads) {
+            signatures.add(overload.getSignature());
+        }
+        return signatures;
+    }
+}
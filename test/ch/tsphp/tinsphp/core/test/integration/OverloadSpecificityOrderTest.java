@@ -0,0 +1,120 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.core.OverloadSpecificityOrder;
+import ch.tsphp.tinsphp.core.test.integration.testutils.AOperatorProviderTest;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class OverloadSpecificityOrderTest extends AOperatorProviderTest
+{
+    @Test
+    public void getSpecificityOrder_Divide_FloatDominatesMixedConvertibleOverloads() {
+        //no arrange necessary
+
+        OverloadSpecificityOrder result = createCore().getSpecificityOrder(TokenTypes.Divide);
+
+        assertThat(getSignatures(result.getOverloads()), contains(
+                "int x int -> (falseType | float | int)",
+                "float x float -> (falseType | float)",
+                "float x {as (float | int)} -> (falseType | float)",
+                "{as (float | int)} x float -> (falseType | float)",
+                "{as (float | int)} x {as (float | int)} -> (falseType | float | int)"));
+        assertThat(result.dominates(1, 2), is(true));
+        assertThat(result.dominates(1, 3), is(true));
+        assertThat(result.dominates(1, 4), is(true));
+        assertThat(result.dominates(2, 4), is(true));
+        assertThat(result.dominates(0, 1), is(false));
+        assertThat(result.dominates(2, 3), is(false));
+        assertThat(result.dominates(4, 1), is(false));
+    }
+
+    @Test
+    public void getSpecificityOrder_PreIncrement_UnboundedOverloadComesLast() {
+        //no arrange necessary
+
+        OverloadSpecificityOrder result = createCore().getSpecificityOrder(TokenTypes.PRE_INCREMENT);
+
+        List<String> signatures = getSignatures(result.getOverloads());
+        assertThat(signatures.get(4), is("T -> T \\ (int | nullType) <: T <: (int | nullType)"));
+        assertThat(signatures.get(5), is("T -> T"));
+        for (int i = 0; i < 5; ++i) {
+            assertThat(result.dominates(i, 5), is(true));
+        }
+    }
+
+    @Test
+    public void excludeDominated_PlusInt_ExcludesConvertibleOverload() {
+        OverloadSpecificityOrder order = createCore().getSpecificityOrder(TokenTypes.Plus);
+        BitSet excluded = new BitSet();
+
+        order.excludeDominated(0, excluded);
+
+        assertThat(excluded.cardinality(), is(1));
+        assertThat(order.getOverloads().get(excluded.nextSetBit(0)).getSignature(),
+                is("{as T} x {as T} -> T \\ T <: (float | int)"));
+    }
+
+    @Test
+    public void getSpecificityOrder_NotAnOperator_ReturnsNull() {
+        //no arrange necessary
+
+        OverloadSpecificityOrder result = createCore().getSpecificityOrder(TokenTypes.Identifier);
+
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void getSpecificityOrder_Abs_IntAndFloatDominateConvertibleOverload() {
+        //no arrange necessary
+
+        OverloadSpecificityOrder result = createCore().getSpecificityOrder("\\abs()");
+
+        assertThat(result.size(), is(4));
+        assertThat(result.getOverloads().get(0).getSignature(), is("int -> int"));
+        assertThat(result.dominates(0, 2), is(true));
+        assertThat(result.dominates(1, 2), is(true));
+        assertThat(result.dominates(0, 1), is(false));
+    }
+
+    @Test
+    public void getSpecificityOrder_Constant_ReturnsNull() {
+        //no arrange necessary
+
+        OverloadSpecificityOrder result = createCore().getSpecificityOrder("\\E_ALL#");
+
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void getSpecificityOrder_NotABuiltInSymbol_ReturnsNull() {
+        //no arrange necessary
+
+        OverloadSpecificityOrder result = createCore().getSpecificityOrder("\\nonExisting()");
+
+        assertThat(result, is(nullValue()));
+    }
+
+    private List<String> getSignatures(List<IFunctionType> overloads) {
+        List<String> signatures = new ArrayList<>();
+        for (IFunctionType overload : overloads) {
+            signatures.add(overload.getSignature());
+        }
+        return signatures;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.OverloadTiers;
+import ch.tsphp.tinsphp.core.test.integration.testutils.AOperatorProviderTest;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class OverloadTiersTest extends AOperatorProviderTest
+{
+    @Test
+    public void getOverloadTiers_Divide_SplitsExactAndConvertibleOverloads() {
+        //no arrange necessary
+
+        OverloadTiers result = createCore().getOverloadTiers(TokenTypes.Divide);
+
+        assertThat(getSignatures(result.getExactOverloads()), contains(
+                "int x int -> (falseType | float | int)",
+                "float x float -> (falseType | float)"));
+        assertThat(getSignatures(result.getConvertibleOverloads()), contains(
+                "float x {as (float | int)} -> (falseType | float)",
+                "{as (float | int)} x float -> (falseType | float)",
+                "{as (float | int)} x {as (float | int)} -> (falseType | float | int)"));
+        assertThat(result.size(), is(5));
+    }
+
+    @Test
+    public void getOverloadTiers_PreIncrement_AllOverloadsAreExact() {
+        Core core = createCore();
+
+        OverloadTiers result = core.getOverloadTiers(TokenTypes.PRE_INCREMENT);
+
+        assertThat(result.getConvertibleOverloads(), is(empty()));
+        assertThat(result.size(), is(core.getOperator(TokenTypes.PRE_INCREMENT).getOverloads().size()));
+    }
+
+    @Test
+    public void getOverloadTiers_CalledTwice_ReturnsSameInstance() {
+        Core core = createCore();
+
+        OverloadTiers result1 = core.getOverloadTiers(TokenTypes.Plus);
+        OverloadTiers result2 = core.getOverloadTiers(TokenTypes.Plus);
+
+        assertThat(result1, is(sameInstance(result2)));
+    }
+
+    @Test
+    public void getOverloadTiers_NotAnOperator_ReturnsNull() {
+        //no arrange necessary
+
+        OverloadTiers result = createCore().getOverloadTiers(TokenTypes.Identifier);
+
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void getOverloadTiers_Abs_ConvertibleOverloadIsInSecondTier() {
+        //no arrange necessary
+
+        OverloadTiers result = createCore().getOverloadTiers("\\abs()");
+
+        assertThat(result.getExactOverloads().size(), is(3));
+        assertThat(result.getExactOverloads().get(0).getSignature(), is("int -> int"));
+        assertThat(result.getConvertibleOverloads().size(), is(1));
+        assertThat(result.getConvertibleOverloads().get(0).hasConvertibleParameterTypes(), is(true));
+    }
+
+    @Test
+    public void getOverloadTiers_Constant_ReturnsNull() {
+        //no arrange necessary
+
+        OverloadTiers result = createCore().getOverloadTiers("\\E_ALL#");
+
+        assertThat(result, is(nullValue()));
+    }
+
+    private List<String> getSignatures(List<IFunctionType> overloads) {
+        List<String> signatures = new ArrayList<>();
+        for (IFunctionType overload : overloads) {
+            signatures.add(overload.getSignature());
+        }
+        return signatures;
+    }
+}
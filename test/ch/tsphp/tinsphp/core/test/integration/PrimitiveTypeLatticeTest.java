@@ -0,0 +1,170 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IArrayTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IIntersectionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
+import ch.tsphp.tinsphp.common.symbols.IUnionTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.common.utils.ERelation;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.PrimitiveTypeLattice;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static ch.tsphp.tinsphp.core.PrimitiveTypeLattice.ARRAY;
+import static ch.tsphp.tinsphp.core.PrimitiveTypeLattice.FALSE_TYPE;
+import static ch.tsphp.tinsphp.core.PrimitiveTypeLattice.FLOAT;
+import static ch.tsphp.tinsphp.core.PrimitiveTypeLattice.INT;
+import static ch.tsphp.tinsphp.core.PrimitiveTypeLattice.NOTHING;
+import static ch.tsphp.tinsphp.core.PrimitiveTypeLattice.NOT_PRIMITIVE;
+import static ch.tsphp.tinsphp.core.PrimitiveTypeLattice.NULL_TYPE;
+import static ch.tsphp.tinsphp.core.PrimitiveTypeLattice.RESOURCE;
+import static ch.tsphp.tinsphp.core.PrimitiveTypeLattice.STRING;
+import static ch.tsphp.tinsphp.core.PrimitiveTypeLattice.TRUE_TYPE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class PrimitiveTypeLatticeTest
+{
+    private static final String[] LEAVES = {
+            PrimitiveTypeNames.NULL_TYPE, PrimitiveTypeNames.FALSE_TYPE, PrimitiveTypeNames.TRUE_TYPE,
+            PrimitiveTypeNames.INT, PrimitiveTypeNames.FLOAT, PrimitiveTypeNames.STRING,
+            PrimitiveTypeNames.ARRAY, PrimitiveTypeNames.RESOURCE
+    };
+
+    private Core core;
+    private HardCodedSymbolsInitialiser symbolsInitialiser;
+    private Map<String, ITypeSymbol> primitiveTypes;
+    private PrimitiveTypeLattice lattice;
+
+    @Before
+    public void setUp() {
+        symbolsInitialiser = new HardCodedSymbolsInitialiser();
+        core = (Core) new HardCodedCoreInitialiser(new AstHelper(new TSPHPAstAdaptor()), symbolsInitialiser)
+                .getCore();
+        primitiveTypes = core.getPrimitiveTypes();
+        lattice = core.getPrimitiveTypeLattice();
+    }
+
+    @Test
+    public void getMask_Leaves_ReturnsTheirBit() {
+        //no arrange necessary
+
+        //no act necessary
+
+        assertThat(getMask(PrimitiveTypeNames.NULL_TYPE), is(NULL_TYPE));
+        assertThat(getMask(PrimitiveTypeNames.FALSE_TYPE), is(FALSE_TYPE));
+        assertThat(getMask(PrimitiveTypeNames.TRUE_TYPE), is(TRUE_TYPE));
+        assertThat(getMask(PrimitiveTypeNames.INT), is(INT));
+        assertThat(getMask(PrimitiveTypeNames.FLOAT), is(FLOAT));
+        assertThat(getMask(PrimitiveTypeNames.STRING), is(STRING));
+        assertThat(getMask(PrimitiveTypeNames.ARRAY), is(ARRAY));
+        assertThat(getMask(PrimitiveTypeNames.RESOURCE), is(RESOURCE));
+    }
+
+    @Test
+    public void getMask_PrimitiveUnions_ReturnsOrOfMembers() {
+        IArrayTypeSymbol arrayType = (IArrayTypeSymbol) primitiveTypes.get(PrimitiveTypeNames.ARRAY);
+
+        int keyMask = lattice.getMask(arrayType.getKeyTypeSymbol());
+
+        assertThat(getMask(PrimitiveTypeNames.BOOL), is(FALSE_TYPE | TRUE_TYPE));
+        assertThat(getMask(PrimitiveTypeNames.NUM), is(INT | FLOAT));
+        assertThat(getMask(PrimitiveTypeNames.SCALAR), is(FALSE_TYPE | TRUE_TYPE | INT | FLOAT | STRING));
+        assertThat(keyMask, is(INT | STRING));
+    }
+
+    @Test
+    public void getMask_EmptyUnion_ReturnsNothing() {
+        IUnionTypeSymbol unionTypeSymbol = getSymbolFactory().createUnionTypeSymbol();
+
+        int result = lattice.getMask(unionTypeSymbol);
+
+        assertThat(result, is(NOTHING));
+    }
+
+    @Test
+    public void getMask_IntersectionOfPrimitiveUnions_ReturnsAndOfMembers() {
+        IIntersectionTypeSymbol intersectionTypeSymbol = getSymbolFactory().createIntersectionTypeSymbol();
+        intersectionTypeSymbol.addTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.NUM));
+        intersectionTypeSymbol.addTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.SCALAR));
+
+        int result = lattice.getMask(intersectionTypeSymbol);
+
+        assertThat(result, is(INT | FLOAT));
+    }
+
+    @Test
+    public void getMask_NonPrimitiveTypes_ReturnsNotPrimitive() {
+        ISymbolFactory symbolFactory = getSymbolFactory();
+        IUnionTypeSymbol unionTypeSymbol = symbolFactory.createUnionTypeSymbol();
+        unionTypeSymbol.addTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.INT));
+        unionTypeSymbol.addTypeSymbol(symbolFactory.createConvertibleTypeSymbol());
+        IIntersectionTypeSymbol emptyIntersection = symbolFactory.createIntersectionTypeSymbol();
+
+        //no act necessary
+
+        assertThat(getMask(PrimitiveTypeNames.MIXED), is(NOT_PRIMITIVE));
+        assertThat(getMask(PrimitiveTypeNames.NOTHING), is(NOT_PRIMITIVE));
+        assertThat(lattice.getMask(unionTypeSymbol), is(NOT_PRIMITIVE));
+        assertThat(lattice.getMask(emptyIntersection), is(NOT_PRIMITIVE));
+    }
+
+    @Test
+    public void isSameOrSubMask_AllUnionsOfLeaves_AgreesWithTypeHelper() {
+        ITypeHelper typeHelper = symbolsInitialiser.getTypeHelper();
+        List<ITypeSymbol> types = new ArrayList<>();
+        for (int bits = 0; bits < 1 << LEAVES.length; ++bits) {
+            IUnionTypeSymbol unionTypeSymbol = getSymbolFactory().createUnionTypeSymbol();
+            for (int i = 0; i < LEAVES.length; ++i) {
+                if ((bits & (1 << i)) != 0) {
+                    unionTypeSymbol.addTypeSymbol(primitiveTypes.get(LEAVES[i]));
+                }
+            }
+            types.add(unionTypeSymbol);
+        }
+
+        for (ITypeSymbol first : types) {
+            for (ITypeSymbol second : types) {
+                boolean result = PrimitiveTypeLattice.isSameOrSubMask(lattice.getMask(first), lattice.getMask(second));
+
+                ERelation relation = typeHelper.isFirstSameOrSubTypeOfSecond(first, second, false).relation;
+                assertThat(first.getAbsoluteName() + " <: " + second.getAbsoluteName(),
+                        result, is(relation == ERelation.HAS_RELATION));
+            }
+        }
+    }
+
+    @Test
+    public void unionMask_IntAndFloat_ReturnsNumMask() {
+        //no arrange necessary
+
+        int result = PrimitiveTypeLattice.unionMask(INT, FLOAT);
+
+        assertThat(result, is(getMask(PrimitiveTypeNames.NUM)));
+    }
+
+    private int getMask(String primitiveTypeName) {
+        return lattice.getMask(primitiveTypes.get(primitiveTypeName));
+    }
+
+    private ISymbolFactory getSymbolFactory() {
+        return symbolsInitialiser.getSymbolFactory();
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.ICore;
+import ch.tsphp.tinsphp.common.core.IConversionsProvider;
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.core.BuiltInSuperGlobalSymbolsProvider;
+import ch.tsphp.tinsphp.core.ConversionsProvider;
+import ch.tsphp.tinsphp.core.GeneratorHelper;
+import ch.tsphp.tinsphp.core.ISymbolProvider;
+import ch.tsphp.tinsphp.core.OperatorProvider;
+import ch.tsphp.tinsphp.core.StandardConstraintAndVariables;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.core.gen.BuiltInSymbolsProvider;
+import ch.tsphp.tinsphp.core.test.integration.testutils.ATest;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ProviderConcurrentInitialisationTest extends ATest
+{
+    private static final int NUMBER_OF_THREADS = 64;
+    private static final int NUMBER_OF_THREADS_PER_ENTRY = 8;
+    private static final int ROUNDS = 50;
+
+    @Test
+    public void getters_ColdProvidersHitByManyThreads_AllThreadsSeeSameCompleteMaps() throws Exception {
+        final IConversionsProvider conversionsProvider = new ConversionsProvider(primitiveTypes);
+        StandardConstraintAndVariables std = new StandardConstraintAndVariables(symbolFactory, primitiveTypes);
+        final ISymbolProvider builtInSymbolsProvider = new BuiltInSymbolsProvider(
+                new GeneratorHelper(astHelper, symbolFactory, primitiveTypes), symbolFactory, typeHelper, std);
+        final ISymbolProvider superGlobalsProvider
+                = new BuiltInSuperGlobalSymbolsProvider(astHelper, symbolFactory, primitiveTypes);
+        final OperatorProvider operatorProvider = new OperatorProvider(symbolFactory, typeHelper, std, builtInSymbols);
+        final CyclicBarrier barrier = new CyclicBarrier(NUMBER_OF_THREADS);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        List<Future<Map<?, ?>[]>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < NUMBER_OF_THREADS; ++i) {
+                futures.add(executorService.submit(new Callable<Map<?, ?>[]>()
+                {
+                    @Override
+                    public Map<?, ?>[] call() throws Exception {
+                        barrier.await();
+                        return new Map<?, ?>[]{
+                                conversionsProvider.getImplicitConversions(),
+                                conversionsProvider.getExplicitConversions(),
+                                builtInSymbolsProvider.getSymbols(),
+                                superGlobalsProvider.getSymbols(),
+                                operatorProvider.getOperators()
+                        };
+                    }
+                }));
+            }
+
+            Map<?, ?>[] expected = futures.get(0).get();
+            for (Future<Map<?, ?>[]> future : futures) {
+                Map<?, ?>[] result = future.get();
+                for (int i = 0; i < expected.length; ++i) {
+                    assertThat(result[i], is(sameInstance((Object) expected[i])));
+                }
+            }
+            assertThat(expected[0].size(), is(1));
+            assertThat(expected[1].size(), is(9));
+            assertThat(expected[2].size(), is(builtInSymbols.size()));
+            assertThat(expected[4].size(), is(61));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void getSymbols_ColdProviderHitByManyThreads_SymbolsAreComplete() throws Exception {
+        final ISymbolProvider superGlobalsProvider
+                = new BuiltInSuperGlobalSymbolsProvider(astHelper, symbolFactory, primitiveTypes);
+        int expectedSize = new BuiltInSuperGlobalSymbolsProvider(astHelper, symbolFactory, primitiveTypes)
+                .getSymbols().size();
+        final CyclicBarrier barrier = new CyclicBarrier(NUMBER_OF_THREADS);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        List<Future<Map<String, ISymbol>>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < NUMBER_OF_THREADS; ++i) {
+                futures.add(executorService.submit(new Callable<Map<String, ISymbol>>()
+                {
+                    @Override
+                    public Map<String, ISymbol> call() throws Exception {
+                        barrier.await();
+                        return superGlobalsProvider.getSymbols();
+                    }
+                }));
+            }
+
+            for (Future<Map<String, ISymbol>> future : futures) {
+                Map<String, ISymbol> result = future.get();
+                assertThat(result.size(), is(expectedSize));
+                for (ISymbol symbol : result.values()) {
+                    ITypeSymbol typeSymbol = symbol.getType();
+                    assertThat(symbol.getName(), typeSymbol != null, is(true));
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void get_SameColdEntryHitByManyThreads_EntryIsDefinedOnce() throws Exception {
+        for (int round = 0; round < ROUNDS; ++round) {
+            StandardConstraintAndVariables std = new StandardConstraintAndVariables(symbolFactory, primitiveTypes);
+            final Map<String, ISymbol> symbols = new BuiltInSymbolsProvider(
+                    new GeneratorHelper(astHelper, symbolFactory, primitiveTypes), symbolFactory, typeHelper, std)
+                    .getSymbols();
+            final Map<Integer, IMinimalMethodSymbol> operators
+                    = new OperatorProvider(symbolFactory, typeHelper, std, symbols).getOperators();
+
+            List<Integer[]> results = runConcurrently(new Callable<Integer[]>()
+            {
+                @Override
+                public Integer[] call() throws Exception {
+                    return new Integer[]{
+                            operators.get(TokenTypes.Plus).getOverloads().size(),
+                            ((IMinimalMethodSymbol) symbols.get("\\abs()")).getOverloads().size()
+                    };
+                }
+            });
+
+            for (Integer[] result : results) {
+                assertThat(result[0], is(4));
+                assertThat(result[1], is(4));
+            }
+        }
+    }
+
+    @Test
+    public void getOperators_SameColdOperatorOfCoreHitByManyThreads_OperatorIsDefinedOnce() throws Exception {
+        for (int round = 0; round < ROUNDS; ++round) {
+            final ICore core = new HardCodedCoreInitialiser(astHelper, new HardCodedSymbolsInitialiser()).getCore();
+
+            List<Integer> results = runConcurrently(new Callable<Integer>()
+            {
+                @Override
+                public Integer call() throws Exception {
+                    return core.getOperators().get(TokenTypes.Plus).getOverloads().size();
+                }
+            });
+
+            for (Integer result : results) {
+                assertThat(result, is(4));
+            }
+        }
+    }
+
+    private <T> List<T> runConcurrently(final Callable<T> callable) throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(NUMBER_OF_THREADS_PER_ENTRY);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS_PER_ENTRY);
+        List<Future<T>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < NUMBER_OF_THREADS_PER_ENTRY; ++i) {
+                futures.add(executorService.submit(new Callable<T>()
+                {
+                    @Override
+                    public T call() throws Exception {
+                        barrier.await();
+                        return callable.call();
+                    }
+                }));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.core.SignatureInterpreter;
+import ch.tsphp.tinsphp.core.test.integration.testutils.ATest;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class SignatureInterpreterTest extends ATest
+{
+    @Test
+    public void getFunctionName_WithParameters_ReturnsNameOnly() {
+        //no arrange necessary
+
+        String result = createInterpreter().getFunctionName("substr($string, $start, $length)");
+
+        assertThat(result, is("substr"));
+    }
+
+    @Test
+    public void defineOverloads_UnaryAndBinary_UsesStandardParameters() {
+        IMinimalMethodSymbol methodSymbol = symbolFactory.createMinimalMethodSymbol("foo");
+
+        createInterpreter().defineOverloads(methodSymbol, new String[]{"foo", "int x {as string} -> bool"});
+        IMinimalMethodSymbol methodSymbol2 = symbolFactory.createMinimalMethodSymbol("bar");
+        createInterpreter().defineOverloads(methodSymbol2, new String[]{"bar", "~(array | {as int}) -> string"});
+
+        IFunctionType binary = methodSymbol.getOverloads().iterator().next();
+        assertThat(binary.getSignature(), is("int x {as string} -> (falseType | trueType)"));
+        assertThat(binary.getParameters(), is(std.binaryParameterIds));
+        assertThat(binary.hasConvertibleParameterTypes(), is(false));
+        IFunctionType unary = methodSymbol2.getOverloads().iterator().next();
+        assertThat(unary.getSignature(), is("(array | {as int}) -> string"));
+        assertThat(unary.getParameters(), is(std.unaryParameterId));
+        assertThat(unary.hasConvertibleParameterTypes(), is(true));
+    }
+
+    @Test
+    public void defineOverloads_NamedParameters_UsesNamesAndNumberedTypeVariables() {
+        IMinimalMethodSymbol methodSymbol = symbolFactory.createMinimalMethodSymbol("foo");
+
+        createInterpreter().defineOverloads(methodSymbol, new String[]{
+                "foo($a, $b, $c)", "string x int x T3 -> (falseType | string)"
+        });
+
+        IFunctionType function = methodSymbol.getOverloads().iterator().next();
+        assertThat(function.getSignature(), is("string x int x () -> (falseType | string)"));
+        assertThat(function.getParameters().get(0).getName(), is("$a"));
+        assertThat(function.getBindingCollection().getTypeVariable("$c"), is("T3"));
+    }
+
+    @Test
+    public void defineOverloads_TypeVariableAsReturnType_IsNonFixed() {
+        IMinimalMethodSymbol methodSymbol = symbolFactory.createMinimalMethodSymbol("foo");
+
+        createInterpreter().defineOverloads(methodSymbol, new String[]{
+                "foo", "~{as Treturn} -> Treturn \\ Treturn <: num", "float -> float"
+        });
+
+        List<IFunctionType> overloads = new ArrayList<>(methodSymbol.getOverloads());
+        assertThat(overloads.get(0).getSignature(), is("{as Treturn} -> Treturn \\ Treturn <: (float | int)"));
+        assertThat(overloads.get(0).getNonFixedTypeParameters(), contains("Treturn"));
+        assertThat(overloads.get(1).getSignature(), is("float -> float"));
+        assertThat(overloads.get(1).getNonFixedTypeParameters(), is(empty()));
+    }
+
+    @Test
+    public void defineOverloads_SameSignatureTwice_SharesBindingCollectionUnlessParametersDiffer() {
+        IMinimalMethodSymbol foo = symbolFactory.createMinimalMethodSymbol("foo");
+        IMinimalMethodSymbol bar = symbolFactory.createMinimalMethodSymbol("bar");
+        IMinimalMethodSymbol baz = symbolFactory.createMinimalMethodSymbol("baz");
+
+        SignatureInterpreter interpreter = createInterpreter();
+        interpreter.defineOverloads(foo, new String[]{"foo($a, $b, $c)", "string x int x int -> string"});
+        interpreter.defineOverloads(bar, new String[]{"bar($a, $b, $c)", "string x int x int -> string"});
+        interpreter.defineOverloads(baz, new String[]{"baz($x, $y, $z)", "string x int x int -> string"});
+
+        IFunctionType fooOverload = foo.getOverloads().iterator().next();
+        IFunctionType barOverload = bar.getOverloads().iterator().next();
+        IFunctionType bazOverload = baz.getOverloads().iterator().next();
+        assertThat(barOverload.getBindingCollection(), is(sameInstance(fooOverload.getBindingCollection())));
+        assertThat(barOverload.getName(), is("bar"));
+        assertThat(bazOverload.getBindingCollection(), is(not(sameInstance(fooOverload.getBindingCollection()))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void defineOverloads_UnknownType_ThrowsIllegalArgumentException() {
+        IMinimalMethodSymbol methodSymbol = symbolFactory.createMinimalMethodSymbol("foo");
+
+        createInterpreter().defineOverloads(methodSymbol, new String[]{"foo", "integer -> int"});
+
+        //assert in annotation
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void defineOverloads_ThreeParametersWithoutNames_ThrowsIllegalArgumentException() {
+        IMinimalMethodSymbol methodSymbol = symbolFactory.createMinimalMethodSymbol("foo");
+
+        createInterpreter().defineOverloads(methodSymbol, new String[]{"foo", "int x int x int -> int"});
+
+        //assert in annotation
+    }
+
+    private SignatureInterpreter createInterpreter() {
+        return new SignatureInterpreter(symbolFactory, typeHelper, std);
+    }
+}
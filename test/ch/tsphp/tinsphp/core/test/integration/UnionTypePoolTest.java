@@ -0,0 +1,105 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration;
+
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IArrayTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IUnionTypeSymbol;
+import ch.tsphp.tinsphp.core.UnionTypePool;
+import ch.tsphp.tinsphp.core.test.integration.testutils.ATest;
+import org.junit.Test;
+
+import static ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames.ARRAY;
+import static ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames.BOOL;
+import static ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames.FALSE_TYPE;
+import static ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames.FLOAT;
+import static ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames.INT;
+import static ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames.NULL_TYPE;
+import static ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames.NUM;
+import static ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames.STRING;
+import static ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames.TRUE_TYPE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class UnionTypePoolTest extends ATest
+{
+    @Test
+    public void getUnion_SameMembersInDifferentOrder_ReturnsSameInstance() {
+        UnionTypePool pool = createPool();
+
+        IUnionTypeSymbol result1 = pool.getUnion(getType(NULL_TYPE), getType(INT));
+        IUnionTypeSymbol result2 = pool.getUnion(getType(INT), getType(NULL_TYPE));
+
+        assertThat(result1, is(sameInstance(result2)));
+        assertThat(result1.getTypeSymbols().keySet(), containsInAnyOrder("nullType", "int"));
+    }
+
+    @Test
+    public void getUnion_EquivalentMembers_ReturnsSameInstance() {
+        UnionTypePool pool = createPool();
+
+        IUnionTypeSymbol result1 = pool.getUnion(getType(NUM), getType(FALSE_TYPE));
+        IUnionTypeSymbol result2 = pool.getUnion(getType(FALSE_TYPE), getType(INT), getType(FLOAT));
+
+        assertThat(result1, is(sameInstance(result2)));
+    }
+
+    @Test
+    public void getUnion_DifferentMembers_ReturnsDifferentInstances() {
+        UnionTypePool pool = createPool();
+
+        IUnionTypeSymbol result1 = pool.getUnion(getType(NULL_TYPE), getType(INT));
+        IUnionTypeSymbol result2 = pool.getUnion(getType(NULL_TYPE), getType(FLOAT));
+
+        assertThat(result1, is(not(sameInstance(result2))));
+    }
+
+    @Test
+    public void getUnion_MembersOfPrimitiveUnions_ReturnsPrimitiveUnion() {
+        UnionTypePool pool = createPool();
+
+        IUnionTypeSymbol bool = pool.getUnion(getType(TRUE_TYPE), getType(FALSE_TYPE));
+        IUnionTypeSymbol key = pool.getUnion(getType(STRING), getType(INT));
+
+        assertThat(bool, is(sameInstance(getType(BOOL))));
+        IArrayTypeSymbol arrayTypeSymbol = (IArrayTypeSymbol) getType(ARRAY);
+        assertThat(key, is(sameInstance(arrayTypeSymbol.getKeyTypeSymbol())));
+    }
+
+    @Test
+    public void intern_UnionWithSameMembersAsPooledOne_ReturnsPooledOne() {
+        UnionTypePool pool = createPool();
+        IUnionTypeSymbol pooled = pool.getUnion(getType(NULL_TYPE), getType(INT));
+        IUnionTypeSymbol unionTypeSymbol = symbolFactory.createUnionTypeSymbol();
+        unionTypeSymbol.addTypeSymbol(getType(INT));
+        unionTypeSymbol.addTypeSymbol(getType(NULL_TYPE));
+
+        IUnionTypeSymbol result = pool.intern(unionTypeSymbol);
+
+        assertThat(result, is(sameInstance(pooled)));
+    }
+
+    @Test
+    public void standardConstraintAndVariables_FalseUnions_ArePooled() {
+        //no arrange necessary
+
+        IUnionTypeSymbol result = std.unionTypePool.getUnion(std.falseTypeSymbol, std.intTypeSymbol);
+
+        assertThat(result, is(sameInstance(std.intOrFalse)));
+    }
+
+    private UnionTypePool createPool() {
+        return new UnionTypePool(symbolFactory, primitiveTypes);
+    }
+
+    private ITypeSymbol getType(String name) {
+        return primitiveTypes.get(name);
+    }
+}
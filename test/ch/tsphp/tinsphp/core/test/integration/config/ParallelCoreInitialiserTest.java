@@ -0,0 +1,110 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration.config;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.IAstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.ICore;
+import ch.tsphp.tinsphp.common.config.ICoreInitialiser;
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.core.config.ParallelCoreInitialiser;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+
+public class ParallelCoreInitialiserTest extends HardCodedInferenceInitialiserTest
+{
+    private static final String[] BUILT_IN_FUNCTIONS = new String[]{
+            "\\abs()", "\\array_merge()", "\\ceil()", "\\floor()", "\\str_replace()", "\\strlen()", "\\substr()"
+    };
+
+    @Test
+    public void getCore_RepeatedlyInParallel_OperatorsHaveSameSignaturesAsHardCodedCore() {
+        ICore expected = new HardCodedCoreInitialiser(
+                new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser()).getCore();
+
+        for (int i = 0; i < 20; ++i) {
+            ICore result = new ParallelCoreInitialiser(
+                    new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser(), 4).getCore();
+
+            assertThat(result.getOperators().keySet(), is(expected.getOperators().keySet()));
+            for (Map.Entry<Integer, IMinimalMethodSymbol> entry : expected.getOperators().entrySet()) {
+                assertThat(getSignatures(result.getOperators().get(entry.getKey())),
+                        is(getSignatures(entry.getValue())));
+            }
+        }
+    }
+
+    @Test
+    public void getCoreSymbolResolver_RepeatedlyInParallel_BuiltInsHaveSameSignaturesAsHardCodedCore() {
+        IAstHelper astHelper = new AstHelper(new TSPHPAstAdaptor());
+        ISymbolResolver expected = new HardCodedCoreInitialiser(
+                astHelper, new HardCodedSymbolsInitialiser()).getCoreSymbolResolver();
+
+        for (int i = 0; i < 20; ++i) {
+            ISymbolResolver result = new ParallelCoreInitialiser(
+                    astHelper, new HardCodedSymbolsInitialiser(), 4).getCoreSymbolResolver();
+
+            for (String name : BUILT_IN_FUNCTIONS) {
+                IMinimalMethodSymbol function = (IMinimalMethodSymbol) result.resolveAbsoluteIdentifier(
+                        astHelper.createAst(TokenTypes.Identifier, name));
+                IMinimalMethodSymbol expectedFunction = (IMinimalMethodSymbol) expected.resolveAbsoluteIdentifier(
+                        astHelper.createAst(TokenTypes.Identifier, name));
+                assertThat(name, getSignatures(function), is(getSignatures(expectedFunction)));
+            }
+            ISymbol errorException = result.resolveAbsoluteIdentifier(
+                    astHelper.createAst(TokenTypes.Identifier, "\\ErrorException"));
+            ISymbol exception = result.resolveAbsoluteIdentifier(
+                    astHelper.createAst(TokenTypes.Identifier, "\\Exception"));
+            assertThat(((ITypeSymbol) errorException).getParentTypeSymbols().contains(exception), is(true));
+        }
+    }
+
+    @Test
+    public void getPhaseTimes_Standard_ContainsAllPhases() {
+        //no arrange necessary
+
+        ParallelCoreInitialiser initialiser = new ParallelCoreInitialiser(
+                new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser(), 2);
+        Map<String, Long> result = initialiser.getPhaseTimes();
+
+        assertThat(result, hasKey(ParallelCoreInitialiser.PHASE_PRIMITIVE_TYPES));
+        assertThat(result, hasKey(ParallelCoreInitialiser.PHASE_BUILT_IN_CLASSES));
+        assertThat(result, hasKey(ParallelCoreInitialiser.PHASE_BUILT_IN_FUNCTIONS));
+        assertThat(result, hasKey(ParallelCoreInitialiser.PHASE_OPERATORS));
+        assertThat(result, hasKey(ParallelCoreInitialiser.PHASE_SUPER_GLOBALS));
+        assertThat(result, hasKey(ParallelCoreInitialiser.PHASE_CONCURRENT));
+        assertThat(result, hasKey(ParallelCoreInitialiser.PHASE_TOTAL));
+    }
+
+    @Override
+    protected ICoreInitialiser createInitialiser() {
+        return new ParallelCoreInitialiser(new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser());
+    }
+
+    private List<String> getSignatures(IMinimalMethodSymbol methodSymbol) {
+        List<String> signatures = new ArrayList<>();
+        for (IFunctionType overload : methodSymbol.getOverloads()) {
+            signatures.add(overload.getSignature());
+        }
+        return signatures;
+    }
+}
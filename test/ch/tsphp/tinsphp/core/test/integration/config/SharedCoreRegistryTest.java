@@ -0,0 +1,340 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration.config;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.IAstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.ICore;
+import ch.tsphp.tinsphp.common.config.ICoreInitialiser;
+import ch.tsphp.tinsphp.common.config.ISymbolsInitialiser;
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IBindingCollection;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.common.symbols.IParametricTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.IPolymorphicTypeSymbol;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.StandardConstraintAndVariables;
+import ch.tsphp.tinsphp.core.config.SharedCoreRegistry;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class SharedCoreRegistryTest extends HardCodedInferenceInitialiserTest
+{
+    private static final String[] BUILT_INS = new String[]{
+            "\\abs()", "\\array_merge()", "\\ceil()", "\\floor()", "\\str_replace()", "\\strlen()", "\\substr()",
+            "\\E_ALL#", "\\Exception", "\\ErrorException"
+    };
+    private static final String[] SUPER_GLOBALS = new String[]{"$_GET"};
+
+    @Test
+    public void getCoreInitialiser_SameSymbolsInitialiser_ReturnsSameCoreAndResolver() {
+        SharedCoreRegistry registry = new SharedCoreRegistry();
+        ISymbolsInitialiser symbolsInitialiser = new HardCodedSymbolsInitialiser();
+        ICoreInitialiser firstSession = registry.getCoreInitialiser(createAstHelper(), symbolsInitialiser);
+
+        ICoreInitialiser result = registry.getCoreInitialiser(createAstHelper(), symbolsInitialiser);
+
+        assertThat(result.getCore(), is(sameInstance(firstSession.getCore())));
+        assertThat(result.getCoreSymbolResolver(), is(sameInstance(firstSession.getCoreSymbolResolver())));
+        assertThat(registry.isRegistered(HardCodedSymbolsInitialiser.class), is(true));
+    }
+
+    @Test
+    public void getCoreInitialiser_DifferentSymbolsInitialisersOfSameClass_ReturnsSameCore() {
+        SharedCoreRegistry registry = new SharedCoreRegistry();
+        ICore firstCore = registry.getCoreInitialiser(createAstHelper(), new HardCodedSymbolsInitialiser()).getCore();
+
+        ICore result = registry.getCoreInitialiser(createAstHelper(), new HardCodedSymbolsInitialiser()).getCore();
+
+        assertThat(result, is(sameInstance(firstCore)));
+    }
+
+    @Test
+    public void getCoreInitialiser_DifferentConfigurationKeys_ReturnsDifferentCores() {
+        SharedCoreRegistry registry = new SharedCoreRegistry();
+        ICore firstCore = registry.getCoreInitialiser(
+                "first", createAstHelper(), new HardCodedSymbolsInitialiser()).getCore();
+
+        ICore result = registry.getCoreInitialiser(
+                "second", createAstHelper(), new HardCodedSymbolsInitialiser()).getCore();
+
+        assertThat(result, is(not(sameInstance(firstCore))));
+    }
+
+    @Test
+    public void getCoreInitialiser_SecondSymbolsInitialiser_IsWiredToSharedCore() {
+        SharedCoreRegistry registry = new SharedCoreRegistry();
+        ICore core = registry.getCoreInitialiser(createAstHelper(), new HardCodedSymbolsInitialiser()).getCore();
+        ISymbolsInitialiser symbolsInitialiser = new HardCodedSymbolsInitialiser();
+
+        registry.getCoreInitialiser(createAstHelper(), symbolsInitialiser);
+
+        assertThat(symbolsInitialiser.getSymbolFactory().getMixedTypeSymbol(),
+                is(sameInstance(core.getPrimitiveTypes().get(PrimitiveTypeNames.MIXED))));
+    }
+
+    @Test
+    public void getCoreInitialiser_Standard_IsTheOneTheOverloadsWereBuiltWith() {
+        SharedCoreRegistry registry = new SharedCoreRegistry();
+        Core core = (Core) registry.getCoreInitialiser(
+                createAstHelper(), new HardCodedSymbolsInitialiser()).getCore();
+
+        StandardConstraintAndVariables result = core.getStandardConstraintAndVariables();
+
+        assertThat(result.functionTypePool.size(), is(greaterThan(0)));
+        assertThat(result.variableIdPool.size(), is(greaterThan(0)));
+        assertThat(result.mixedTypeSymbol, is(sameInstance(core.getPrimitiveTypes().get(PrimitiveTypeNames.MIXED))));
+    }
+
+    @Test
+    public void unregister_Registered_NextSessionGetsNewCore() {
+        SharedCoreRegistry registry = new SharedCoreRegistry();
+        ICore firstCore = registry.getCoreInitialiser(createAstHelper(), new HardCodedSymbolsInitialiser()).getCore();
+
+        registry.unregister(HardCodedSymbolsInitialiser.class);
+        ICore result = registry.getCoreInitialiser(createAstHelper(), new HardCodedSymbolsInitialiser()).getCore();
+
+        assertThat(registry.isRegistered(HardCodedSymbolsInitialiser.class), is(true));
+        assertThat(result, is(not(sameInstance(firstCore))));
+    }
+
+    @Test
+    public void getCoreInitialiser_ConcurrentFirstCalls_AllGetSameCore() throws Exception {
+        final SharedCoreRegistry registry = new SharedCoreRegistry();
+        final ISymbolsInitialiser symbolsInitialiser = new HardCodedSymbolsInitialiser();
+
+        List<ICore> cores = runSessions(16, new Callable<ICore>()
+        {
+            @Override
+            public ICore call() {
+                return registry.getCoreInitialiser(createAstHelper(), symbolsInitialiser).getCore();
+            }
+        });
+
+        for (ICore core : cores) {
+            assertThat(core, is(sameInstance(cores.get(0))));
+        }
+    }
+
+    @Test
+    public void getCoreInitialiser_ManySessions_NothingMutated() throws Exception {
+        final SharedCoreRegistry registry = new SharedCoreRegistry();
+        final ISymbolsInitialiser symbolsInitialiser = new HardCodedSymbolsInitialiser();
+        ICoreInitialiser initialiser = registry.getCoreInitialiser(createAstHelper(), symbolsInitialiser);
+        Map<Object, List<String>> before = takeFingerprint(initialiser);
+
+        runSessions(64, new Callable<Object>()
+        {
+            @Override
+            public Object call() {
+                ICoreInitialiser session = registry.getCoreInitialiser(createAstHelper(), symbolsInitialiser);
+                takeFingerprint(session);
+                session.reset();
+                return null;
+            }
+        });
+        Map<Object, List<String>> result = takeFingerprint(initialiser);
+
+        assertThat(result, is(before));
+    }
+
+    @Test
+    public void getCoreInitialiser_SessionsApplyingOverloads_OverloadAndBindingCollectionsUnchanged()
+            throws Exception {
+        final SharedCoreRegistry registry = new SharedCoreRegistry();
+        ICoreInitialiser initialiser = registry.getCoreInitialiser(
+                createAstHelper(), new HardCodedSymbolsInitialiser());
+        List<Object> collectionsBefore = getOverloadAndBindingCollections(initialiser.getCore());
+        List<String> bindingsBefore = describeBindings(initialiser.getCore());
+
+        runSessions(32, new Callable<Object>()
+        {
+            @Override
+            public Object call() {
+                ICoreInitialiser session = registry.getCoreInitialiser(
+                        createAstHelper(), new HardCodedSymbolsInitialiser());
+                Core core = (Core) session.getCore();
+                for (Integer tokenType : core.getOperators().keySet()) {
+                    core.getGroundOverloads(tokenType);
+                    core.getDispatchIndex(tokenType);
+                    for (IFunctionType overload : core.getOperator(tokenType).getOverloads()) {
+                        //as the inference engine does when it applies an overload, it copies the overload and
+                        //transfers the bounds into its own binding collection
+                        IFunctionType copy = overload.copy(new ArrayList<IParametricTypeSymbol>());
+                        describeBindings(copy);
+                    }
+                }
+                return null;
+            }
+        });
+        List<Object> collectionsAfter = getOverloadAndBindingCollections(initialiser.getCore());
+        List<String> result = describeBindings(initialiser.getCore());
+
+        assertThat(collectionsAfter.size(), is(collectionsBefore.size()));
+        for (int i = 0; i < collectionsBefore.size(); ++i) {
+            assertThat(collectionsAfter.get(i), is(sameInstance(collectionsBefore.get(i))));
+        }
+        assertThat(result, is(bindingsBefore));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getOperators_Put_ThrowsUnsupportedOperationException() {
+        ICore core = createInitialiser().getCore();
+
+        core.getOperators().put(TokenTypes.Plus, null);
+
+        //assert in annotation
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getPrimitiveTypes_Remove_ThrowsUnsupportedOperationException() {
+        ICore core = createInitialiser().getCore();
+
+        core.getPrimitiveTypes().remove(PrimitiveTypeNames.INT);
+
+        //assert in annotation
+    }
+
+    @Override
+    protected ICoreInitialiser createInitialiser() {
+        return new SharedCoreRegistry().getCoreInitialiser(createAstHelper(), new HardCodedSymbolsInitialiser());
+    }
+
+    private static IAstHelper createAstHelper() {
+        return new AstHelper(new TSPHPAstAdaptor());
+    }
+
+    private static <T> List<T> runSessions(int numberOfSessions, Callable<T> session) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < numberOfSessions; ++i) {
+                futures.add(executorService.submit(session));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Maps every reachable core object to a description of its state.
+     */
+    private static Map<Object, List<String>> takeFingerprint(ICoreInitialiser initialiser) {
+        Map<Object, List<String>> fingerprint = new HashMap<>();
+        ICore core = initialiser.getCore();
+        for (Map.Entry<String, ITypeSymbol> entry : core.getPrimitiveTypes().entrySet()) {
+            fingerprint.put(entry.getValue(), describe(entry.getValue()));
+        }
+        for (Map.Entry<Integer, IMinimalMethodSymbol> entry : core.getOperators().entrySet()) {
+            fingerprint.put(entry.getValue(), describe(entry.getValue()));
+        }
+
+        IAstHelper astHelper = createAstHelper();
+        ISymbolResolver resolver = initialiser.getCoreSymbolResolver();
+        for (String name : BUILT_INS) {
+            ISymbol symbol = resolver.resolveAbsoluteIdentifier(astHelper.createAst(TokenTypes.Identifier, name));
+            fingerprint.put(symbol, describe(symbol));
+        }
+        for (String name : SUPER_GLOBALS) {
+            ISymbol symbol = resolver.resolveIdentifierFromSuperGlobalScope(
+                    astHelper.createAst(TokenTypes.VariableId, name));
+            fingerprint.put(symbol, describe(symbol));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the overload collection of every operator followed by its overloads and their binding collections.
+     */
+    private static List<Object> getOverloadAndBindingCollections(ICore core) {
+        List<Object> collections = new ArrayList<>();
+        for (IMinimalMethodSymbol operator : new TreeMap<>(core.getOperators()).values()) {
+            collections.add(operator.getOverloads());
+            for (IFunctionType overload : operator.getOverloads()) {
+                collections.add(overload);
+                collections.add(overload.getBindingCollection());
+            }
+        }
+        return collections;
+    }
+
+    private static List<String> describeBindings(ICore core) {
+        List<String> descriptions = new ArrayList<>();
+        for (IMinimalMethodSymbol operator : new TreeMap<>(core.getOperators()).values()) {
+            for (IFunctionType overload : operator.getOverloads()) {
+                descriptions.addAll(describeBindings(overload));
+            }
+        }
+        return descriptions;
+    }
+
+    private static List<String> describeBindings(IFunctionType overload) {
+        List<String> description = new ArrayList<>();
+        description.add(overload.getSignature());
+        IBindingCollection bindingCollection = overload.getBindingCollection();
+        for (String variableId : new TreeSet<>(bindingCollection.getVariableIds())) {
+            String typeVariable = bindingCollection.getTypeVariable(variableId);
+            description.add(variableId + ":" + typeVariable
+                    + " lower " + (bindingCollection.hasLowerTypeBounds(typeVariable)
+                    ? bindingCollection.getLowerTypeBounds(typeVariable).getAbsoluteName() : "-")
+                    + " upper " + (bindingCollection.hasUpperTypeBounds(typeVariable)
+                    ? bindingCollection.getUpperTypeBounds(typeVariable).getAbsoluteName() : "-")
+                    + " lowerRefs " + (bindingCollection.hasLowerRefBounds(typeVariable)
+                    ? new TreeSet<>(bindingCollection.getLowerRefBounds(typeVariable)) : "-")
+                    + " upperRefs " + (bindingCollection.hasUpperRefBounds(typeVariable)
+                    ? new TreeSet<>(bindingCollection.getUpperRefBounds(typeVariable)) : "-"));
+        }
+        return description;
+    }
+
+    private static List<String> describe(ISymbol symbol) {
+        List<String> description = new ArrayList<>();
+        description.add(symbol.getAbsoluteName());
+        if (symbol instanceof IPolymorphicTypeSymbol) {
+            description.add(symbol.toString());
+        } else if (symbol instanceof ITypeSymbol) {
+            for (ITypeSymbol parentTypeSymbol : ((ITypeSymbol) symbol).getParentTypeSymbols()) {
+                description.add(parentTypeSymbol.getAbsoluteName());
+            }
+        } else if (symbol instanceof IMinimalMethodSymbol) {
+            for (IFunctionType overload : ((IMinimalMethodSymbol) symbol).getOverloads()) {
+                description.add(overload.getSignature());
+            }
+        } else if (symbol.getType() != null) {
+            description.add(symbol.getType().getAbsoluteName());
+        }
+        return description;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.integration.config;
+
+import ch.tsphp.common.AstHelper;
+import ch.tsphp.common.IAstHelper;
+import ch.tsphp.common.TSPHPAstAdaptor;
+import ch.tsphp.common.symbols.ISymbol;
+import ch.tsphp.common.symbols.ITypeSymbol;
+import ch.tsphp.tinsphp.common.ICore;
+import ch.tsphp.tinsphp.common.config.ICoreInitialiser;
+import ch.tsphp.tinsphp.common.config.ISymbolsInitialiser;
+import ch.tsphp.tinsphp.common.core.IConversionsProvider;
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
+import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
+import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
+import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
+import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+import ch.tsphp.tinsphp.core.ConversionsProvider;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.CoreTypeRelations;
+import ch.tsphp.tinsphp.core.GeneratorHelper;
+import ch.tsphp.tinsphp.core.OperatorProvider;
+import ch.tsphp.tinsphp.core.PrimitiveTypesProvider;
+import ch.tsphp.tinsphp.core.StandardConstraintAndVariables;
+import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
+import ch.tsphp.tinsphp.core.config.SnapshotCoreInitialiser;
+import ch.tsphp.tinsphp.core.gen.BuiltInSymbolsProvider;
+import ch.tsphp.tinsphp.core.snapshot.CoreSnapshotFormat;
+import ch.tsphp.tinsphp.core.snapshot.CoreSnapshotWriter;
+import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class SnapshotCoreInitialiserTest extends HardCodedInferenceInitialiserTest
+{
+    private static final String[] BUILT_IN_FUNCTIONS = new String[]{
+            "\\abs()", "\\array_merge()", "\\count()", "\\str_replace()", "\\strlen()", "\\substr()"
+    };
+
+    @Test
+    public void constructor_ValidSnapshot_LoadsFromSnapshot() throws IOException {
+        byte[] snapshot = createSnapshot();
+
+        SnapshotCoreInitialiser initialiser = createInitialiser(snapshot);
+        boolean result = initialiser.wasLoadedFromSnapshot();
+
+        assertThat(result, is(true));
+    }
+
+    @Test
+    public void constructor_NoSnapshot_FallsBackToHardCodedCore() {
+        //no arrange necessary
+
+        SnapshotCoreInitialiser initialiser = new SnapshotCoreInitialiser(
+                new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser(), null);
+        boolean result = initialiser.wasLoadedFromSnapshot();
+
+        assertThat(result, is(false));
+        assertThat(initialiser.getCore().getOperators().size(), is(61));
+    }
+
+    @Test
+    public void constructor_StaleSnapshot_FallsBackToHardCodedCore() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(CoreSnapshotFormat.MAGIC);
+        dataOutputStream.writeShort(CoreSnapshotFormat.VERSION);
+        dataOutputStream.writeLong(CoreSnapshotFormat.computeFingerprint() + 1);
+        dataOutputStream.flush();
+
+        SnapshotCoreInitialiser initialiser = createInitialiser(outputStream.toByteArray());
+        boolean result = initialiser.wasLoadedFromSnapshot();
+
+        assertThat(result, is(false));
+        assertThat(initialiser.getCore().getOperators().size(), is(61));
+    }
+
+    @Test
+    public void constructor_TruncatedSnapshot_FallsBackToHardCodedCore() throws IOException {
+        byte[] snapshot = createSnapshot();
+
+        SnapshotCoreInitialiser initialiser = createInitialiser(Arrays.copyOf(snapshot, snapshot.length / 2));
+        boolean result = initialiser.wasLoadedFromSnapshot();
+
+        assertThat(result, is(false));
+        assertThat(initialiser.getCore().getOperators().size(), is(61));
+    }
+
+    @Test
+    public void getCore_FromSnapshot_OperatorsHaveSameSignaturesAsHardCodedCore() throws IOException {
+        byte[] snapshot = createSnapshot();
+
+        ICore result = createInitialiser(snapshot).getCore();
+
+        ICore expected = new HardCodedCoreInitialiser(
+                new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser()).getCore();
+        assertThat(result.getOperators().keySet(), is(expected.getOperators().keySet()));
+        for (Map.Entry<Integer, IMinimalMethodSymbol> entry : expected.getOperators().entrySet()) {
+            assertThat(getSignatures(result.getOperators().get(entry.getKey())), is(getSignatures(entry.getValue())));
+        }
+        assertThat(result.getPrimitiveTypes().keySet(), is(expected.getPrimitiveTypes().keySet()));
+    }
+
+    @Test
+    public void getCore_FromSnapshot_TypeRelationsSameAsHardCodedCore() throws IOException {
+        byte[] snapshot = createSnapshot();
+
+        CoreTypeRelations result = ((Core) createInitialiser(snapshot).getCore()).getTypeRelations();
+
+        CoreTypeRelations expected = ((Core) new HardCodedCoreInitialiser(
+                new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser()).getCore()).getTypeRelations();
+        assertThat(result.size(), is(expected.size()));
+        for (int i = 0; i < expected.size(); ++i) {
+            int first = result.getOrdinal(expected.getTypeSymbol(i));
+            for (int j = 0; j < expected.size(); ++j) {
+                int second = result.getOrdinal(expected.getTypeSymbol(j));
+                assertThat(result.isSameOrSubType(first, second), is(expected.isSameOrSubType(i, j)));
+                assertThat(result.hasExplicitConversion(first, second), is(expected.hasExplicitConversion(i, j)));
+            }
+        }
+    }
+
+    @Test
+    public void getCore_FromSnapshot_ComparisonOperatorsShareBindingCollection() throws IOException {
+        byte[] snapshot = createSnapshot();
+
+        ICore result = createInitialiser(snapshot).getCore();
+
+        IFunctionType equal = result.getOperators().get(TokenTypes.Equal).getOverloads().iterator().next();
+        IFunctionType lessThan = result.getOperators().get(TokenTypes.LessThan).getOverloads().iterator().next();
+        assertThat(equal.getBindingCollection(), sameInstance(lessThan.getBindingCollection()));
+        assertThat(lessThan.getName(), is("<"));
+    }
+
+    @Test
+    public void getCoreSymbolResolver_FromSnapshot_BuiltInsHaveSameSignaturesAsHardCodedCore() throws IOException {
+        byte[] snapshot = createSnapshot();
+        IAstHelper astHelper = new AstHelper(new TSPHPAstAdaptor());
+
+        ISymbolResolver result = createInitialiser(snapshot).getCoreSymbolResolver();
+
+        ISymbolResolver expected = new HardCodedCoreInitialiser(
+                astHelper, new HardCodedSymbolsInitialiser()).getCoreSymbolResolver();
+        for (String name : BUILT_IN_FUNCTIONS) {
+            IMinimalMethodSymbol function = (IMinimalMethodSymbol) result.resolveAbsoluteIdentifier(
+                    astHelper.createAst(TokenTypes.Identifier, name));
+            IMinimalMethodSymbol expectedFunction = (IMinimalMethodSymbol) expected.resolveAbsoluteIdentifier(
+                    astHelper.createAst(TokenTypes.Identifier, name));
+            assertThat(name, getSignatures(function), is(getSignatures(expectedFunction)));
+        }
+        ISymbol constant = result.resolveAbsoluteIdentifier(astHelper.createAst(TokenTypes.Identifier, "\\E_ALL#"));
+        assertThat(constant.getType().getAbsoluteName(), is(PrimitiveTypeNames.INT));
+        ISymbol errorException = result.resolveAbsoluteIdentifier(
+                astHelper.createAst(TokenTypes.Identifier, "\\ErrorException"));
+        ISymbol exception = result.resolveAbsoluteIdentifier(astHelper.createAst(TokenTypes.Identifier, "\\Exception"));
+        assertThat(((ITypeSymbol) errorException).getParentTypeSymbols().contains(exception), is(true));
+    }
+
+    @Override
+    protected ICoreInitialiser createInitialiser() {
+        return new SnapshotCoreInitialiser(new AstHelper(new TSPHPAstAdaptor()), new HardCodedSymbolsInitialiser());
+    }
+
+    private SnapshotCoreInitialiser createInitialiser(byte[] snapshot) {
+        return new SnapshotCoreInitialiser(
+                new AstHelper(new TSPHPAstAdaptor()),
+                new HardCodedSymbolsInitialiser(),
+                new ByteArrayInputStream(snapshot));
+    }
+
+    private List<String> getSignatures(IMinimalMethodSymbol methodSymbol) {
+        List<String> signatures = new ArrayList<>();
+        for (IFunctionType overload : methodSymbol.getOverloads()) {
+            signatures.add(overload.getName() + " " + overload.getSignature());
+        }
+        return signatures;
+    }
+
+    private byte[] createSnapshot() throws IOException {
+        IAstHelper astHelper = new AstHelper(new TSPHPAstAdaptor());
+        ISymbolsInitialiser symbolsInitialiser = new HardCodedSymbolsInitialiser();
+        ISymbolFactory symbolFactory = symbolsInitialiser.getSymbolFactory();
+        ITypeHelper typeHelper = symbolsInitialiser.getTypeHelper();
+        Map<String, ITypeSymbol> primitiveTypes = new PrimitiveTypesProvider(symbolFactory).getTypes();
+        symbolFactory.setMixedTypeSymbol(primitiveTypes.get(PrimitiveTypeNames.MIXED));
+        IConversionsProvider conversionsProvider = new ConversionsProvider(primitiveTypes);
+        typeHelper.setConversionsProvider(conversionsProvider);
+        StandardConstraintAndVariables std = new StandardConstraintAndVariables(symbolFactory, primitiveTypes);
+        Map<String, ISymbol> builtInSymbols = new BuiltInSymbolsProvider(
+                new GeneratorHelper(astHelper, symbolFactory, primitiveTypes), symbolFactory, typeHelper, std)
+                .getSymbols();
+        Map<Integer, IMinimalMethodSymbol> operators = new OperatorProvider(
+                symbolFactory, typeHelper, std, builtInSymbols).getOperators();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        new CoreSnapshotWriter(primitiveTypes).write(outputStream, conversionsProvider, builtInSymbols, operators);
+        return outputStream.toByteArray();
+    }
+}
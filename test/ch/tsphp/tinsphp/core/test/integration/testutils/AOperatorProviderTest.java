@@ -9,6 +9,9 @@ package ch.tsphp.tinsphp.core.test.integration.testutils;
 import ch.tsphp.common.symbols.ISymbol;
 import ch.tsphp.tinsphp.common.symbols.ISymbolFactory;
 import ch.tsphp.tinsphp.common.utils.ITypeHelper;
+import ch.tsphp.tinsphp.core.ConversionsProvider;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.CoreTypeRelations;
 import ch.tsphp.tinsphp.core.IOperatorsProvider;
 import ch.tsphp.tinsphp.core.OperatorProvider;
 import ch.tsphp.tinsphp.core.StandardConstraintAndVariables;
@@ -31,4 +34,11 @@ public abstract class AOperatorProviderTest extends ATest
         return new OperatorProvider(
                 theSymbolFactory, theTypeHelperResolver, standardConstraintAndVariables, theBuiltInSymbols);
     }
+
+    protected Core createCore() {
+        CoreTypeRelations typeRelations = new CoreTypeRelations(typeHelper, (ConversionsProvider) conversionsProvider,
+                CoreTypeRelations.getCoreTypes(primitiveTypes, std, builtInSymbols));
+        return new Core(primitiveTypes, createOperatorProvider().getOperators(), builtInSymbols,
+                typeRelations, typeHelper, std);
+    }
 }
@@ -11,20 +11,35 @@ import ch.tsphp.common.TSPHPAstAdaptor;
 import ch.tsphp.common.symbols.ITypeSymbol;
 import ch.tsphp.tinsphp.common.ICore;
 import ch.tsphp.tinsphp.common.config.ICoreInitialiser;
+import ch.tsphp.tinsphp.common.gen.TokenTypes;
+import ch.tsphp.tinsphp.common.inference.constraints.IFunctionType;
 import ch.tsphp.tinsphp.common.symbols.IMinimalMethodSymbol;
 import ch.tsphp.tinsphp.common.symbols.PrimitiveTypeNames;
+import ch.tsphp.tinsphp.core.Core;
+import ch.tsphp.tinsphp.core.GroundOverload;
+import ch.tsphp.tinsphp.core.OverloadDispatchIndex;
+import ch.tsphp.tinsphp.core.OverloadSpecificityOrder;
 import ch.tsphp.tinsphp.core.config.HardCodedCoreInitialiser;
 import ch.tsphp.tinsphp.core.test.integration.OperatorProviderOverloadTest;
 import ch.tsphp.tinsphp.core.test.integration.testutils.ATest;
 import ch.tsphp.tinsphp.symbols.config.HardCodedSymbolsInitialiser;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.hamcrest.collection.IsMapContaining.hasKey;
 import static org.junit.Assert.fail;
 
@@ -68,6 +83,127 @@ public class CoreTest extends ATest
         }
     }
 
+    @Test
+    public void getOperator_AllOperators_ReturnsSameSymbolsAsMap() {
+        //no arrange necessary
+
+        Core core = (Core) createInitialiser().getCore();
+
+        for (Map.Entry<Integer, IMinimalMethodSymbol> entry : core.getOperators().entrySet()) {
+            IMinimalMethodSymbol result = core.getOperator(entry.getKey());
+            assertThat(result, sameInstance(entry.getValue()));
+            assertThat(result.getOverloads().isEmpty(), is(false));
+        }
+    }
+
+    @Test
+    public void getOperator_ColdOperatorHitByManyThreads_AllSeeCompleteOperator() throws Exception {
+        Core referenceCore = (Core) createInitialiser().getCore();
+        int numberOfOverloads = referenceCore.getOperator(TokenTypes.Minus).getOverloads().size();
+        for (int round = 0; round < 20; ++round) {
+            final Core core = (Core) createInitialiser().getCore();
+            final CyclicBarrier barrier = new CyclicBarrier(8);
+            ExecutorService executorService = Executors.newFixedThreadPool(8);
+            List<Future<IMinimalMethodSymbol>> futures = new ArrayList<>();
+
+            try {
+                for (int i = 0; i < 8; ++i) {
+                    futures.add(executorService.submit(new Callable<IMinimalMethodSymbol>()
+                    {
+                        @Override
+                        public IMinimalMethodSymbol call() throws Exception {
+                            barrier.await();
+                            return core.getOperator(TokenTypes.Minus);
+                        }
+                    }));
+                }
+                IMinimalMethodSymbol expected = futures.get(0).get();
+                for (Future<IMinimalMethodSymbol> future : futures) {
+                    IMinimalMethodSymbol result = future.get();
+                    assertThat(result, sameInstance(expected));
+                    assertThat(result.getOverloads().size(), is(numberOfOverloads));
+                }
+            } finally {
+                executorService.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void getGroundOverloads_ColdOperatorHitByManyThreads_AllSeeSameList() throws Exception {
+        Core referenceCore = (Core) createInitialiser().getCore();
+        int numberOfGroundOverloads = referenceCore.getGroundOverloads(TokenTypes.Minus).size();
+        for (int round = 0; round < 20; ++round) {
+            final Core core = (Core) createInitialiser().getCore();
+            final CyclicBarrier barrier = new CyclicBarrier(8);
+            ExecutorService executorService = Executors.newFixedThreadPool(8);
+            List<Future<List<GroundOverload>>> futures = new ArrayList<>();
+
+            try {
+                for (int i = 0; i < 8; ++i) {
+                    futures.add(executorService.submit(new Callable<List<GroundOverload>>()
+                    {
+                        @Override
+                        public List<GroundOverload> call() throws Exception {
+                            barrier.await();
+                            return core.getGroundOverloads(TokenTypes.Minus);
+                        }
+                    }));
+                }
+                List<GroundOverload> expected = futures.get(0).get();
+                for (Future<List<GroundOverload>> future : futures) {
+                    List<GroundOverload> result = future.get();
+                    assertThat(result, sameInstance(expected));
+                    assertThat(result.size(), is(numberOfGroundOverloads));
+                }
+            } finally {
+                executorService.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void getDispatchIndex_Plus_IndexesOverloadsOfOperator() {
+        //no arrange necessary
+
+        Core core = (Core) createInitialiser().getCore();
+        OverloadDispatchIndex result = core.getDispatchIndex(TokenTypes.Plus);
+
+        List<IFunctionType> expected = new ArrayList<>(core.getOperator(TokenTypes.Plus).getOverloads());
+        assertThat(result.getOverloads(), is(expected));
+    }
+
+    @Test
+    public void getSpecificityOrder_Abs_OrdersOverloadsOfBuiltInFunction() {
+        //no arrange necessary
+
+        Core core = (Core) createInitialiser().getCore();
+        OverloadSpecificityOrder result = core.getSpecificityOrder("\\abs()");
+
+        IMinimalMethodSymbol abs = (IMinimalMethodSymbol) core.getBuiltInSymbols().get("\\abs()");
+        assertThat(result.size(), is(abs.getOverloads().size()));
+    }
+
+    @Test
+    public void getOperator_NotAnOperator_ReturnsNull() {
+        //no arrange necessary
+
+        Core core = (Core) createInitialiser().getCore();
+        IMinimalMethodSymbol result = core.getOperator(TokenTypes.Identifier);
+
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void getOperator_OutOfRange_ReturnsNull() {
+        //no arrange necessary
+
+        Core core = (Core) createInitialiser().getCore();
+
+        assertThat(core.getOperator(-1), is(nullValue()));
+        assertThat(core.getOperator(Integer.MAX_VALUE), is(nullValue()));
+    }
+
     @Test
     public void getPrimitiveTypes_Standard_ReturnAllTypes() {
         //no arrange necessary
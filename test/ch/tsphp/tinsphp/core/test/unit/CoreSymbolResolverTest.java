@@ -13,6 +13,7 @@ import ch.tsphp.tinsphp.common.resolving.ISymbolResolver;
 import ch.tsphp.tinsphp.common.scopes.IConditionalScope;
 import ch.tsphp.tinsphp.common.scopes.INamespaceScope;
 import ch.tsphp.tinsphp.core.CoreSymbolResolver;
+import ch.tsphp.tinsphp.core.SymbolLookupStatisticsDto;
 import org.junit.Test;
 import org.mockito.exceptions.base.MockitoAssertionError;
 
@@ -21,10 +22,12 @@ import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -92,7 +95,7 @@ public class CoreSymbolResolverTest
         ISymbol result = resolver.resolveIdentifierFromItsScope(ast);
 
         verify(ast).getScope();
-        verify(predefinedSymbols).get(scopeName + identifier);
+        verify(predefinedSymbols, never()).get(anyString());
         assertThat(result, is(nullValue()));
     }
 
@@ -111,10 +114,30 @@ public class CoreSymbolResolverTest
         ISymbol result = resolver.resolveIdentifierFromItsScope(ast);
 
         verify(ast).getScope();
-        verify(predefinedSymbols).get(scopeName + identifier);
+        verify(predefinedSymbols, never()).get(anyString());
         assertThat(result, is(nullValue()));
     }
 
+    @Test
+    public void resolveIdentifierFromItsScope_QualifiedIdentifierExistingInNamespace_ReturnsSymbol() {
+        ITSPHPAst ast = mock(ITSPHPAst.class);
+        String identifier = "tsphp\\Dummy";
+        when(ast.getText()).thenReturn(identifier);
+        INamespaceScope scope = mock(INamespaceScope.class);
+        when(ast.getScope()).thenReturn(scope);
+        String scopeName = "\\ch\\";
+        when(scope.getScopeName()).thenReturn(scopeName);
+        Map<String, ISymbol> predefinedSymbols = spy(new HashMap<String, ISymbol>());
+        ISymbol symbol = mock(ISymbol.class);
+        predefinedSymbols.put("\\ch\\tsphp\\Dummy", symbol);
+
+        ISymbolResolver resolver = createSymbolResolverOnlyPredefined(predefinedSymbols);
+        ISymbol result = resolver.resolveIdentifierFromItsScope(ast);
+
+        verify(predefinedSymbols).get("\\ch\\tsphp\\Dummy");
+        assertThat(result, is(symbol));
+    }
+
     @Test
     public void resolveIdentifierFromItsScopeCaseInsensitive_NonExistingNotInNamespace_DoesNotResolveAndReturnsNull() {
         ITSPHPAst ast = mock(ITSPHPAst.class);
@@ -204,6 +227,68 @@ public class CoreSymbolResolverTest
         assertThat(result, is(nullValue()));
     }
 
+    @Test
+    public void resolveIdentifierFromItsScopeCaseInsensitive_WrongCaseInScopeNameAndIdentifier_ReturnsSymbol() {
+        ITSPHPAst ast = mock(ITSPHPAst.class);
+        when(ast.getText()).thenReturn("tsphp\\DUMMY");
+        INamespaceScope scope = mock(INamespaceScope.class);
+        when(ast.getScope()).thenReturn(scope);
+        when(scope.getScopeName()).thenReturn("\\CH\\");
+        Map<String, ISymbol> predefinedSymbols = spy(new HashMap<String, ISymbol>());
+        ISymbol symbol = mock(ISymbol.class);
+        predefinedSymbols.put("\\ch\\TSPHP\\dummy", symbol);
+
+        ISymbolResolver resolver = createSymbolResolverOnlyPredefined(predefinedSymbols);
+        ISymbol result = resolver.resolveIdentifierFromItsScopeCaseInsensitive(ast);
+
+        verify(predefinedSymbols).get("\\ch\\TSPHP\\dummy");
+        assertThat(result, is(symbol));
+    }
+
+    @Test
+    public void resolveIdentifierFromItsScopeCaseInsensitive_KeysDifferOnlyInCase_PrefersSameCase() {
+        ITSPHPAst ast = mock(ITSPHPAst.class);
+        INamespaceScope scope = mock(INamespaceScope.class);
+        when(ast.getScope()).thenReturn(scope);
+        when(scope.getScopeName()).thenReturn("\\");
+        Map<String, ISymbol> predefinedSymbols = new HashMap<>();
+        ISymbol lowerCase = mock(ISymbol.class);
+        predefinedSymbols.put("\\dummy", lowerCase);
+        ISymbol upperCase = mock(ISymbol.class);
+        predefinedSymbols.put("\\DUMMY", upperCase);
+
+        ISymbolResolver resolver = createSymbolResolverOnlyPredefined(predefinedSymbols);
+        when(ast.getText()).thenReturn("dummy");
+        ISymbol result1 = resolver.resolveIdentifierFromItsScopeCaseInsensitive(ast);
+        when(ast.getText()).thenReturn("DUMMY");
+        ISymbol result2 = resolver.resolveIdentifierFromItsScopeCaseInsensitive(ast);
+
+        assertThat(result1, is(lowerCase));
+        assertThat(result2, is(upperCase));
+    }
+
+    @Test
+    public void resolveIdentifierFromItsScopeCaseInsensitive_ManyPredefinedSymbols_ResolvesEachOne() {
+        Map<String, ISymbol> predefinedSymbols = new HashMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            predefinedSymbols.put("\\Func" + i + "()", mock(ISymbol.class));
+        }
+        ITSPHPAst ast = mock(ITSPHPAst.class);
+        INamespaceScope scope = mock(INamespaceScope.class);
+        when(ast.getScope()).thenReturn(scope);
+        when(scope.getScopeName()).thenReturn("\\");
+
+        ISymbolResolver resolver = createSymbolResolverOnlyPredefined(predefinedSymbols);
+
+        for (int i = 0; i < 1000; ++i) {
+            when(ast.getText()).thenReturn("fUNC" + i + "()");
+            assertThat(resolver.resolveIdentifierFromItsScopeCaseInsensitive(ast),
+                    is(predefinedSymbols.get("\\Func" + i + "()")));
+        }
+        when(ast.getText()).thenReturn("func1000()");
+        assertThat(resolver.resolveIdentifierFromItsScopeCaseInsensitive(ast), is(nullValue()));
+    }
+
     @Test
     public void resolveIdentifierFromFallback_NonExisting_DelegatesToSymbolsAndReturnsNull() {
         ITSPHPAst ast = mock(ITSPHPAst.class);
@@ -214,7 +299,7 @@ public class CoreSymbolResolverTest
         ISymbolResolver resolver = createSymbolResolverOnlyPredefined(predefinedSymbols);
         ISymbol result = resolver.resolveIdentifierFromFallback(ast);
 
-        verify(predefinedSymbols).get("\\" + identifier);
+        verify(predefinedSymbols, never()).get(anyString());
         assertThat(result, is(nullValue()));
     }
 
@@ -234,6 +319,24 @@ public class CoreSymbolResolverTest
         assertThat(result, is(symbol));
     }
 
+    @Test
+    public void resolveIdentifierFromFallback_ManyPredefinedSymbols_ResolvesEachOne() {
+        Map<String, ISymbol> predefinedSymbols = new HashMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            predefinedSymbols.put("\\f" + i + "()", mock(ISymbol.class));
+        }
+        ITSPHPAst ast = mock(ITSPHPAst.class);
+
+        ISymbolResolver resolver = createSymbolResolverOnlyPredefined(predefinedSymbols);
+
+        for (int i = 0; i < 1000; ++i) {
+            when(ast.getText()).thenReturn("f" + i + "()");
+            assertThat(resolver.resolveIdentifierFromFallback(ast), is(predefinedSymbols.get("\\f" + i + "()")));
+        }
+        when(ast.getText()).thenReturn("f1000()");
+        assertThat(resolver.resolveIdentifierFromFallback(ast), is(nullValue()));
+    }
+
     @Test
     public void resolveAbsoluteIdentifier_NonExisting_DelegatesToSymbolsAndReturnsNull() {
         ITSPHPAst ast = mock(ITSPHPAst.class);
@@ -244,7 +347,7 @@ public class CoreSymbolResolverTest
         ISymbolResolver resolver = createSymbolResolverOnlyPredefined(predefinedSymbols);
         ISymbol result = resolver.resolveAbsoluteIdentifier(ast);
 
-        verify(predefinedSymbols).get(identifier);
+        verify(predefinedSymbols, never()).get(anyString());
         assertThat(result, is(nullValue()));
     }
 
@@ -298,7 +401,7 @@ public class CoreSymbolResolverTest
         ISymbolResolver resolver = createSymbolResolverOnlyPredefined(predefinedSymbols);
         ISymbol result = resolver.resolveIdentifierFromItsNamespaceScope(ast);
 
-        verify(predefinedSymbols).get(scopeName + identifier);
+        verify(predefinedSymbols, never()).get(anyString());
         assertThat(result, is(nullValue()));
     }
 
@@ -399,6 +502,60 @@ public class CoreSymbolResolverTest
         assertThat(result, is(nullValue()));
     }
 
+    @Test
+    public void getLookupStatistics_MixOfCoreAndUserIdentifiers_CountsOutcomes() {
+        Map<String, ISymbol> predefinedSymbols = new HashMap<>();
+        for (int i = 0; i < 100; ++i) {
+            predefinedSymbols.put("\\f" + i + "()", mock(ISymbol.class));
+        }
+        ITSPHPAst ast = mock(ITSPHPAst.class);
+        CoreSymbolResolver resolver = new CoreSymbolResolver(
+                predefinedSymbols, new HashMap<String, ISymbol>(), true);
+
+        for (int i = 0; i < 100; ++i) {
+            when(ast.getText()).thenReturn("f" + i + "()");
+            resolver.resolveIdentifierFromFallback(ast);
+        }
+        for (int i = 0; i < 1000; ++i) {
+            when(ast.getText()).thenReturn("userFunction" + i + "()");
+            resolver.resolveIdentifierFromFallback(ast);
+        }
+        SymbolLookupStatisticsDto result = resolver.getLookupStatistics();
+
+        assertThat(result.numberOfLookups, is(1100L));
+        assertThat(result.numberOfHits, is(100L));
+        assertThat(result.numberOfRejections + result.numberOfFalsePositives, is(1000L));
+        //16 bits per key and 3 bits per hash result in a false positive rate of about 0.5%
+        assertThat(result.numberOfRejections, is(greaterThan(900L)));
+    }
+
+    @Test
+    public void getLookupStatistics_NoLookups_AllZero() {
+        CoreSymbolResolver resolver = new CoreSymbolResolver(
+                new HashMap<String, ISymbol>(), new HashMap<String, ISymbol>(), true);
+
+        SymbolLookupStatisticsDto result = resolver.getLookupStatistics();
+
+        assertThat(result.numberOfLookups, is(0L));
+        assertThat(result.numberOfRejections, is(0L));
+        assertThat(result.numberOfHits, is(0L));
+        assertThat(result.numberOfFalsePositives, is(0L));
+    }
+
+    @Test
+    public void getLookupStatistics_CountingNotRequested_ReturnsNull() {
+        Map<String, ISymbol> predefinedSymbols = new HashMap<>();
+        predefinedSymbols.put("\\foo()", mock(ISymbol.class));
+        ITSPHPAst ast = mock(ITSPHPAst.class);
+        when(ast.getText()).thenReturn("foo()");
+        CoreSymbolResolver resolver = new CoreSymbolResolver(predefinedSymbols, new HashMap<String, ISymbol>());
+
+        resolver.resolveIdentifierFromFallback(ast);
+        SymbolLookupStatisticsDto result = resolver.getLookupStatistics();
+
+        assertThat(result, is(nullValue()));
+    }
+
     private ISymbolResolver createSymbolResolverOnlyPredefined(Map<String, ISymbol> predefinedSymbols) {
         return createSymbolResolver(predefinedSymbols, new HashMap<String, ISymbol>());
     }
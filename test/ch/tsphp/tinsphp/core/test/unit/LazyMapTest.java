@@ -0,0 +1,158 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.unit;
+
+import ch.tsphp.tinsphp.core.ILazyInitialiser;
+import ch.tsphp.tinsphp.core.LazyMap;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class LazyMapTest
+{
+    private static final int NUMBER_OF_THREADS = 16;
+
+    @Test
+    public void containsKeyAndSize_Standard_DoesNotInitialise() {
+        ILazyInitialiser<Integer, String> initialiser = createInitialiser();
+
+        Map<Integer, String> map = createLazyMap(initialiser);
+        boolean result = map.containsKey(1);
+
+        assertThat(result, is(true));
+        assertThat(map.containsKey(3), is(false));
+        assertThat(map.size(), is(2));
+        assertThat(map.keySet().contains(2), is(true));
+        verify(initialiser, never()).initialise(anyInt(), anyString());
+    }
+
+    @Test
+    public void get_CalledTwice_InitialisesOnlyRequestedEntryOnce() {
+        ILazyInitialiser<Integer, String> initialiser = createInitialiser();
+
+        LazyMap<Integer, String> map = createLazyMap(initialiser);
+        String result1 = map.get(1);
+        String result2 = map.get(1);
+
+        assertThat(result1, is("one"));
+        assertThat(result2, is("one"));
+        assertThat(map.isInitialised(1), is(true));
+        assertThat(map.isInitialised(2), is(false));
+        verify(initialiser, times(1)).initialise(1, "one");
+        verify(initialiser, never()).initialise(2, "two");
+    }
+
+    @Test
+    public void get_NonExistingKey_ReturnsNullAndDoesNotInitialise() {
+        ILazyInitialiser<Integer, String> initialiser = createInitialiser();
+
+        Map<Integer, String> map = createLazyMap(initialiser);
+        String result = map.get(3);
+
+        assertThat(result, is(nullValue()));
+        verify(initialiser, never()).initialise(anyInt(), anyString());
+    }
+
+    @Test
+    public void entrySet_Iterated_InitialisesEachEntry() {
+        ILazyInitialiser<Integer, String> initialiser = createInitialiser();
+
+        Map<Integer, String> map = createLazyMap(initialiser);
+        Map<Integer, String> result = new HashMap<>(map);
+
+        assertThat(result.get(1), is("one"));
+        assertThat(result.get(2), is("two"));
+        verify(initialiser).initialise(1, "one");
+        verify(initialiser).initialise(2, "two");
+    }
+
+    @Test
+    public void put_NewValue_IsNotInitialised() {
+        ILazyInitialiser<Integer, String> initialiser = createInitialiser();
+
+        Map<Integer, String> map = createLazyMap(initialiser);
+        map.put(3, "three");
+        String result = map.get(3);
+
+        assertThat(result, is("three"));
+        verify(initialiser, never()).initialise(anyInt(), anyString());
+    }
+
+    @Test
+    public void get_SameKeyFromManyThreadsAtTheSameTime_InitialisesOnceAndAllSeeCompleteValue() throws Exception {
+        final AtomicInteger numberOfInitialisations = new AtomicInteger();
+        Map<Integer, List<Integer>> placeholders = new HashMap<>();
+        placeholders.put(1, new ArrayList<Integer>());
+        final LazyMap<Integer, List<Integer>> map = new LazyMap<>(placeholders,
+                new ILazyInitialiser<Integer, List<Integer>>()
+                {
+                    @Override
+                    public void initialise(Integer key, List<Integer> placeholder) {
+                        numberOfInitialisations.incrementAndGet();
+                        for (int i = 0; i < 1000; ++i) {
+                            placeholder.add(i);
+                            //widen the window for racing threads
+                            Thread.yield();
+                        }
+                    }
+                });
+        final CyclicBarrier barrier = new CyclicBarrier(NUMBER_OF_THREADS);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < NUMBER_OF_THREADS; ++i) {
+                futures.add(executorService.submit(new Callable<Integer>()
+                {
+                    @Override
+                    public Integer call() throws Exception {
+                        barrier.await();
+                        return map.get(1).size();
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertThat(future.get(), is(1000));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertThat(numberOfInitialisations.get(), is(1));
+        assertThat(map.isInitialised(1), is(true));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ILazyInitialiser<Integer, String> createInitialiser() {
+        return mock(ILazyInitialiser.class);
+    }
+
+    private LazyMap<Integer, String> createLazyMap(ILazyInitialiser<Integer, String> initialiser) {
+        Map<Integer, String> placeholders = new HashMap<>();
+        placeholders.put(1, "one");
+        placeholders.put(2, "two");
+        return new LazyMap<>(placeholders, initialiser);
+    }
+}
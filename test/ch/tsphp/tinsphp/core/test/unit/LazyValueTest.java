@@ -0,0 +1,126 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.unit;
+
+import ch.tsphp.tinsphp.core.LazyValue;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class LazyValueTest
+{
+    private static final int NUMBER_OF_THREADS = 64;
+
+    @Test
+    public void get_FirstCall_CreatesValue() {
+        CountingLazyValue lazyValue = new CountingLazyValue();
+
+        boolean createdBefore = lazyValue.isCreated();
+        List<Integer> result = lazyValue.get();
+
+        assertThat(createdBefore, is(false));
+        assertThat(lazyValue.isCreated(), is(true));
+        assertThat(result.size(), is(1000));
+        assertThat(lazyValue.numberOfCreations.get(), is(1));
+    }
+
+    @Test
+    public void get_SecondCall_DoesNotCreateAgain() {
+        CountingLazyValue lazyValue = new CountingLazyValue();
+
+        List<Integer> result1 = lazyValue.get();
+        List<Integer> result2 = lazyValue.get();
+
+        assertThat(result1, is(sameInstance(result2)));
+        assertThat(lazyValue.numberOfCreations.get(), is(1));
+    }
+
+    @Test
+    public void get_CreationFails_RethrowsOnEveryCall() {
+        final AtomicInteger numberOfCreations = new AtomicInteger();
+        LazyValue<String> lazyValue = new LazyValue<String>()
+        {
+            @Override
+            protected String create() {
+                numberOfCreations.incrementAndGet();
+                throw new IllegalStateException("failed");
+            }
+        };
+
+        for (int i = 0; i < 2; ++i) {
+            try {
+                lazyValue.get();
+                fail("IllegalStateException expected");
+            } catch (IllegalStateException ex) {
+                assertThat(ex.getMessage(), is("failed"));
+            }
+        }
+
+        assertThat(numberOfCreations.get(), is(1));
+    }
+
+    @Test
+    public void get_ManyThreadsAtTheSameTime_CreatesOnceAndAllSeeCompleteValue() throws Exception {
+        final CountingLazyValue lazyValue = new CountingLazyValue();
+        final CyclicBarrier barrier = new CyclicBarrier(NUMBER_OF_THREADS);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < NUMBER_OF_THREADS; ++i) {
+                futures.add(executorService.submit(new Callable<List<Integer>>()
+                {
+                    @Override
+                    public List<Integer> call() throws Exception {
+                        barrier.await();
+                        return lazyValue.get();
+                    }
+                }));
+            }
+
+            List<Integer> expected = futures.get(0).get();
+            for (Future<List<Integer>> future : futures) {
+                List<Integer> result = future.get();
+                assertThat(result, is(sameInstance(expected)));
+                assertThat(result.size(), is(1000));
+                assertThat(result.get(999), is(999));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+        assertThat(lazyValue.numberOfCreations.get(), is(1));
+    }
+
+    private static class CountingLazyValue extends LazyValue<List<Integer>>
+    {
+        private final AtomicInteger numberOfCreations = new AtomicInteger();
+
+        @Override
+        protected List<Integer> create() {
+            numberOfCreations.incrementAndGet();
+            List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < 1000; ++i) {
+                list.add(i);
+                //widen the window for racing threads
+                Thread.yield();
+            }
+            return list;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of the TinsPHP project published under the Apache License 2.0
+ * For the full copyright and license information, please have a look at LICENSE in the
+ * root folder or visit the project's website http://tsphp.ch/wiki/display/TINS/License
+ */
+
+package ch.tsphp.tinsphp.core.test.unit;
+
+import ch.tsphp.tinsphp.core.VariableIdPool;
+import org.junit.Test;
+
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.T_LHS;
+import static ch.tsphp.tinsphp.core.StandardConstraintAndVariables.VAR_LHS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class VariableIdPoolTest
+{
+    @Test
+    public void getId_NewPool_StartsAtZero() {
+        VariableIdPool pool = new VariableIdPool();
+
+        int first = pool.getId(T_LHS);
+        int second = pool.getId(VAR_LHS);
+
+        assertThat(first, is(0));
+        assertThat(second, is(1));
+        assertThat(pool.getName(first), is(T_LHS));
+    }
+
+    @Test
+    public void getId_NewNames_AssignsNextDenseIds() {
+        VariableIdPool pool = new VariableIdPool();
+        int size = pool.size();
+
+        int first = pool.getId("T1");
+        int second = pool.getId("$a");
+        int firstAgain = pool.getId("T1");
+
+        assertThat(first, is(size));
+        assertThat(second, is(size + 1));
+        assertThat(firstAgain, is(first));
+        assertThat(pool.getName(second), is("$a"));
+        assertThat(pool.size(), is(size + 2));
+    }
+}